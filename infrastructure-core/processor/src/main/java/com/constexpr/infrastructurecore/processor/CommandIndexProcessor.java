@@ -0,0 +1,387 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * CommandIndexProcessor generates the static command index of InfrastructureCore.
+ * <p>
+ * The processor reads the ACF annotations of every InfrastructureCommand
+ * subclass and writes GeneratedCommandIndex, which holds one CommandIndexEntry
+ * per handler, a factory for the command instances, and a switch that calls
+ * every directly dispatchable handler as a plain static method. Handlers whose
+ * signature or conditions need ACF's resolvers are still indexed, but are
+ * marked so that they are always dispatched through ACF.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@SupportedAnnotationTypes(CommandIndexProcessor.COMMAND_ALIAS)
+public class CommandIndexProcessor extends AbstractProcessor {
+    static final String COMMAND_ALIAS = "co.aikar.commands.annotation.CommandAlias";
+
+    private static final String SUBCOMMAND = "co.aikar.commands.annotation.Subcommand";
+
+    private static final String DEFAULT = "co.aikar.commands.annotation.Default";
+
+    private static final String CATCH_UNKNOWN = "co.aikar.commands.annotation.CatchUnknown";
+
+    private static final String COMMAND_PERMISSION = "co.aikar.commands.annotation.CommandPermission";
+
+    private static final String CONDITIONS = "co.aikar.commands.annotation.Conditions";
+
+    private static final String OPTIONAL = "co.aikar.commands.annotation.Optional";
+
+    private static final String INFRASTRUCTURE_COMMAND = "com.constexpr.infrastructurecore.command.InfrastructureCommand";
+
+    private static final String INDEX_PACKAGE = "com.constexpr.infrastructurecore.command.index";
+
+    private static final String INDEX_CLASS = "GeneratedCommandIndex";
+
+    private final Map<String, TypeElement> commandClasses = new TreeMap<>();
+
+    private final List<String> commandOrder = new ArrayList<>();
+
+    /**
+     * Default Constructor for the Java Compiler's ServiceLoader.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandIndexProcessor() { }
+
+    /**
+     * Supports the source version of the running compiler.
+     *
+     * @return The latest supported source version.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Collects the InfrastructureCommands of every round and writes the index after the last one.
+     *
+     * @param annotations The annotation types of the round.
+     * @param roundEnvironment The round environment.
+     * @return False, so other processors may also claim the ACF annotations.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        // Collect the annotated InfrastructureCommand subclasses.
+        for(TypeElement annotation : annotations) {
+            for(Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if(element.getKind() != ElementKind.CLASS || !isInfrastructureCommand((TypeElement) element)) continue;
+
+                TypeElement commandClass = (TypeElement) element;
+                String name = commandClass.getQualifiedName().toString();
+                if(commandClasses.put(name, commandClass) == null) commandOrder.add(name);
+            }
+        }
+
+        // Write the index once every round has been collected.
+        if(roundEnvironment.processingOver() && !commandOrder.isEmpty()) writeIndex();
+
+        return false;
+    }
+
+    private boolean isInfrastructureCommand(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+
+        while(superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+            if(superElement.getQualifiedName().contentEquals(INFRASTRUCTURE_COMMAND)) return true;
+
+            superclass = superElement.getSuperclass();
+        }
+
+        return false;
+    }
+
+    private void writeIndex() {
+        List<String> entries = new ArrayList<>();
+        List<String> invocations = new ArrayList<>();
+        List<String> factories = new ArrayList<>();
+
+        // Index every handler of every command class in declaration order.
+        for(String className : commandOrder) {
+            TypeElement commandClass = commandClasses.get(className);
+            String rootName = firstAlias(annotationValue(commandClass, COMMAND_ALIAS));
+            String classPermission = annotationValue(commandClass, COMMAND_PERMISSION);
+            String classConditions = annotationValue(commandClass, CONDITIONS);
+
+            factories.add("new " + className + "()");
+
+            for(Element member : commandClass.getEnclosedElements()) {
+                if(member.getKind() != ElementKind.METHOD) continue;
+
+                ExecutableElement method = (ExecutableElement) member;
+                String subcommand = annotationValue(method, SUBCOMMAND);
+                boolean defaultHandler = hasAnnotation(method, DEFAULT) || hasAnnotation(method, CATCH_UNKNOWN);
+                if(subcommand == null && !defaultHandler) continue;
+
+                int handlerId = entries.size();
+                Handler handler = new Handler(method, subcommand, join(classConditions, annotationValue(method, CONDITIONS), "|"));
+
+                entries.add(String.format("new CommandIndexEntry(%d, %s, %s, %s, %s, %s, %d, %dL, %s, %d, %s, %s)",
+                        handlerId,
+                        literal(commandClass.getSimpleName() + "#" + method.getSimpleName()),
+                        literal(rootName),
+                        stringArray(handler.subcommandAliases),
+                        defaultHandler,
+                        stringArray(splitPermissions(join(classPermission, annotationValue(method, COMMAND_PERMISSION), ","))),
+                        handler.rateLimitCapacity,
+                        handler.rateLimitMillis,
+                        handler.playerOnly,
+                        handler.fixedArguments,
+                        handler.variadic,
+                        handler.directDispatch));
+
+                if(handler.directDispatch) invocations.add(handler.invocation(handlerId, className));
+            }
+        }
+
+        try(Writer writer = processingEnv.getFiler().createSourceFile(INDEX_PACKAGE + "." + INDEX_CLASS,
+                commandClasses.values().toArray(new Element[0])).openWriter()) {
+            writer.write(render(entries, invocations, factories));
+        } catch(IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the command index: " + exception.getMessage());
+        }
+    }
+
+    private static String render(List<String> entries, List<String> invocations, List<String> factories) {
+        StringBuilder source = new StringBuilder();
+
+        source.append("package ").append(INDEX_PACKAGE).append(";\n\n")
+                .append("// Generated by ").append(CommandIndexProcessor.class.getName()).append(". Do not edit.\n")
+                .append("final class ").append(INDEX_CLASS).append(" {\n")
+                .append("    static final CommandIndexEntry[] ENTRIES = {\n");
+        for(String entry : entries) source.append("            ").append(entry).append(",\n");
+        source.append("    };\n\n")
+                .append("    private ").append(INDEX_CLASS).append("() { }\n\n")
+                .append("    static java.util.List<com.constexpr.infrastructurecore.command.InfrastructureCommand> createCommands() {\n")
+                .append("        return java.util.Arrays.asList(\n");
+        for(int index = 0; index < factories.size(); index++)
+            source.append("                ").append(factories.get(index)).append(index + 1 < factories.size() ? ",\n" : "\n");
+        source.append("        );\n    }\n\n")
+                .append("    static void invoke(int handlerId, org.bukkit.command.CommandSender sender, String[] args) {\n")
+                .append("        switch(handlerId) {\n");
+        for(String invocation : invocations) source.append(invocation);
+        source.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"Handler \" + handlerId + \" cannot be dispatched directly.\");\n")
+                .append("        }\n    }\n}\n");
+
+        return source.toString();
+    }
+
+    /**
+     * Handler holds the dispatch properties of one handler method.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static final class Handler {
+        private final ExecutableElement method;
+
+        private final String[] subcommandAliases;
+
+        private int rateLimitCapacity;
+
+        private long rateLimitMillis;
+
+        private boolean playerOnly;
+
+        private int fixedArguments;
+
+        private boolean variadic;
+
+        private boolean directDispatch = true;
+
+        private Handler(ExecutableElement method, String subcommand, String conditions) {
+            this.method = method;
+            this.subcommandAliases = subcommand == null ? new String[0] : splitAliases(subcommand);
+
+            // Multi-Word and Instance Handlers need ACF's resolution.
+            for(String alias : subcommandAliases)
+                if(alias.contains(" ")) directDispatch = false;
+            if(!method.getModifiers().contains(Modifier.STATIC) || !method.getModifiers().contains(Modifier.PUBLIC)) directDispatch = false;
+
+            parseParameters();
+            parseConditions(conditions);
+        }
+
+        private void parseParameters() {
+            List<? extends VariableElement> parameters = method.getParameters();
+
+            // Sender Parameter Guard Statement
+            if(parameters.isEmpty()) {
+                directDispatch = false;
+                return;
+            }
+
+            String senderType = parameters.get(0).asType().toString();
+            if(senderType.equals("org.bukkit.entity.Player")) playerOnly = true;
+            else if(!senderType.equals("org.bukkit.command.CommandSender")) directDispatch = false;
+
+            // Only plain String and trailing String[] parameters are resolved without ACF.
+            for(int index = 1; index < parameters.size(); index++) {
+                VariableElement parameter = parameters.get(index);
+                String type = parameter.asType().toString();
+
+                if(hasAnnotation(parameter, OPTIONAL) || hasAnnotation(parameter, DEFAULT)) directDispatch = false;
+                else if(type.equals("java.lang.String") && !variadic) fixedArguments++;
+                else if(type.equals("java.lang.String[]") && index == parameters.size() - 1) variadic = true;
+                else directDispatch = false;
+            }
+        }
+
+        private void parseConditions(String conditions) {
+            // No Conditions Guard Statement
+            if(conditions == null || conditions.trim().isEmpty()) return;
+
+            String[] conditionList = conditions.split("\\|");
+            if(conditionList.length > 1) {
+                directDispatch = false;
+                return;
+            }
+
+            // Parse "cooldown:millis=N" and "ratelimit:capacity=C,millis=N".
+            String[] nameAndConfig = conditionList[0].trim().split(":", 2);
+            Map<String, String> config = new HashMap<>();
+            if(nameAndConfig.length > 1) {
+                for(String pair : nameAndConfig[1].split(",")) {
+                    String[] keyAndValue = pair.split("=", 2);
+                    config.put(keyAndValue[0].trim(), keyAndValue.length > 1 ? keyAndValue[1].trim() : "");
+                }
+            }
+
+            try {
+                switch(nameAndConfig[0].trim()) {
+                    case "cooldown":
+                        rateLimitCapacity = 1;
+                        rateLimitMillis = Long.parseLong(config.getOrDefault("millis", "0"));
+                        break;
+                    case "ratelimit":
+                        rateLimitCapacity = Math.max(1, Integer.parseInt(config.getOrDefault("capacity", "1")));
+                        rateLimitMillis = Long.parseLong(config.getOrDefault("millis", "0"));
+                        break;
+                    default:
+                        directDispatch = false;
+                }
+            } catch(NumberFormatException exception) {
+                directDispatch = false;
+            }
+        }
+
+        private String invocation(int handlerId, String className) {
+            StringBuilder arguments = new StringBuilder(playerOnly ? "(org.bukkit.entity.Player) sender" : "sender");
+
+            for(int index = 0; index < fixedArguments; index++) arguments.append(", args[").append(index).append("]");
+            if(variadic) arguments.append(fixedArguments == 0 ? ", args" : ", java.util.Arrays.copyOfRange(args, " + fixedArguments + ", args.length)");
+
+            return "            case " + handlerId + ":\n"
+                    + "                " + className + "." + method.getSimpleName() + "(" + arguments + ");\n"
+                    + "                return;\n";
+        }
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationType) {
+        for(AnnotationMirror mirror : element.getAnnotationMirrors())
+            if(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) return true;
+
+        return false;
+    }
+
+    private static String annotationValue(Element element, String annotationType) {
+        for(AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if(!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) continue;
+
+            for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet())
+                if(entry.getKey().getSimpleName().contentEquals("value")) return String.valueOf(entry.getValue().getValue());
+
+            return "";
+        }
+
+        return null;
+    }
+
+    private static String firstAlias(String aliases) {
+        return splitAliases(aliases)[0];
+    }
+
+    private static String[] splitAliases(String aliases) {
+        String[] split = aliases.split("\\|");
+
+        for(int index = 0; index < split.length; index++) split[index] = split[index].trim().toLowerCase(Locale.ROOT);
+        return split;
+    }
+
+    private static String[] splitPermissions(String permissions) {
+        // No Permissions Guard Statement
+        if(permissions == null) return new String[0];
+
+        List<String> split = new ArrayList<>();
+        for(String permission : permissions.split(","))
+            if(!permission.trim().isEmpty()) split.add(permission.trim());
+
+        return split.toArray(new String[0]);
+    }
+
+    private static String join(String classValue, String methodValue, String separator) {
+        // ACF applies class-level permissions and conditions in addition to the method's own.
+        if(classValue == null || classValue.isEmpty()) return methodValue;
+        if(methodValue == null || methodValue.isEmpty()) return classValue;
+
+        return classValue + separator + methodValue;
+    }
+
+    private static String stringArray(String[] values) {
+        StringBuilder array = new StringBuilder("new String[] {");
+
+        for(int index = 0; index < values.length; index++)
+            array.append(index == 0 ? "" : ", ").append(literal(values[index]));
+
+        return array.append("}").toString();
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import com.constexpr.infrastructurecore.scheduler.BlockingExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput Benchmarks of the BlockingExecutor under many concurrent blocking tasks.
+ * <p>
+ * Each operation submits a burst of tasks that each block for one millisecond,
+ * modelling a file or network wait, and waits for all of them. The "platform"
+ * executor is the bounded pool used before Java 21; the "virtual" executor
+ * runs every task on a virtual thread, which needs the benchmarks to run on
+ * Java 21+ from a jmh jar built with -Pjava21Home, and fails its trial
+ * otherwise rather than measuring the platform pool under its name. Besides
+ * bursts per second, the aux counters report tasks per second and the peak
+ * number of live platform threads during the iteration.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingExecutorBenchmark {
+    private static final int PLATFORM_THREADS = 4;
+
+    private static final long BLOCKING_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    @Param({"1000"})
+    private int tasks;
+
+    private BlockingExecutor blockingExecutor;
+
+    /**
+     * Aux Counters reported next to the burst throughput.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+        /**
+         * The peak number of live platform threads sampled during the iteration.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        public long peakPlatformThreads;
+
+        /**
+         * Resets the peak at the start of every iteration.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakPlatformThreads = 0L;
+        }
+    }
+
+    /**
+     * Aux Counters normalized to a rate.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TaskCounters {
+        /**
+         * The number of blocking tasks completed.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        public long completedTasks;
+
+        /**
+         * Resets the count at the start of every iteration.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            completedTasks = 0L;
+        }
+    }
+
+    /**
+     * Creates the executor under test.
+     *
+     * @throws IllegalStateException If the virtual executor is requested but virtual threads are unavailable.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        blockingExecutor = new BlockingExecutor("Benchmark-IO", PLATFORM_THREADS, executor.equals("virtual"));
+
+        // Unavailable Virtual Threads Guard Statement
+        if(executor.equals("virtual") && !blockingExecutor.isVirtualThreads()) {
+            blockingExecutor.shutdown();
+            throw new IllegalStateException("Virtual threads are unavailable; run on Java 21+ with a jmh jar built with -Pjava21Home.");
+        }
+    }
+
+    /**
+     * Shuts the executor under test down.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blockingExecutor.shutdown();
+    }
+
+    /**
+     * Benchmarks a burst of blocking tasks.
+     *
+     * @param threadCounters The thread aux counters.
+     * @param taskCounters The task aux counters.
+     * @throws InterruptedException If the benchmark thread is interrupted.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public void blockingBurst(ThreadCounters threadCounters, TaskCounters taskCounters) throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(tasks);
+
+        for(int task = 0; task < tasks; task++) {
+            blockingExecutor.execute(() -> {
+                LockSupport.parkNanos(BLOCKING_NANOS);
+                completed.countDown();
+            });
+        }
+
+        // Sample while the burst is in flight, when the most threads are alive.
+        threadCounters.peakPlatformThreads = Math.max(threadCounters.peakPlatformThreads, threadMXBean.getThreadCount());
+        completed.await();
+        taskCounters.completedTasks += tasks;
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import co.aikar.commands.PaperCommandManager;
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.command.Command;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.entity.Player;
+import org.bukkit.help.HelpMap;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight In-Process Stand-Ins for the Bukkit API.
+ * <p>
+ * Benchmarks run without a Spigot/Paper server, so the interfaces that the
+ * utilities and commands touch are backed by dynamic proxies. Every method that
+ * is not explicitly handled returns the default value of its return type. The
+ * stand-in Server has a real SimpleCommandMap, so a real ACF PaperCommandManager
+ * can register and execute commands for a stand-in plugin or for the real
+ * InfrastructureCorePluginHandle. The stand-in scheduler never runs its tasks.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class BukkitStandIns {
+    /**
+     * The Size of a PlayerInventory (36 storage, 4 armor and 1 off-hand slot).
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int PLAYER_INVENTORY_SIZE = 41;
+
+    private static final int DATA_VERSION = 2230;
+
+    private static final int PERSISTENT_BLOB_LENGTH = 384;
+
+    private static final ItemFactory ITEM_FACTORY = createItemFactory();
+
+    private static final UnsafeValues UNSAFE_VALUES = proxy(UnsafeValues.class, (proxy, method, args) ->
+            method.getName().equals("getDataVersion") ? DATA_VERSION : defaultValue(method.getReturnType()));
+
+    private static final HelpMap HELP_MAP = proxy(HelpMap.class, (proxy, method, args) -> defaultValue(method.getReturnType()));
+
+    private static final PluginManager PLUGIN_MANAGER = proxy(PluginManager.class, (proxy, method, args) -> defaultValue(method.getReturnType()));
+
+    private static final BukkitTask NO_OP_TASK = proxy(BukkitTask.class, (proxy, method, args) -> defaultValue(method.getReturnType()));
+
+    private static final BukkitScheduler SCHEDULER = proxy(BukkitScheduler.class, (proxy, method, args) ->
+            method.getReturnType() == BukkitTask.class ? NO_OP_TASK : defaultValue(method.getReturnType()));
+
+    private static SimpleCommandMap commandMap;
+
+    /**
+     * Private Constructor for Static Utility Class.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private BukkitStandIns() { }
+
+    /**
+     * Installs the stand-in Server into the Bukkit singleton if none is set.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static synchronized void installServer() {
+        if(Bukkit.getServer() != null) return;
+
+        Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+            switch(method.getName()) {
+                case "getLogger":
+                    return Logger.getLogger("BukkitStandIns");
+                case "getName":
+                case "getBukkitVersion":
+                    return "StandIn";
+                case "getVersion":
+                    return "StandIn (MC: 1.15.2)";
+                case "getItemFactory":
+                    return ITEM_FACTORY;
+                case "getUnsafe":
+                    return UNSAFE_VALUES;
+                case "isPrimaryThread":
+                    return true;
+                case "getCommandMap":
+                    return commandMap;
+                case "getHelpMap":
+                    return HELP_MAP;
+                case "getPluginManager":
+                    return PLUGIN_MANAGER;
+                case "getScheduler":
+                    return SCHEDULER;
+                case "getOnlinePlayers":
+                    return Collections.emptyList();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }));
+        commandMap = new SimpleCommandMap(Bukkit.getServer());
+
+        // Deserialize stand-in ItemMeta under the server's alias and under the alias YAML derives from the proxy class.
+        ConfigurationSerialization.registerClass(SerializedItemMeta.class, "ItemMeta");
+        ConfigurationSerialization.registerClass(SerializedItemMeta.class, createItemMeta(new SerializedItemMeta(0, Collections.emptyMap())).getClass().getName());
+    }
+
+    /**
+     * Creates a real ACF PaperCommandManager for a stand-in plugin.
+     *
+     * @return The ACF Paper Command Manager, which registers into the stand-in command map.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static PaperCommandManager createCommandManager() {
+        installServer();
+
+        return new PaperCommandManager(new StandInPlugin());
+    }
+
+    /**
+     * Creates the real InfrastructureCorePluginHandle, described by its plugin.yml, with a temporary data folder.
+     * <p>
+     * The handle is built through JavaPlugin's initialization constructor and is
+     * not enabled yet; call onEnable() on it as the server's plugin loader would.
+     *
+     * @return The InfrastructureCore Plugin Handle.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static InfrastructureCorePluginHandle createPluginHandle() {
+        installServer();
+
+        try(InputStream descriptionStream = InfrastructureCorePluginHandle.class.getClassLoader().getResourceAsStream("plugin.yml")) {
+            PluginDescriptionFile description = new PluginDescriptionFile(descriptionStream);
+            File dataFolder = createDataFolder(description.getName());
+
+            @SuppressWarnings("deprecation")
+            JavaPluginLoader pluginLoader = new JavaPluginLoader(Bukkit.getServer());
+            return new InfrastructureCorePluginHandle(pluginLoader, description, dataFolder, new File(dataFolder, description.getName() + ".jar"));
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch(InvalidDescriptionException exception) {
+            throw new IllegalStateException("The plugin.yml of InfrastructureCore is invalid.", exception);
+        }
+    }
+
+    /**
+     * Gets a command registered in the stand-in command map.
+     *
+     * @param name The name of the command, e.g. "repair".
+     * @return The registered command, e.g. an ACF root command, or null if none is registered.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static Command getCommand(String name) {
+        return commandMap.getCommand(name);
+    }
+
+    /**
+     * Creates a stand-in Player that owns the given inventory contents.
+     *
+     * @param name The Name of the Player.
+     * @param contents The 41 inventory slots of the Player.
+     * @return The Stand-In Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static Player createPlayer(String name, ItemStack[] contents) {
+        return createPlayer(name, contents, true);
+    }
+
+    /**
+     * Creates a stand-in Player that owns the given inventory contents.
+     *
+     * @param name The Name of the Player.
+     * @param contents The 41 inventory slots of the Player.
+     * @param permitted If the Player has every permission node.
+     * @return The Stand-In Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static Player createPlayer(String name, ItemStack[] contents, boolean permitted) {
+        PlayerInventory inventory = createInventory(contents);
+        UUID uniqueId = UUID.nameUUIDFromBytes(name.getBytes());
+
+        return proxy(Player.class, (proxy, method, args) -> {
+            switch(method.getName()) {
+                case "getInventory":
+                    return inventory;
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "getUniqueId":
+                    return uniqueId;
+                case "getLocale":
+                    return "en_us";
+                case "hasPermission":
+                    return permitted;
+                case "isOnline":
+                    return true;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return uniqueId.hashCode();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Creates a realistic survival inventory of damaged tools and armor, blocks, food and empty slots.
+     * <p>
+     * The sword is named, has lore and is enchanted, and the pickaxe carries a
+     * persistent data payload of the size plugins typically store on items.
+     *
+     * @return The 41 inventory slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ItemStack[] createSurvivalInventory() {
+        ItemStack[] contents = new ItemStack[PLAYER_INVENTORY_SIZE];
+
+        // Hotbar of damaged tools and a few consumables.
+        contents[0] = decoratedItem(Material.DIAMOND_SWORD, 120, createNamedItemData());
+        contents[1] = decoratedItem(Material.DIAMOND_PICKAXE, 800, createPersistentItemData());
+        contents[2] = damagedItem(Material.IRON_SHOVEL, 40);
+        contents[3] = damagedItem(Material.BOW, 3);
+        contents[4] = new ItemStack(Material.COOKED_BEEF, 32);
+        contents[5] = new ItemStack(Material.TORCH, 64);
+        contents[6] = damagedItem(Material.DIAMOND_AXE, 0);
+        contents[7] = new ItemStack(Material.WATER_BUCKET);
+
+        // Storage slots of building blocks with some gaps.
+        for(int slot = 9; slot < 36; slot++)
+            if(slot % 4 != 0) contents[slot] = new ItemStack(Material.COBBLESTONE, 64);
+
+        // Armor and off-hand slots.
+        contents[36] = damagedItem(Material.DIAMOND_BOOTS, 200);
+        contents[37] = damagedItem(Material.DIAMOND_LEGGINGS, 150);
+        contents[38] = damagedItem(Material.DIAMOND_CHESTPLATE, 0);
+        contents[39] = damagedItem(Material.DIAMOND_HELMET, 90);
+        contents[40] = damagedItem(Material.SHIELD, 12);
+
+        return contents;
+    }
+
+    /**
+     * Re-applies damage to the tools in an inventory created by createSurvivalInventory().
+     *
+     * @param contents The inventory slots to damage.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void damageSurvivalInventory(ItemStack[] contents) {
+        setDamage(contents[0], 120);
+        setDamage(contents[1], 800);
+        setDamage(contents[36], 200);
+        setDamage(contents[39], 90);
+    }
+
+    /**
+     * Creates a single ItemStack with a given damage value.
+     *
+     * @param material The Material of the ItemStack.
+     * @param damage The damage to apply.
+     * @return The damaged ItemStack.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ItemStack damagedItem(Material material, int damage) {
+        ItemStack itemStack = new ItemStack(material);
+        setDamage(itemStack, damage);
+        return itemStack;
+    }
+
+    private static ItemStack decoratedItem(Material material, int damage, Map<String, Object> data) {
+        ItemStack itemStack = new ItemStack(material);
+        itemStack.setItemMeta(createItemMeta(new SerializedItemMeta(damage, Collections.unmodifiableMap(data))));
+        return itemStack;
+    }
+
+    private static Map<String, Object> createNamedItemData() {
+        Map<String, Object> enchants = new LinkedHashMap<>();
+        enchants.put("DAMAGE_ALL", 5);
+        enchants.put("DURABILITY", 3);
+        enchants.put("MENDING", 1);
+
+        // Display name and lore are stored as chat component JSON, like CraftMetaItem does.
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("display-name", "{\"extra\":[{\"bold\":true,\"italic\":false,\"color\":\"aqua\",\"text\":\"Warden's Edge\"}],\"text\":\"\"}");
+        data.put("lore", Arrays.asList(
+                "{\"extra\":[{\"italic\":false,\"color\":\"gray\",\"text\":\"Forged in the deep dark.\"}],\"text\":\"\"}",
+                "{\"extra\":[{\"italic\":false,\"color\":\"dark_gray\",\"text\":\"Soulbound\"}],\"text\":\"\"}"));
+        data.put("enchants", enchants);
+        return data;
+    }
+
+    private static Map<String, Object> createPersistentItemData() {
+        Map<String, Object> enchants = new LinkedHashMap<>();
+        enchants.put("DIG_SPEED", 5);
+        enchants.put("LOOT_BONUS_BLOCKS", 3);
+
+        // A plugin's persistent data: a few scalar keys and one encoded blob of a few hundred bytes.
+        StringBuilder blob = new StringBuilder(PERSISTENT_BLOB_LENGTH);
+        for(int index = 0; index < PERSISTENT_BLOB_LENGTH; index++) blob.append((char) ('A' + (index * 7) % 26));
+
+        Map<String, Object> persistentData = new LinkedHashMap<>();
+        persistentData.put("mcmmo:ability_level", "12");
+        persistentData.put("mcmmo:owner", "3f1c2b0e-5d4a-4e7b-9c1d-2a8b6e0f4d3c");
+        persistentData.put("customitems:state", blob.toString());
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enchants", enchants);
+        data.put("PublicBukkitValues", persistentData);
+        return data;
+    }
+
+    private static void setDamage(ItemStack itemStack, int damage) {
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        ((Damageable) itemMeta).setDamage(damage);
+        itemStack.setItemMeta(itemMeta);
+    }
+
+    private static PlayerInventory createInventory(ItemStack[] contents) {
+        return proxy(PlayerInventory.class, (proxy, method, args) -> {
+            switch(method.getName()) {
+                case "getItemInMainHand":
+                    return contents[0];
+                case "getItemInOffHand":
+                    return contents[40];
+                case "getContents":
+                case "getStorageContents":
+                    return contents;
+                case "getSize":
+                    return contents.length;
+                case "getItem":
+                    return contents[(Integer) args[0]];
+                case "iterator":
+                    return Arrays.asList(contents).listIterator();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static ItemFactory createItemFactory() {
+        return proxy(ItemFactory.class, (proxy, method, args) -> {
+            switch(method.getName()) {
+                case "getItemMeta":
+                    return args[0] == Material.AIR ? null : createItemMeta(new SerializedItemMeta(0, Collections.emptyMap()));
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return args[0];
+                case "equals":
+                    return args.length == 2 ? args[0] == args[1] : proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static ItemMeta createItemMeta(SerializedItemMeta state) {
+        return proxy(Damageable.class, (proxy, method, args) -> {
+            switch(method.getName()) {
+                case "getDamage":
+                    return state.damage;
+                case "setDamage":
+                    state.damage = (Integer) args[0];
+                    return null;
+                case "hasDamage":
+                    return state.damage > 0;
+                case "hasDisplayName":
+                    return state.data.containsKey("display-name");
+                case "hasLore":
+                    return state.data.containsKey("lore");
+                case "hasEnchants":
+                    return state.data.containsKey("enchants");
+                case "clone":
+                    return createItemMeta(new SerializedItemMeta(state.damage, state.data));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return 31 * state.data.hashCode() + state.damage;
+                case "serialize":
+                    return state.serialize();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Stand-In Plugin that owns the commands of a benchmark's ACF Command Manager.
+     * <p>
+     * It is built through JavaPlugin's initialization constructor, which exists
+     * for plugins that are not loaded by the server's PluginClassLoader.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    public static final class StandInPlugin extends JavaPlugin {
+        @SuppressWarnings("deprecation")
+        private StandInPlugin(File dataFolder) {
+            super(new JavaPluginLoader(Bukkit.getServer()), new PluginDescriptionFile("StandIn", "1.0.0", StandInPlugin.class.getName()),
+                    dataFolder, new File(dataFolder, "StandIn.jar"));
+            setEnabled(true);
+        }
+
+        private StandInPlugin() {
+            this(createDataFolder("StandIn"));
+        }
+    }
+
+    /**
+     * State and serialized form of a stand-in ItemMeta.
+     * <p>
+     * The serialized form mirrors CraftMetaItem's: the meta type, the item data
+     * such as display name, lore, enchants and persistent data, then the damage.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    public static final class SerializedItemMeta implements ConfigurationSerializable {
+        private final Map<String, Object> data;
+
+        private int damage;
+
+        private SerializedItemMeta(int damage, Map<String, Object> data) {
+            this.damage = damage;
+            this.data = data;
+        }
+
+        /**
+         * Recreates a stand-in ItemMeta from its serialized form.
+         *
+         * @param serialized The serialized ItemMeta.
+         * @return The stand-in ItemMeta.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        public static ItemMeta deserialize(Map<String, Object> serialized) {
+            Map<String, Object> data = new LinkedHashMap<>(serialized);
+            data.remove(ConfigurationSerialization.SERIALIZED_TYPE_KEY);
+            data.remove("meta-type");
+
+            Object damage = data.remove("Damage");
+            return createItemMeta(new SerializedItemMeta(damage instanceof Number ? ((Number) damage).intValue() : 0, Collections.unmodifiableMap(data)));
+        }
+
+        @Override
+        public Map<String, Object> serialize() {
+            Map<String, Object> serialized = new LinkedHashMap<>();
+            serialized.put("meta-type", "UNSPECIFIC");
+            serialized.putAll(data);
+            if(damage > 0) serialized.put("Damage", damage);
+            return serialized;
+        }
+    }
+
+    private static File createDataFolder(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toFile();
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(BukkitStandIns.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if(!type.isPrimitive() || type == void.class) return null;
+        if(type == boolean.class) return false;
+        if(type == char.class) return '\0';
+        if(type == long.class) return 0L;
+        if(type == float.class) return 0.0F;
+        if(type == double.class) return 0.0D;
+        if(type == byte.class) return (byte) 0;
+        if(type == short.class) return (short) 0;
+        return 0;
+    }
+}
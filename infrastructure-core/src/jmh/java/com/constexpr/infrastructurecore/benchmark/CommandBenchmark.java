@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import co.aikar.commands.PaperCommandManager;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.command.player.CommandRepair;
+import com.constexpr.infrastructurecore.command.player.CommandSuicide;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput Benchmarks for the player command handlers.
+ * <p>
+ * The commands are registered with a real ACF PaperCommandManager for a
+ * stand-in plugin, and executed through their ACF root commands by a stand-in
+ * Player, so every execution pays for ACF's dispatch, permission checks and
+ * conditions as well as the handler body. The Player's cooldowns and rate
+ * limits are reset at the start of every execution, so each one is permitted.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+    private static final String[] NO_ARGS = new String[0];
+
+    private static final String[] HAND_ARGS = {"hand"};
+
+    private static final String[] ALL_ARGS = {"all"};
+
+    private ItemStack[] contents;
+
+    private Player player;
+
+    private InfrastructurePlayer infrastructurePlayer;
+
+    private Command repairCommand;
+
+    private Command suicideCommand;
+
+    /**
+     * Builds the stand-in server, the API and a Player with a 41-slot inventory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIns.installServer();
+        InfrastructureCoreAPI.initialize();
+
+        contents = BukkitStandIns.createSurvivalInventory();
+        player = BukkitStandIns.createPlayer("BenchmarkPlayer", contents);
+        infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().register(player);
+
+        // Register the commands and their conditions with a real ACF Command Manager.
+        PaperCommandManager commandManager = BukkitStandIns.createCommandManager();
+        new CommandRateLimiter().registerConditions(commandManager);
+        commandManager.registerCommand(new CommandRepair());
+        commandManager.registerCommand(new CommandSuicide());
+
+        repairCommand = BukkitStandIns.getCommand("repair");
+        suicideCommand = BukkitStandIns.getCommand("suicide");
+    }
+
+
+    /**
+     * Benchmarks /repair hand on a damaged tool.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public void repairHand() {
+        BukkitStandIns.damageSurvivalInventory(contents);
+        resetRateLimits();
+        repairCommand.execute(player, "repair", HAND_ARGS);
+    }
+
+    /**
+     * Benchmarks /repair all on a partially damaged inventory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public void repairAll() {
+        BukkitStandIns.damageSurvivalInventory(contents);
+        resetRateLimits();
+        repairCommand.execute(player, "repair", ALL_ARGS);
+    }
+
+    /**
+     * Benchmarks /suicide.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public void suicide() {
+        resetRateLimits();
+        suicideCommand.execute(player, "suicide", NO_ARGS);
+    }
+
+    private void resetRateLimits() {
+        // A handful of buckets, so resetting them is negligible next to the execution.
+        for(AtomicLong bucket : infrastructurePlayer.getRateLimitBuckets().values())
+            bucket.set(CommandRateLimiter.UNUSED_BUCKET);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import co.aikar.commands.PaperCommandManager;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.command.admin.CommandInfrastructure;
+import com.constexpr.infrastructurecore.command.index.CommandIndex;
+import com.constexpr.infrastructurecore.command.index.CommandIndexEntry;
+import com.constexpr.infrastructurecore.command.index.DirectCommandDispatcher;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency Benchmarks of the generated command dispatch against ACF.
+ * <p>
+ * The ACF baseline executes the root command that a real PaperCommandManager
+ * registered for a stand-in plugin, so it pays for everything ACF does per
+ * execution: subcommand lookup, permission checks, context resolution and the
+ * reflective handler call. All benchmarks call the same handler, /infra
+ * modules, which has no conditions, so only the dispatch differs.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandDispatchBenchmark {
+    private static final String[] NO_ARGS = new String[0];
+
+    private static final String[] MODULES_ARGS = {"modules"};
+
+    private Player player;
+
+    private int handlerId;
+
+    private DirectCommandDispatcher directCommandDispatcher;
+
+    private Command rootCommand;
+
+    /**
+     * Builds the stand-in server, the API, and both dispatch paths of /infra modules.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIns.installServer();
+        InfrastructureCoreAPI.initialize();
+
+        player = BukkitStandIns.createPlayer("BenchmarkPlayer", BukkitStandIns.createSurvivalInventory());
+        directCommandDispatcher = new DirectCommandDispatcher(CommandIndex.getEntries("infra"), new CommandRateLimiter(), new PermissionCache());
+
+        // Register /infra with a real ACF Command Manager.
+        PaperCommandManager commandManager = BukkitStandIns.createCommandManager();
+        commandManager.registerCommand(new CommandInfrastructure());
+        rootCommand = BukkitStandIns.getCommand("infra");
+
+        for(CommandIndexEntry entry : CommandIndex.getEntries("infra"))
+            if(entry.matchesSubcommand("modules")) handlerId = entry.getHandlerId();
+    }
+
+    /**
+     * Benchmarks the generated switch invoker.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public void generatedInvoker() {
+        CommandIndex.invoke(handlerId, player, NO_ARGS);
+    }
+
+    /**
+     * Benchmarks the full direct dispatch: subcommand, sender, arity and permission checks, then the invoker.
+     *
+     * @return If the dispatcher handled the command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public boolean directDispatch() {
+        return directCommandDispatcher.tryDispatch(player, MODULES_ARGS);
+    }
+
+    /**
+     * Benchmarks the execution of the ACF root command.
+     *
+     * @return The result of the root command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public boolean acfRootCommand() {
+        return rootCommand.execute(player, "infra", MODULES_ARGS);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import com.constexpr.infrastructurecore.utilities.player.item.ItemStackCodec;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput Benchmarks comparing the ItemStackCodec with Bukkit's YAML serialization.
+ * <p>
+ * Both formats encode and decode the same 41-slot survival inventory. The
+ * binary encoders write into a reused direct buffer, as a network or file
+ * channel writer would; the YAML path goes through ConfigurationSerializable
+ * and YamlConfiguration like a plugin persisting inventories to .yml files.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemStackCodecBenchmark {
+    private static final int DIRECT_BUFFER_SIZE = 64 * 1024;
+
+    private ItemStack[] contents;
+
+    private ByteBuffer directBuffer;
+
+    private ByteBuffer encoded;
+
+    private ByteBuffer encodedCompressed;
+
+    private String encodedYaml;
+
+    /**
+     * Builds the stand-in server, the inventory and its encoded forms.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIns.installServer();
+
+        contents = BukkitStandIns.createSurvivalInventory();
+        directBuffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+        encoded = ItemStackCodec.encode(contents, false);
+        encodedCompressed = ItemStackCodec.encode(contents, true);
+        encodedYaml = yamlEncode();
+    }
+
+    /**
+     * Encodes the inventory into a direct buffer.
+     *
+     * @return The direct buffer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        directBuffer.clear();
+        ItemStackCodec.encode(contents, directBuffer, false);
+        return directBuffer;
+    }
+
+    /**
+     * Encodes and deflates the inventory into a direct buffer.
+     *
+     * @return The direct buffer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ByteBuffer binaryEncodeCompressed() {
+        directBuffer.clear();
+        ItemStackCodec.encode(contents, directBuffer, true);
+        return directBuffer;
+    }
+
+    /**
+     * Decodes the inventory.
+     *
+     * @return The decoded slots.
+     * @throws IOException If the encoding is malformed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ItemStack[] binaryDecode() throws IOException {
+        return ItemStackCodec.decode(encoded.duplicate());
+    }
+
+    /**
+     * Inflates and decodes the inventory.
+     *
+     * @return The decoded slots.
+     * @throws IOException If the encoding is malformed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ItemStack[] binaryDecodeCompressed() throws IOException {
+        return ItemStackCodec.decode(encodedCompressed.duplicate());
+    }
+
+    /**
+     * Serializes the inventory to a YAML document.
+     *
+     * @return The YAML document.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public String yamlEncode() {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("contents", Arrays.asList(contents));
+        return configuration.saveToString();
+    }
+
+    /**
+     * Deserializes the inventory from a YAML document.
+     *
+     * @return The deserialized slots.
+     * @throws InvalidConfigurationException If the document is malformed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public List<?> yamlDecode() throws InvalidConfigurationException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.loadFromString(encodedYaml);
+        return configuration.getList("contents");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import com.constexpr.infrastructurecore.utilities.player.item.ItemUtilities;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput Benchmarks for the ItemUtilities repair operations.
+ * <p>
+ * The damaged variants re-apply damage to the inventory before repairing it,
+ * so they include the cost of that setup alongside the repair itself.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemUtilitiesBenchmark {
+    @Param({ "true", "false" })
+    public boolean damaged;
+
+    private ItemStack[] contents;
+
+    private List<ItemStack> inventory;
+
+    private ItemStack tool;
+
+    private ItemStack block;
+
+    /**
+     * Builds the stand-in server and the 41-slot inventory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIns.installServer();
+
+        contents = BukkitStandIns.createSurvivalInventory();
+        inventory = Arrays.asList(contents);
+        tool = BukkitStandIns.damagedItem(Material.DIAMOND_PICKAXE, 800);
+        block = new ItemStack(Material.COBBLESTONE, 64);
+    }
+
+    /**
+     * Repairs a single tool in the way /repair hand does.
+     *
+     * @return The Operation Exit Code.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ItemUtilities.ItemRepairExitValue repairItemTool() {
+        if(damaged) ItemUtilities.setItemDurability(tool, 800);
+        return ItemUtilities.repairItem(tool);
+    }
+
+    /**
+     * Repairs a single block, which can never hold damage.
+     *
+     * @return The Operation Exit Code.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ItemUtilities.ItemRepairExitValue repairItemBlock() {
+        return ItemUtilities.repairItem(block);
+    }
+
+    /**
+     * Repairs a full 41-slot inventory in the way /repair all does.
+     *
+     * @return The Operation Exit Code.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Benchmark
+    public ItemUtilities.ItemRepairExitValue repairItemCollection() {
+        if(damaged) BukkitStandIns.damageSurvivalInventory(contents);
+        return ItemUtilities.repairItemCollection(inventory);
+    }
+}
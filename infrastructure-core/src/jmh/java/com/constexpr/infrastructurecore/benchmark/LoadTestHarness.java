@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.benchmark;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.command.metrics.LatencyHistogram;
+import com.constexpr.infrastructurecore.sync.SyncService;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless Load Test of the player commands under many concurrent Players.
+ * <p>
+ * The harness constructs the real InfrastructureCorePluginHandle through
+ * JavaPlugin's initialization constructor and enables it against the stand-in
+ * server, so the API, its modules and the commands are set up by onEnable()
+ * exactly as on a live server. Commands are executed through the executor
+ * registered in the command map: the TimedCommand that wraps ACF's root
+ * command, dispatching directly where it can and falling back to ACF.
+ * <p>
+ * Every simulated tick, each of the Players fires /repair hand, /repair all and
+ * /suicide with a probability derived from its per-minute rate, and the sync
+ * flush that the server runs once per tick follows. Tick times, per-command
+ * latencies and the bytes allocated per command are reported after the
+ * measured ticks. Nothing touches the network, and the same seed always
+ * produces the same command sequence.
+ * <p>
+ * Run with {@code gradle loadTest}; the "loadtest.*" system properties below
+ * are passed through.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class LoadTestHarness {
+    private static final int TICKS_PER_MINUTE = 20 * 60;
+
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    /**
+     * The commands fired by the simulated Players.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private enum SimulatedCommand {
+        /**
+         * /repair hand
+         *
+         * @since 1.0.0-ALPHA
+         */
+        REPAIR_HAND("repair", "repair hand", "loadtest.repairHandPerMinute", 6.0, "hand"),
+
+        /**
+         * /repair all
+         *
+         * @since 1.0.0-ALPHA
+         */
+        REPAIR_ALL("repair", "repair all", "loadtest.repairAllPerMinute", 2.0, "all"),
+
+        /**
+         * /suicide
+         *
+         * @since 1.0.0-ALPHA
+         */
+        SUICIDE("suicide", "suicide", "loadtest.suicidePerMinute", 0.5);
+
+        private final String rootCommand;
+
+        private final String commandKey;
+
+        private final double probabilityPerTick;
+
+        private final String[] args;
+
+        SimulatedCommand(String rootCommand, String commandKey, String rateProperty, double defaultRatePerMinute, String... args) {
+            this.rootCommand = rootCommand;
+            this.commandKey = commandKey;
+            this.probabilityPerTick = Double.parseDouble(System.getProperty(rateProperty, String.valueOf(defaultRatePerMinute))) / TICKS_PER_MINUTE;
+            this.args = args;
+        }
+    }
+
+    private final int playerCount = Integer.getInteger("loadtest.players", 200);
+
+    private final int warmupTicks = Integer.getInteger("loadtest.warmupTicks", 600);
+
+    private final int measuredTicks = Integer.getInteger("loadtest.ticks", 2400);
+
+    private final SplittableRandom random = new SplittableRandom(Long.getLong("loadtest.seed", 0x5EED_1CE5L));
+
+    private final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Player[] players = new Player[playerCount];
+
+    private final ItemStack[][] inventories = new ItemStack[playerCount][];
+
+    private final Command[] commands = new Command[SimulatedCommand.values().length];
+
+    private final LatencyHistogram[] commandHistograms = new LatencyHistogram[SimulatedCommand.values().length];
+
+    private final long[] executions = new long[SimulatedCommand.values().length];
+
+    private final long[] allocatedBytes = new long[SimulatedCommand.values().length];
+
+    private InfrastructureCorePluginHandle pluginHandle;
+
+    private LatencyHistogram tickHistogram;
+
+    /**
+     * Private Constructor, the harness is run through main().
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private LoadTestHarness() { }
+
+    /**
+     * Runs the load test and prints its report.
+     *
+     * @param args Unused; the harness is configured through "loadtest.*" system properties.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void main(String[] args) {
+        LoadTestHarness loadTestHarness = new LoadTestHarness();
+
+        try {
+            loadTestHarness.setup();
+            loadTestHarness.run(loadTestHarness.warmupTicks);
+
+            // Discard everything recorded during warmup.
+            loadTestHarness.resetMeasurements();
+            long start = System.nanoTime();
+            loadTestHarness.run(loadTestHarness.measuredTicks);
+            loadTestHarness.report(System.nanoTime() - start);
+        } finally {
+            if(loadTestHarness.pluginHandle != null) loadTestHarness.pluginHandle.onDisable();
+        }
+    }
+
+    private void setup() {
+        // Enable the plugin as the server's plugin loader would.
+        pluginHandle = BukkitStandIns.createPluginHandle();
+        pluginHandle.onEnable();
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        // Join every simulated Player with their own survival inventory.
+        for(int index = 0; index < playerCount; index++) {
+            inventories[index] = BukkitStandIns.createSurvivalInventory();
+            players[index] = BukkitStandIns.createPlayer("LoadTestPlayer" + index, inventories[index]);
+            InfrastructureCoreAPI.getInfrastructurePlayerRegistry().register(players[index]);
+        }
+
+        // Look up the executors that onEnable() registered for the root commands.
+        for(SimulatedCommand simulatedCommand : SimulatedCommand.values()) {
+            commands[simulatedCommand.ordinal()] = BukkitStandIns.getCommand(simulatedCommand.rootCommand);
+            if(commands[simulatedCommand.ordinal()] == null)
+                throw new IllegalStateException("/" + simulatedCommand.rootCommand + " was not registered on enable.");
+        }
+
+        resetMeasurements();
+    }
+
+    private void resetMeasurements() {
+        tickHistogram = new LatencyHistogram();
+
+        for(SimulatedCommand simulatedCommand : SimulatedCommand.values()) {
+            executions[simulatedCommand.ordinal()] = 0L;
+            allocatedBytes[simulatedCommand.ordinal()] = 0L;
+            commandHistograms[simulatedCommand.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    private void run(int ticks) {
+        SyncService syncService = InfrastructureCoreAPI.getSyncService();
+        long threadId = Thread.currentThread().getId();
+
+        for(int tick = 0; tick < ticks; tick++) {
+            long tickStart = System.nanoTime();
+
+            // Let every Player roll for every command this tick.
+            for(int index = 0; index < playerCount; index++) {
+                for(SimulatedCommand simulatedCommand : SimulatedCommand.values()) {
+                    if(random.nextDouble() >= simulatedCommand.probabilityPerTick) continue;
+
+                    BukkitStandIns.damageSurvivalInventory(inventories[index]);
+                    long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+                    long start = System.nanoTime();
+                    commands[simulatedCommand.ordinal()].execute(players[index], simulatedCommand.rootCommand, simulatedCommand.args);
+                    commandHistograms[simulatedCommand.ordinal()].record(System.nanoTime() - start);
+                    allocatedBytes[simulatedCommand.ordinal()] += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+                    executions[simulatedCommand.ordinal()]++;
+                }
+            }
+
+            // Flush the state the commands marked dirty, as the server does at the end of the tick.
+            syncService.run();
+            tickHistogram.record(System.nanoTime() - tickStart);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        long totalExecutions = 0L;
+        for(long commandExecutions : executions) totalExecutions += commandExecutions;
+
+        System.out.println(String.format("Load Test: %d players, %d measured ticks (%d warmup), %.1fs wall time.",
+                playerCount, measuredTicks, warmupTicks, elapsedNanos / (NANOS_PER_MILLISECOND * 1000.0)));
+        System.out.println(String.format("Throughput: %d commands, %.0f commands/s.",
+                totalExecutions, totalExecutions / (elapsedNanos / (NANOS_PER_MILLISECOND * 1000.0))));
+        System.out.println(String.format("Tick Time (p50 / p95 / p99 / max): %.3fms / %.3fms / %.3fms / %.3fms",
+                tickHistogram.getValueAtPercentile(50.0) / NANOS_PER_MILLISECOND,
+                tickHistogram.getValueAtPercentile(95.0) / NANOS_PER_MILLISECOND,
+                tickHistogram.getValueAtPercentile(99.0) / NANOS_PER_MILLISECOND,
+                tickHistogram.getMax() / NANOS_PER_MILLISECOND));
+
+        // Report one line per command; refused executions are included, as they are on a live server.
+        for(SimulatedCommand simulatedCommand : SimulatedCommand.values()) {
+            LatencyHistogram histogram = commandHistograms[simulatedCommand.ordinal()];
+            long commandExecutions = executions[simulatedCommand.ordinal()];
+
+            System.out.println(String.format("/%s: %d calls, %.3fms / %.3fms / %.3fms, %d bytes allocated per call",
+                    simulatedCommand.commandKey, commandExecutions,
+                    histogram.getValueAtPercentile(50.0) / NANOS_PER_MILLISECOND,
+                    histogram.getValueAtPercentile(99.0) / NANOS_PER_MILLISECOND,
+                    histogram.getMax() / NANOS_PER_MILLISECOND,
+                    commandExecutions == 0 ? 0L : allocatedBytes[simulatedCommand.ordinal()] / commandExecutions));
+        }
+    }
+}
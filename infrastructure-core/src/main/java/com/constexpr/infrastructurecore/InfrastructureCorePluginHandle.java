@@ -25,9 +25,15 @@
 package com.constexpr.infrastructurecore;
 
 import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.listener.ChunkEntityListener;
+import com.constexpr.infrastructurecore.listener.InfrastructurePlayerListener;
+import com.constexpr.infrastructurecore.listener.KeepRepairedListener;
 import org.bukkit.Bukkit;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
+import java.io.File;
 import java.util.logging.Logger;
 
 /**
@@ -46,9 +52,6 @@ public final class InfrastructureCorePluginHandle extends JavaPlugin {
 
     static {
         LOGGER = Bukkit.getLogger();
-
-        LOGGER.info("Initializing InfrastructureCoreAPI...");
-        InfrastructureCoreAPI.initialize();
     }
 
     /**
@@ -62,6 +65,24 @@ public final class InfrastructureCorePluginHandle extends JavaPlugin {
      */
     public InfrastructureCorePluginHandle() { }
 
+    /**
+     * Constructor for an InfrastructureCorePluginHandle that is not loaded by the server's PluginClassLoader.
+     * <p>
+     * Servers always use the default constructor; this one passes through to
+     * JavaPlugin's initialization constructor for hosts that run the plugin
+     * without a server, e.g. the load test harness.
+     *
+     * @param loader The Plugin Loader.
+     * @param description The Description of the plugin, usually parsed from its plugin.yml.
+     * @param dataFolder The Data Folder of the plugin.
+     * @param file The JAR File of the plugin.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructureCorePluginHandle(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
+
     /**
      * onEnable is the handler for the plugin enable event.
      * <p>
@@ -73,8 +94,16 @@ public final class InfrastructureCorePluginHandle extends JavaPlugin {
      */
     @Override
     public void onEnable() {
+        LOGGER.info("Initializing InfrastructureCoreAPI...");
+        InfrastructureCoreAPI.initialize();
+
         LOGGER.info("Updating InfrastructureCoreAPI with most recent instance...");
         InfrastructureCoreAPI.setInfrastructureCorePluginHandle(this);
+
+        LOGGER.info("Registering InfrastructureCore listeners...");
+        getServer().getPluginManager().registerEvents(new InfrastructurePlayerListener(), this);
+        getServer().getPluginManager().registerEvents(new KeepRepairedListener(InfrastructureCoreAPI.getInfrastructureCommandManager().getPermissionCache()), this);
+        getServer().getPluginManager().registerEvents(new ChunkEntityListener(() -> InfrastructureCoreAPI.getEntityCleanupEngine().getChunkEntityCounters()), this);
     }
 
     /**
@@ -86,5 +115,8 @@ public final class InfrastructureCorePluginHandle extends JavaPlugin {
      * @since 1.0.0-ALPHA
      */
     @Override
-    public void onDisable() { }
+    public void onDisable() {
+        LOGGER.info("Shutting down InfrastructureCoreAPI...");
+        InfrastructureCoreAPI.shutdown();
+    }
 }
@@ -25,7 +25,27 @@
 package com.constexpr.infrastructurecore.api;
 
 import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.audit.AuditLog;
+import com.constexpr.infrastructurecore.cleanup.EntityCleanupEngine;
 import com.constexpr.infrastructurecore.command.InfrastructureCommandManager;
+import com.constexpr.infrastructurecore.config.ConfigService;
+import com.constexpr.infrastructurecore.message.MessageService;
+import com.constexpr.infrastructurecore.module.InfrastructureModule;
+import com.constexpr.infrastructurecore.module.ModuleRegistry;
+import com.constexpr.infrastructurecore.scheduler.BlockingExecutor;
+import com.constexpr.infrastructurecore.scheduler.BulkTaskScheduler;
+import com.constexpr.infrastructurecore.scheduler.InfrastructureScheduler;
+import com.constexpr.infrastructurecore.storage.PlayerDataStore;
+import com.constexpr.infrastructurecore.sync.SyncService;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayerRegistry;
+import com.constexpr.infrastructurecore.utilities.player.item.DamageableMaterialIndex;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * InfrastructureCoreAPI is the InfrastructureCore's Main API for utility access.
@@ -35,10 +55,36 @@ import com.constexpr.infrastructurecore.command.InfrastructureCommandManager;
  * @since 1.0.0-ALPHA
  */
 public class InfrastructureCoreAPI {
+    private static final int BLOCKING_IO_PLATFORM_THREADS = 4;
+
     private static InfrastructureCorePluginHandle infrastructureCorePluginHandle;
 
     private static InfrastructureCommandManager infrastructureCommandManager;
 
+    private static InfrastructurePlayerRegistry infrastructurePlayerRegistry;
+
+    private static InfrastructureScheduler infrastructureScheduler;
+
+    private static ModuleRegistry moduleRegistry;
+
+    private static InfrastructureModule<BlockingExecutor> blockingModule;
+
+    private static InfrastructureModule<ConfigService> configModule;
+
+    private static InfrastructureModule<PlayerDataStore> playerDataModule;
+
+    private static InfrastructureModule<BulkTaskScheduler> bulkTaskModule;
+
+    private static InfrastructureModule<MessageService> messageModule;
+
+    private static InfrastructureModule<AuditLog> auditModule;
+
+    private static InfrastructureModule<SyncService> syncModule;
+
+    private static InfrastructureModule<EntityCleanupEngine> cleanupModule;
+
+    private static InfrastructureModule<InfrastructureCommandManager> commandModule;
+
     /**
      * Initializes the API for internal and external use.
      * @apiNote should only ever be called once per plugin lifecycle.
@@ -48,6 +94,115 @@ public class InfrastructureCoreAPI {
     public static void initialize() {
         // Create and Initialize the API Command Manager.
         infrastructureCommandManager = new InfrastructureCommandManager();
+
+        // Create the API InfrastructurePlayer Registry.
+        infrastructurePlayerRegistry = new InfrastructurePlayerRegistry();
+
+        // Create the API Scheduler; without a plugin handle (e.g. in benchmarks) it only runs work on the owning thread.
+        infrastructureScheduler = new InfrastructureScheduler(null);
+
+        // Create the API Module Registry and declare the modules without activating them.
+        moduleRegistry = new ModuleRegistry();
+
+        // Create the Blocking Executor for background I/O, on virtual threads where the runtime has them.
+        blockingModule = moduleRegistry.register("blocking-io", true, () ->
+                new BlockingExecutor("InfrastructureCore-IO", BLOCKING_IO_PLATFORM_THREADS, true), BlockingExecutor::shutdown);
+
+        // Parse config.yml into the first snapshot before any subsystem reads it.
+        configModule = moduleRegistry.register("config", true, () -> {
+            // Without a plugin handle (e.g. in benchmarks) only the defaults are served.
+            if(infrastructureCorePluginHandle == null) return new ConfigService(null);
+
+            Path configPath = infrastructureCorePluginHandle.getDataFolder().toPath().resolve(ConfigService.CONFIG_RESOURCE);
+            if(!Files.exists(configPath)) infrastructureCorePluginHandle.saveResource(ConfigService.CONFIG_RESOURCE, false);
+
+            ConfigService configService = new ConfigService(configPath);
+            configService.reload();
+            return configService;
+        }, configService -> { });
+
+        // Build the Material Damageability Index before the first repair operation.
+        moduleRegistry.register("materials", true, () -> {
+            DamageableMaterialIndex.initialize();
+            return Boolean.TRUE;
+        }, index -> { });
+
+        // Load the Locale Files before the first command replies.
+        messageModule = moduleRegistry.register("messages", true, () -> {
+            // Without a plugin handle (e.g. in benchmarks) only the English defaults are served.
+            if(infrastructureCorePluginHandle == null) return new MessageService(null);
+
+            Path dataFolder = infrastructureCorePluginHandle.getDataFolder().toPath();
+            if(!Files.exists(dataFolder.resolve(MessageService.DEFAULT_LOCALE_RESOURCE)))
+                infrastructureCorePluginHandle.saveResource(MessageService.DEFAULT_LOCALE_RESOURCE, false);
+
+            MessageService messageService = new MessageService(dataFolder.resolve("lang"));
+            messageService.load();
+            return messageService;
+        }, messageService -> { });
+
+        // Open the Player Data Store in the plugin data folder and attach the registered Players.
+        playerDataModule = moduleRegistry.register("player-data", true, () -> {
+            // Without a plugin handle (e.g. in benchmarks) the journal lives in a temporary directory.
+            Path dataFolder;
+            try {
+                dataFolder = infrastructureCorePluginHandle == null ? Files.createTempDirectory("infrastructure-core")
+                        : infrastructureCorePluginHandle.getDataFolder().toPath();
+            } catch(IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            // The journal is recovered in the background; one that cannot be opened fails the module from there.
+            PlayerDataStore playerDataStore = new PlayerDataStore(dataFolder.resolve("players.journal"), blockingModule.get());
+            playerDataStore.start().whenComplete((ignored, throwable) -> {
+                if(throwable != null) playerDataModule.fail(throwable);
+            });
+
+            for(InfrastructurePlayer infrastructurePlayer : infrastructurePlayerRegistry.getInfrastructurePlayers())
+                playerDataStore.attach(infrastructurePlayer);
+            return playerDataStore;
+        }, PlayerDataStore::close, blockingModule);
+
+        // Open the Audit Log of privileged command executions.
+        auditModule = moduleRegistry.register("audit", true, () -> {
+            // Without a plugin handle (e.g. in benchmarks) the audit trail is kept in memory only.
+            AuditLog auditLog = new AuditLog(infrastructureCorePluginHandle == null ? null
+                    : infrastructureCorePluginHandle.getDataFolder().toPath().resolve("audit").resolve("audit.log"), blockingModule.get());
+            auditLog.start();
+            return auditLog;
+        }, AuditLog::close, blockingModule);
+
+        // Start the Bulk Task Scheduler for admin-scale operations on the server thread.
+        bulkTaskModule = moduleRegistry.register("bulk-tasks", false, () -> {
+            BulkTaskScheduler bulkTaskScheduler = new BulkTaskScheduler(infrastructureScheduler);
+            getConfigService().subscribe(config -> bulkTaskScheduler.setTickBudgetMillis(config.getBulkTickBudgetMillis()));
+            bulkTaskScheduler.start();
+            return bulkTaskScheduler;
+        }, BulkTaskScheduler::shutdown, configModule);
+
+        // Count the loaded Entities and schedule the automatic cleanup runs.
+        cleanupModule = moduleRegistry.register("cleanup", false, () -> {
+            EntityCleanupEngine entityCleanupEngine = new EntityCleanupEngine(infrastructureScheduler);
+            entityCleanupEngine.start();
+            return entityCleanupEngine;
+        }, EntityCleanupEngine::shutdown, configModule, bulkTaskModule);
+
+        // Connect to the other servers of the network, if synchronization is enabled.
+        syncModule = moduleRegistry.register("sync", false, () -> {
+            // Without a plugin handle (e.g. in benchmarks) synchronization is disabled.
+            if(infrastructureCorePluginHandle == null) return new SyncService(null, "", null);
+
+            // Synced PlayerRecords are handed to the Player Data Store when they arrive, so it is not a dependency.
+            SyncService syncService = SyncService.fromConfiguration(infrastructureCorePluginHandle, loadSyncConfiguration());
+            syncService.start();
+            return syncService;
+        }, SyncService::shutdown);
+
+        // Register the Commands, whose first use activates the rest; the metrics export looks the Blocking Executor up when it runs.
+        commandModule = moduleRegistry.register("commands", false, () -> {
+            infrastructureCommandManager.initializeCommands();
+            return infrastructureCommandManager;
+        }, InfrastructureCommandManager::shutdownCommands, configModule);
     }
 
     /**
@@ -63,15 +218,73 @@ public class InfrastructureCoreAPI {
 
     /**
      * Standard Setter for the Core Plugin Handle.
+     * <p>
+     * Only the commands with the config they read, the warm-up executor and,
+     * if it is enabled, sync are activated here; every other module activates
+     * on its first use or in the background warm-up, and the startup report,
+     * which names what triggered each activation, is logged once the warm-up
+     * is done.
      *
      * @param infrastructureCorePluginHandle Core Plugin Handle
      *
      * @since 1.0.0-ALPHA
      */
     public static void setInfrastructureCorePluginHandle(InfrastructureCorePluginHandle infrastructureCorePluginHandle) {
+        long start = System.nanoTime();
         InfrastructureCoreAPI.infrastructureCorePluginHandle = infrastructureCorePluginHandle;
 
-        infrastructureCommandManager.initializeCommands();
+        // Create the API Scheduler for the new plugin instance.
+        infrastructureScheduler = new InfrastructureScheduler(infrastructureCorePluginHandle);
+
+        // Register Players that are already online (e.g. after a reload).
+        infrastructurePlayerRegistry.registerOnlinePlayers();
+
+        // Register the Commands now, so that their first use can activate the rest.
+        commandModule.activate("enable");
+
+        // Start synchronization now if it is enabled, so that state pushed by other servers is received before anyone joins.
+        if(loadSyncConfiguration().getBoolean("enabled", false)) syncModule.activate("enable");
+
+        // Warm up the async-safe modules in parallel, as their activation mostly waits on files, and report the startup once they are active.
+        BlockingExecutor warmUpExecutor = blockingModule.activate("warm-up executor");
+        long enableNanos = System.nanoTime() - start;
+        moduleRegistry.warmUp(warmUpExecutor)
+                .whenComplete((ignored, throwable) -> moduleRegistry.logStartupReport(enableNanos));
+    }
+
+    /**
+     * Releases the API resources at the end of the plugin lifecycle.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void shutdown() {
+        // Shut down the active modules in reverse order, restoring the commands before ACF unregisters them.
+        moduleRegistry.shutdown();
+
+        // Evict all InfrastructurePlayers so no Player handles outlive the plugin.
+        infrastructurePlayerRegistry.clear();
+    }
+
+    /**
+     * Standard Getter for the Blocking Executor.
+     *
+     * @return Core Blocking Executor for background I/O.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static BlockingExecutor getBlockingExecutor() {
+        return blockingModule.get();
+    }
+
+    /**
+     * Standard Getter for the Config Service.
+     *
+     * @return Core Config Service.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ConfigService getConfigService() {
+        return configModule.get();
     }
 
     /**
@@ -84,4 +297,110 @@ public class InfrastructureCoreAPI {
     public static InfrastructureCommandManager getInfrastructureCommandManager() {
         return infrastructureCommandManager;
     }
+
+    /**
+     * Standard Getter for the InfrastructurePlayer Registry.
+     *
+     * @return Core InfrastructurePlayer Registry.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static InfrastructurePlayerRegistry getInfrastructurePlayerRegistry() {
+        return infrastructurePlayerRegistry;
+    }
+
+    /**
+     * Standard Getter for the Player Data Store.
+     *
+     * @return Core Player Data Store.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static PlayerDataStore getPlayerDataStore() {
+        return playerDataModule.get();
+    }
+
+    /**
+     * Standard Getter for the Scheduler.
+     *
+     * @return Core Scheduler.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static InfrastructureScheduler getInfrastructureScheduler() {
+        return infrastructureScheduler;
+    }
+
+    /**
+     * Standard Getter for the Bulk Task Scheduler.
+     *
+     * @return Core Bulk Task Scheduler.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static BulkTaskScheduler getBulkTaskScheduler() {
+        return bulkTaskModule.get();
+    }
+
+    /**
+     * Standard Getter for the Message Service.
+     *
+     * @return Core Message Service.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static MessageService getMessageService() {
+        return messageModule.get();
+    }
+
+    /**
+     * Standard Getter for the Audit Log.
+     *
+     * @return Core Audit Log.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static AuditLog getAuditLog() {
+        return auditModule.get();
+    }
+
+    /**
+     * Standard Getter for the Sync Service.
+     *
+     * @return Core Sync Service.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static SyncService getSyncService() {
+        return syncModule.get();
+    }
+
+    /**
+     * Standard Getter for the Entity Cleanup Engine.
+     *
+     * @return Core Entity Cleanup Engine.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static EntityCleanupEngine getEntityCleanupEngine() {
+        return cleanupModule.get();
+    }
+
+    /**
+     * Standard Getter for the Module Registry.
+     *
+     * @return Core Module Registry.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ModuleRegistry getModuleRegistry() {
+        return moduleRegistry;
+    }
+
+    private static YamlConfiguration loadSyncConfiguration() {
+        Path configPath = infrastructureCorePluginHandle.getDataFolder().toPath().resolve(SyncService.CONFIG_RESOURCE);
+        if(!Files.exists(configPath)) infrastructureCorePluginHandle.saveResource(SyncService.CONFIG_RESOURCE, false);
+
+        return YamlConfiguration.loadConfiguration(configPath.toFile());
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.audit;
+
+/**
+ * The privileged command executions recorded in the AuditLog.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public enum AuditAction {
+    /**
+     * An execution of /repair hand.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_HAND("repair hand"),
+
+    /**
+     * An execution of /repair all.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_ALL("repair all"),
+
+    /**
+     * An execution of /repair containers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINERS("repair containers"),
+
+    /**
+     * An execution of /suicide.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    SUICIDE("suicide");
+
+    private static final AuditAction[] ACTIONS = values();
+
+    private final String commandKey;
+
+    AuditAction(String commandKey) {
+        this.commandKey = commandKey;
+    }
+
+    /**
+     * Looks up the AuditAction of a command.
+     *
+     * @param commandKey The key of the command, e.g. "repair all".
+     * @return The AuditAction, or null if the command is not audited.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static AuditAction of(String commandKey) {
+        for(AuditAction action : ACTIONS)
+            if(action.commandKey.equals(commandKey)) return action;
+
+        return null;
+    }
+
+    /**
+     * Standard Getter for the Command Key.
+     *
+     * @return The key of the audited command, e.g. "repair all".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getCommandKey() {
+        return commandKey;
+    }
+}
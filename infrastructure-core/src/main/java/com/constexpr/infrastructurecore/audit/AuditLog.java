@@ -0,0 +1,309 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.audit;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.scheduler.BlockingExecutor;
+import com.constexpr.infrastructurecore.scheduler.SerialExecutor;
+import com.constexpr.infrastructurecore.scheduler.TimerHandle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+/**
+ * The AuditLog records privileged command executions without blocking the server thread.
+ * <p>
+ * Command handlers offer fixed-size records to an AuditRingBuffer. A
+ * SerialExecutor of the BlockingExecutor drains the buffer on a short interval,
+ * appends the batch to the log file through a FileChannel, rotates the file
+ * once it grows past its size limit and keeps the most recent lines in memory
+ * for /infra audit. Records offered while the buffer is full are dropped and
+ * counted, and the count is written to the log with the next batch.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class AuditLog {
+    private static final int BUFFER_CAPACITY = 4096;
+
+    private static final int TAIL_SIZE = 256;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 250L;
+
+    private static final long ROTATION_BYTES = 8L * 1024 * 1024;
+
+    private static final int ROTATED_FILES = 5;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private final Path logPath;
+
+    private final AuditRingBuffer ringBuffer = new AuditRingBuffer(BUFFER_CAPACITY);
+
+    private final BlockingExecutor blockingExecutor;
+
+    private final SerialExecutor auditExecutor;
+
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+    private final StringBuilder lineBuilder = new StringBuilder(128);
+
+    private final String[] tail = new String[TAIL_SIZE];
+
+    private long tailCount;
+
+    private long reportedDroppedRecords;
+
+    private FileChannel channel;
+
+    private TimerHandle flushTask;
+
+    /**
+     * Constructor for an AuditLog.
+     *
+     * @param logPath The path of the active log file, or null to keep the in-memory tail only; rotated files are suffixed with .1 to .5.
+     * @param blockingExecutor The BlockingExecutor the log file is written on.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public AuditLog(Path logPath, BlockingExecutor blockingExecutor) {
+        this.logPath = logPath;
+        this.blockingExecutor = blockingExecutor;
+        this.auditExecutor = blockingExecutor.newSerialExecutor();
+    }
+
+    /**
+     * Opens the log file on the audit executor and starts the drain cycle.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void start() {
+        auditExecutor.execute(() -> {
+            // In-Memory Log Guard Statement
+            if(logPath == null) return;
+
+            try {
+                Files.createDirectories(logPath.getParent());
+                channel = open();
+            } catch(IOException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to open audit log " + logPath + ".", exception);
+            }
+        });
+
+        flushTask = blockingExecutor.runTimer(auditExecutor, this::flushSafely, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Records a command execution without blocking.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @param name The name of the Player.
+     * @param action The audited action.
+     * @param result The result of the action.
+     * @return If the record was queued, false if it was dropped.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean record(UUID uniqueId, String name, AuditAction action, AuditResult result) {
+        return ringBuffer.offer(System.currentTimeMillis(), uniqueId.getMostSignificantBits(), uniqueId.getLeastSignificantBits(), name, action, result);
+    }
+
+    /**
+     * Records a refused command execution without blocking, if the command is audited.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @param name The name of the Player.
+     * @param commandKey The key of the refused command, e.g. "repair all".
+     * @param result The reason the command was refused.
+     * @return If the record was queued, false if the command is not audited or the record was dropped.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean recordRefusal(UUID uniqueId, String name, String commandKey, AuditResult result) {
+        AuditAction action = AuditAction.of(commandKey);
+        return action != null && record(uniqueId, name, action, result);
+    }
+
+    /**
+     * Gets the most recently written audit lines.
+     *
+     * @param count The maximum number of lines.
+     * @return The lines, oldest first.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized List<String> getRecentEntries(int count) {
+        int size = (int) Math.min(Math.max(0, Math.min(count, TAIL_SIZE)), tailCount);
+        List<String> entries = new ArrayList<>(size);
+
+        for(long position = tailCount - size; position < tailCount; position++)
+            entries.add(tail[(int) (position % TAIL_SIZE)]);
+
+        return entries;
+    }
+
+    /**
+     * Standard Getter for the number of dropped records.
+     *
+     * @return The number of records dropped because the buffer was full.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getDroppedRecords() {
+        return ringBuffer.getDroppedRecords();
+    }
+
+    /**
+     * Writes the queued records and closes the log file.
+     * @apiNote blocks until the final batch is written or times out, and should only be called on disable.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void close() {
+        if(flushTask != null) flushTask.cancel();
+
+        // The final task runs after every queued one, so waiting for it waits for them all.
+        CompletableFuture<Void> finalFlush = CompletableFuture.runAsync(() -> {
+            flushSafely();
+
+            try {
+                if(channel != null) channel.close();
+            } catch(IOException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to close audit log " + logPath + ".", exception);
+            }
+        }, auditExecutor);
+        auditExecutor.shutdown();
+
+        try {
+            finalFlush.get(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to write the audit log.", exception.getCause());
+        } catch(TimeoutException exception) {
+            InfrastructureCorePluginHandle.LOGGER.warning("Timed out while writing the audit log.");
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch(IOException | RuntimeException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to write the audit log.", exception);
+        }
+    }
+
+    private void flush() throws IOException {
+        // Report records dropped since the previous batch ahead of it.
+        long droppedRecords = ringBuffer.getDroppedRecords();
+        if(droppedRecords > reportedDroppedRecords) {
+            append("# Dropped " + (droppedRecords - reportedDroppedRecords) + " audit records, the buffer was full.");
+            InfrastructureCorePluginHandle.LOGGER.warning("Dropped " + (droppedRecords - reportedDroppedRecords) + " audit records.");
+            reportedDroppedRecords = droppedRecords;
+        }
+
+        // Drain the whole buffer as one batch.
+        ringBuffer.drain(this::appendRecord, ringBuffer.getCapacity());
+        writeBuffered();
+
+        // Rotate once the active file outgrows its limit.
+        if(channel != null && channel.size() >= ROTATION_BYTES) rotate();
+    }
+
+    private void appendRecord(long timestamp, long mostSignificantBits, long leastSignificantBits, String name, AuditAction action, AuditResult result) {
+        lineBuilder.setLength(0);
+        lineBuilder.append(Instant.ofEpochMilli(timestamp)).append('\t')
+                .append(name).append('\t')
+                .append(new UUID(mostSignificantBits, leastSignificantBits)).append('\t')
+                .append('/').append(action.getCommandKey()).append('\t')
+                .append(result);
+
+        try {
+            append(lineBuilder.toString());
+        } catch(IOException exception) {
+            throw new IllegalStateException("Failed to append to the audit log.", exception);
+        }
+    }
+
+    private void append(String line) throws IOException {
+        byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > writeBuffer.remaining()) writeBuffered();
+        writeBuffer.put(bytes);
+
+        // Keep the line in the in-memory tail.
+        synchronized(this) {
+            tail[(int) (tailCount++ % TAIL_SIZE)] = line;
+        }
+    }
+
+    private void writeBuffered() throws IOException {
+        // Without a log file, the batch only feeds the in-memory tail.
+        writeBuffer.flip();
+        while(channel != null && writeBuffer.hasRemaining()) channel.write(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void rotate() throws IOException {
+        try {
+            // Shift audit.log.N to audit.log.N+1, discarding the oldest file.
+            Files.deleteIfExists(rotatedPath(ROTATED_FILES));
+            for(int index = ROTATED_FILES - 1; index >= 1; index--)
+                if(Files.exists(rotatedPath(index))) Files.move(rotatedPath(index), rotatedPath(index + 1), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(logPath, rotatedPath(1), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Reopen a fresh file after the rename, or the existing one if it failed, so auditing never stops.
+            FileChannel previous = channel;
+            channel = open();
+            previous.close();
+        }
+    }
+
+    private Path rotatedPath(int index) {
+        return logPath.resolveSibling(logPath.getFileName() + "." + index);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
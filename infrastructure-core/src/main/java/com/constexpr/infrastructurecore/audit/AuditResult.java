@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.audit;
+
+import com.constexpr.infrastructurecore.utilities.player.item.ItemUtilities;
+
+/**
+ * The outcome of an audited command execution.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public enum AuditResult {
+    /**
+     * The command changed everything it targeted.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    SUCCESS,
+
+    /**
+     * The command changed some of what it targeted.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    PARTIAL_SUCCESS,
+
+    /**
+     * The command found nothing to change.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    NOTHING_CHANGED,
+
+    /**
+     * The command refused its target.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REFUSED,
+
+    /**
+     * The command was refused by its cooldown or rate limit before it ran.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REFUSED_COOLDOWN,
+
+    /**
+     * The command was refused because the Command Sender lacks its permission.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REFUSED_PERMISSION;
+
+    /**
+     * Maps the exit value of a repair operation to an AuditResult.
+     *
+     * @param exitValue The exit value of the repair operation.
+     * @return The matching AuditResult.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static AuditResult of(ItemUtilities.ItemRepairExitValue exitValue) {
+        switch(exitValue) {
+            case SUCCESS:
+                return SUCCESS;
+            case PARTIAL_SUCCESS:
+                return PARTIAL_SUCCESS;
+            case AIR_ITEM:
+                return NOTHING_CHANGED;
+            default:
+                return REFUSED;
+        }
+    }
+}
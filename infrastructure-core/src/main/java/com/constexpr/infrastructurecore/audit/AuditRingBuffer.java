@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, Lock-Free Multi-Producer Single-Consumer Ring Buffer of audit records.
+ * <p>
+ * Records are stored field by field in preallocated parallel arrays, so
+ * offering a record never allocates. Each slot carries a sequence number:
+ * producers claim a slot by advancing the tail with a CAS and publish it by
+ * bumping its sequence, and the single consumer hands the slot back by moving
+ * its sequence one lap ahead. A full buffer drops the record and counts it
+ * instead of blocking the producer.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class AuditRingBuffer {
+    private static final AuditAction[] ACTIONS = AuditAction.values();
+
+    private static final AuditResult[] RESULTS = AuditResult.values();
+
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder droppedRecords = new LongAdder();
+
+    private final long[] timestamps;
+
+    private final long[] mostSignificantBits;
+
+    private final long[] leastSignificantBits;
+
+    private final String[] names;
+
+    private final byte[] actions;
+
+    private final byte[] results;
+
+    private long head;
+
+    /**
+     * Consumer of drained audit records.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        /**
+         * Accepts one drained audit record.
+         *
+         * @param timestamp The time of the execution in epoch milliseconds.
+         * @param mostSignificantBits The most significant bits of the Player's UUID.
+         * @param leastSignificantBits The least significant bits of the Player's UUID.
+         * @param name The name of the Player.
+         * @param action The audited action.
+         * @param result The result of the action.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        void accept(long timestamp, long mostSignificantBits, long leastSignificantBits, String name, AuditAction action, AuditResult result);
+    }
+
+    /**
+     * Constructor for an AuditRingBuffer.
+     *
+     * @param capacity The number of records the buffer holds, rounded up to a power of two.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.timestamps = new long[size];
+        this.mostSignificantBits = new long[size];
+        this.leastSignificantBits = new long[size];
+        this.names = new String[size];
+        this.actions = new byte[size];
+        this.results = new byte[size];
+
+        for(int index = 0; index < size; index++) sequences.set(index, index);
+    }
+
+    /**
+     * Offers a record to the buffer without blocking.
+     *
+     * @param timestamp The time of the execution in epoch milliseconds.
+     * @param mostSignificantBits The most significant bits of the Player's UUID.
+     * @param leastSignificantBits The least significant bits of the Player's UUID.
+     * @param name The name of the Player.
+     * @param action The audited action.
+     * @param result The result of the action.
+     * @return If the record was stored, false if the buffer was full and it was dropped.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean offer(long timestamp, long mostSignificantBits, long leastSignificantBits, String name, AuditAction action, AuditResult result) {
+        long position;
+        int index;
+
+        // Claim the next free slot, or drop the record once the consumer is a full lap behind.
+        while(true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if(difference == 0) {
+                if(tail.compareAndSet(position, position + 1)) break;
+            } else if(difference < 0) {
+                droppedRecords.increment();
+                return false;
+            }
+        }
+
+        // Write the record, then publish the slot to the consumer.
+        this.timestamps[index] = timestamp;
+        this.mostSignificantBits[index] = mostSignificantBits;
+        this.leastSignificantBits[index] = leastSignificantBits;
+        this.names[index] = name;
+        this.actions[index] = (byte) action.ordinal();
+        this.results[index] = (byte) result.ordinal();
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Drains the published records in order.
+     * @apiNote must only be called by one consumer at a time, e.g. a SerialExecutor.
+     *
+     * @param consumer The consumer of the drained records.
+     * @param limit The maximum number of records to drain.
+     * @return The number of drained records.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int drain(RecordConsumer consumer, int limit) {
+        int drained = 0;
+
+        while(drained < limit) {
+            int index = (int) head & mask;
+
+            // Unpublished Slot Guard Statement
+            if(sequences.get(index) != head + 1) break;
+
+            consumer.accept(timestamps[index], mostSignificantBits[index], leastSignificantBits[index], names[index],
+                    ACTIONS[actions[index]], RESULTS[results[index]]);
+
+            // Release the slot for the producers' next lap.
+            names[index] = null;
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+
+        return drained;
+    }
+
+    /**
+     * Standard Getter for the number of dropped records.
+     *
+     * @return The number of records dropped because the buffer was full.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    /**
+     * Standard Getter for the capacity.
+     *
+     * @return The number of records the buffer holds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
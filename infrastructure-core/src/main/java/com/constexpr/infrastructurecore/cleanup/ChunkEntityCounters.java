@@ -0,0 +1,309 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.cleanup;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ChunkEntityCounters counts the cleanup candidates of every loaded chunk.
+ * <p>
+ * The counters are kept up to date from the entity add and remove events, so
+ * a cleanup run can skip every chunk without candidates before it ever asks
+ * the server for the chunk's entities. Each world has an open-addressing table
+ * keyed by the packed chunk coordinates, holding one int per CleanupTarget.
+ * <p>
+ * Counters are a hint, not an inventory: a Mob that walks into another chunk
+ * is still counted where it was added until that chunk is swept, which makes
+ * the old chunk scanned once for nothing and the new one only found once
+ * something else is added to it. Sweeps reset a chunk's counters to what they
+ * found. The methods are synchronized, as Folia fires the entity events on
+ * every region thread; on Paper the lock is never contended.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class ChunkEntityCounters {
+    private static final int TARGETS = CleanupTarget.values().length;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<UUID, ChunkTable> tables = new HashMap<>();
+
+    private final long[] totals = new long[TARGETS];
+
+    /**
+     * Counts the Entities of the currently loaded chunks, e.g. after a reload.
+     *
+     * @param worlds The Worlds to count.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void seed(Iterable<World> worlds) {
+        for(World world : worlds)
+            for(Entity entity : world.getEntities()) add(entity);
+    }
+
+    /**
+     * Counts an Entity that was added to its World.
+     *
+     * @param entity The Entity.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void add(Entity entity) {
+        CleanupTarget target = CleanupTarget.of(entity);
+
+        // Never Cleared Guard Statement
+        if(target == null) return;
+
+        Location location = entity.getLocation();
+        table(location.getWorld()).add(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), target.ordinal(), 1, totals);
+    }
+
+    /**
+     * Uncounts an Entity that was removed from its World.
+     *
+     * @param entity The Entity.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void remove(Entity entity) {
+        CleanupTarget target = CleanupTarget.of(entity);
+
+        // Never Cleared Guard Statement
+        if(target == null) return;
+
+        Location location = entity.getLocation();
+        table(location.getWorld()).add(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), target.ordinal(), -1, totals);
+    }
+
+    /**
+     * Gets the number of candidates counted in a chunk.
+     *
+     * @param chunk The Chunk.
+     * @param target The CleanupTarget to count.
+     * @return The number of candidates.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized int get(Chunk chunk, CleanupTarget target) {
+        return table(chunk.getWorld()).get(chunkKey(chunk.getX(), chunk.getZ()), target.ordinal());
+    }
+
+    /**
+     * Resets the number of candidates in a chunk to what a sweep found.
+     *
+     * @param chunk The Chunk.
+     * @param target The CleanupTarget that was counted.
+     * @param count The number of candidates.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void set(Chunk chunk, CleanupTarget target, int count) {
+        ChunkTable table = table(chunk.getWorld());
+        long chunkKey = chunkKey(chunk.getX(), chunk.getZ());
+
+        table.add(chunkKey, target.ordinal(), count - table.get(chunkKey, target.ordinal()), totals);
+    }
+
+    /**
+     * Forgets an unloaded chunk.
+     *
+     * @param chunk The Chunk.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void clear(Chunk chunk) {
+        ChunkTable table = tables.get(chunk.getWorld().getUID());
+        if(table != null) table.remove(chunkKey(chunk.getX(), chunk.getZ()), totals);
+    }
+
+    /**
+     * Forgets an unloaded World.
+     *
+     * @param world The World.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void clear(World world) {
+        ChunkTable table = tables.remove(world.getUID());
+        if(table != null) table.subtractTotals(totals);
+    }
+
+    /**
+     * Gets the number of candidates counted across all loaded chunks.
+     *
+     * @param target The CleanupTarget to count.
+     * @return The number of candidates.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized long getTotal(CleanupTarget target) {
+        return totals[target.ordinal()];
+    }
+
+    private ChunkTable table(World world) {
+        return tables.computeIfAbsent(world.getUID(), uid -> new ChunkTable(INITIAL_CAPACITY));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Open-addressing table from packed chunk coordinates to per-target counts.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static final class ChunkTable {
+        // Chunk coordinates are bounded by the world border, so this key is never used by a real chunk.
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+
+        private int[] counts;
+
+        private int size;
+
+        private ChunkTable(int capacity) {
+            keys = new long[capacity];
+            counts = new int[capacity * TARGETS];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        private int get(long key, int target) {
+            int slot = find(key);
+            return slot < 0 ? 0 : counts[slot * TARGETS + target];
+        }
+
+        private void add(long key, int target, int delta, long[] totals) {
+            int slot = find(key);
+
+            // Nothing To Remove Guard Statement
+            if(slot < 0 && delta <= 0) return;
+            if(slot < 0) slot = insert(key);
+
+            // Counters never drop below zero, even when a Mob is removed from a chunk it was not counted in.
+            int index = slot * TARGETS + target;
+            int count = Math.max(0, counts[index] + delta);
+            totals[target] += count - counts[index];
+            counts[index] = count;
+        }
+
+        private void remove(long key, long[] totals) {
+            int slot = find(key);
+
+            // Unknown Chunk Guard Statement
+            if(slot < 0) return;
+
+            for(int target = 0; target < TARGETS; target++)
+                totals[target] -= counts[slot * TARGETS + target];
+
+            // Shift the following entries of the probe sequence back, so no tombstones are needed.
+            int mask = keys.length - 1;
+            int next = (slot + 1) & mask;
+            while(keys[next] != EMPTY) {
+                int home = mix(keys[next]) & mask;
+
+                if(((next - home) & mask) >= ((next - slot) & mask)) {
+                    move(next, slot);
+                    slot = next;
+                }
+                next = (next + 1) & mask;
+            }
+
+            keys[slot] = EMPTY;
+            Arrays.fill(counts, slot * TARGETS, slot * TARGETS + TARGETS, 0);
+            size--;
+        }
+
+        private void subtractTotals(long[] totals) {
+            for(int slot = 0; slot < keys.length; slot++)
+                if(keys[slot] != EMPTY)
+                    for(int target = 0; target < TARGETS; target++) totals[target] -= counts[slot * TARGETS + target];
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+
+            for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask)
+                if(keys[slot] == key) return slot;
+
+            return -1;
+        }
+
+        private int insert(long key) {
+            // Keep the load factor at or below one half.
+            if((size + 1) * 2 > keys.length) grow();
+
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while(keys[slot] != EMPTY) slot = (slot + 1) & mask;
+
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            System.arraycopy(counts, from * TARGETS, counts, to * TARGETS, TARGETS);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+
+            keys = new long[oldKeys.length * 2];
+            counts = new int[keys.length * TARGETS];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+
+            for(int slot = 0; slot < oldKeys.length; slot++) {
+                if(oldKeys[slot] == EMPTY) continue;
+
+                int newSlot = insert(oldKeys[slot]);
+                System.arraycopy(oldCounts, slot * TARGETS, counts, newSlot * TARGETS, TARGETS);
+            }
+        }
+
+        private static int mix(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
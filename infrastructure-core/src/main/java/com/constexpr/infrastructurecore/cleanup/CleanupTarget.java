@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.cleanup;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Tameable;
+
+/**
+ * The kinds of Entities the EntityCleanupEngine can clear.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public enum CleanupTarget {
+    /**
+     * Items lying on the ground.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    ITEMS("items"),
+
+    /**
+     * Mobs that would despawn on their own: no name tag, owner, leash or persistence.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    MOBS("mobs");
+
+    private static final CleanupTarget[] TARGETS = values();
+
+    private final String label;
+
+    CleanupTarget(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the CleanupTarget an Entity counts towards.
+     *
+     * @param entity The Entity.
+     * @return The CleanupTarget, or null if the Entity is never cleared.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static CleanupTarget of(Entity entity) {
+        if(entity instanceof Item) return ITEMS;
+
+        // Keep Mobs that a player has invested in, or that the server keeps on purpose.
+        if(!(entity instanceof Mob)) return null;
+        Mob mob = (Mob) entity;
+        if(!mob.getRemoveWhenFarAway() || mob.getCustomName() != null || mob.isLeashed()) return null;
+        if(mob instanceof Tameable && ((Tameable) mob).isTamed()) return null;
+
+        return MOBS;
+    }
+
+    /**
+     * Parses a CleanupTarget from its label.
+     *
+     * @param label The label, e.g. "items".
+     * @return The CleanupTarget, or null if the label is unknown.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static CleanupTarget fromLabel(String label) {
+        for(CleanupTarget target : TARGETS)
+            if(target.label.equalsIgnoreCase(label)) return target;
+
+        return null;
+    }
+
+    /**
+     * Standard Getter for the Label.
+     *
+     * @return The label of the CleanupTarget, e.g. "items".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.cleanup;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.config.InfrastructureConfig;
+import com.constexpr.infrastructurecore.scheduler.InfrastructureScheduler;
+import com.constexpr.infrastructurecore.scheduler.TimerHandle;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * EntityCleanupEngine removes ground items and excess mobs from the loaded chunks.
+ * <p>
+ * A run never touches the whole world in one tick. The loaded chunks are
+ * filtered through the ChunkEntityCounters first, so chunks without
+ * candidates are skipped without asking the server for their entities, and
+ * the rest become one small task per chunk on the BulkTaskScheduler, which
+ * slices them into per-tick batches within its budget. The chunks are sorted
+ * by region, so every batch sweeps neighbouring chunks. On Folia each sweep
+ * runs on the thread of the region that owns its chunk, and the run reports
+ * once the last of them is done.
+ * <p>
+ * Runs are started by /infra clear or automatically, every configured
+ * interval, once the counted candidates of a target reach its threshold.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class EntityCleanupEngine implements Runnable {
+    /**
+     * The Default Interval Between Automatic Runs in Seconds, or 0 to disable them.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final long DEFAULT_INTERVAL_SECONDS = 300L;
+
+    /**
+     * The Default Minimum Age in Seconds of a Ground Item Before It Is Cleared.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int DEFAULT_ITEM_MIN_AGE_SECONDS = 60;
+
+    /**
+     * The Default Number of Counted Ground Items That Triggers an Automatic Run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int DEFAULT_ITEM_THRESHOLD = 2000;
+
+    /**
+     * The Default Number of Mobs Kept per Chunk.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int DEFAULT_MOBS_PER_CHUNK = 24;
+
+    /**
+     * The Default Number of Counted Mobs That Triggers an Automatic Run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int DEFAULT_MOB_THRESHOLD = 4000;
+
+    private static final long AUTOMATIC_CHECK_PERIOD_TICKS = 20L;
+
+    private static final int TICKS_PER_SECOND = 20;
+
+    private static final int REGION_SHIFT = 5;
+
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    private static final Comparator<Chunk> REGION_ORDER = Comparator.<Chunk>comparingInt(chunk -> chunk.getX() >> REGION_SHIFT)
+            .thenComparingInt(chunk -> chunk.getZ() >> REGION_SHIFT);
+
+    private final InfrastructureScheduler infrastructureScheduler;
+
+    private final ChunkEntityCounters chunkEntityCounters = new ChunkEntityCounters();
+
+    private final boolean[] running = new boolean[CleanupTarget.values().length];
+
+    private long nextAutomaticRun;
+
+    private TimerHandle timerTask;
+
+    /**
+     * Constructor for an EntityCleanupEngine.
+     *
+     * @param infrastructureScheduler The Scheduler that runs the timer and the sweeps.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public EntityCleanupEngine(InfrastructureScheduler infrastructureScheduler) {
+        this.infrastructureScheduler = infrastructureScheduler;
+    }
+
+    /**
+     * Counts the loaded Entities and starts the automatic run timer on the server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void start() {
+        // Folia forbids listing a world's Entities off their region threads, so there the counters start empty.
+        if(!infrastructureScheduler.isRegionThreaded()) chunkEntityCounters.seed(Bukkit.getWorlds());
+
+        nextAutomaticRun = System.nanoTime() + intervalNanos(InfrastructureCoreAPI.getConfigService().get());
+        timerTask = infrastructureScheduler.runTimer(this, AUTOMATIC_CHECK_PERIOD_TICKS, AUTOMATIC_CHECK_PERIOD_TICKS);
+    }
+
+    /**
+     * Stops the automatic run timer. Queued sweeps are dropped with the BulkTaskScheduler.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        if(timerTask != null) timerTask.cancel();
+    }
+
+    /**
+     * Starts a cleanup run, unless one of the same target is still running.
+     * <p>
+     * Must be called on the server thread, or the global region thread on Folia.
+     *
+     * @param target The CleanupTarget to clear.
+     * @param owner The Command Sender that progress and the result are reported to.
+     * @return If the run was started.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean clear(CleanupTarget target, CommandSender owner) {
+        // Run In Progress Guard Statement
+        if(running[target.ordinal()]) return false;
+
+        InfrastructureConfig config = InfrastructureCoreAPI.getConfigService().get();
+        int itemMinAgeTicks = config.getCleanupItemMinAgeSeconds() * TICKS_PER_SECOND;
+        int mobsPerChunk = config.getCleanupMobsPerChunk();
+
+        // Only chunks with more candidates than they may keep are worth a sweep.
+        int minimumCount = target == CleanupTarget.MOBS ? mobsPerChunk + 1 : 1;
+        CleanupRun cleanupRun = new CleanupRun(target);
+        List<Runnable> tasks = new ArrayList<>();
+        List<CompletableFuture<Void>> sweeps = new ArrayList<>();
+
+        for(World world : Bukkit.getWorlds()) {
+            List<Chunk> chunks = new ArrayList<>();
+
+            for(Chunk chunk : world.getLoadedChunks()) {
+                cleanupRun.loadedChunks++;
+                if(chunkEntityCounters.get(chunk, target) >= minimumCount) chunks.add(chunk);
+            }
+
+            chunks.sort(REGION_ORDER);
+            for(Chunk chunk : chunks) tasks.add(() -> sweeps.add(infrastructureScheduler.runAtChunk(world, chunk.getX(), chunk.getZ(),
+                    () -> sweep(cleanupRun, chunk, itemMinAgeTicks, mobsPerChunk))));
+        }
+
+        cleanupRun.sweptChunks = tasks.size();
+        tasks.add(() -> CompletableFuture.allOf(sweeps.toArray(new CompletableFuture<?>[0]))
+                .whenCompleteAsync((ignored, throwable) -> finish(cleanupRun, owner, throwable), infrastructureScheduler.getMainThreadExecutor()));
+
+        running[target.ordinal()] = true;
+        InfrastructureCoreAPI.getBulkTaskScheduler().submit("Clear " + target.getLabel(), owner, tasks);
+        return true;
+    }
+
+    /**
+     * Starts the automatic runs that are due and over their threshold.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void run() {
+        InfrastructureConfig config = InfrastructureCoreAPI.getConfigService().get();
+        long intervalNanos = intervalNanos(config);
+        long now = System.nanoTime();
+
+        // Disabled or Not Due Guard Statement
+        if(intervalNanos <= 0 || now - nextAutomaticRun < 0) return;
+        nextAutomaticRun = now + intervalNanos;
+
+        if(chunkEntityCounters.getTotal(CleanupTarget.ITEMS) >= config.getCleanupItemThreshold())
+            clear(CleanupTarget.ITEMS, Bukkit.getConsoleSender());
+        if(chunkEntityCounters.getTotal(CleanupTarget.MOBS) >= config.getCleanupMobThreshold())
+            clear(CleanupTarget.MOBS, Bukkit.getConsoleSender());
+    }
+
+    private void sweep(CleanupRun cleanupRun, Chunk chunk, int itemMinAgeTicks, int mobsPerChunk) {
+        // Unloaded Chunk Guard Statement
+        if(!chunk.isLoaded()) return;
+
+        long start = System.nanoTime();
+        CleanupTarget target = cleanupRun.target;
+        int kept = 0;
+        int removed = 0;
+
+        for(Entity entity : chunk.getEntities()) {
+            if(entity.isDead() || CleanupTarget.of(entity) != target) continue;
+
+            // Young items are kept for their owner to pick up; Mobs are kept up to the per-chunk limit.
+            boolean keep = target == CleanupTarget.ITEMS ? entity.getTicksLived() < itemMinAgeTicks : kept < mobsPerChunk;
+            if(keep) {
+                kept++;
+            } else {
+                entity.remove();
+                removed++;
+            }
+        }
+
+        // Removed Entities leave the world later this tick, and their remove events take them off the counters.
+        chunkEntityCounters.set(chunk, target, kept + removed);
+
+        cleanupRun.removed.addAndGet(removed);
+        cleanupRun.elapsedNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private void finish(CleanupRun cleanupRun, CommandSender owner, Throwable throwable) {
+        running[cleanupRun.target.ordinal()] = false;
+        if(throwable != null) InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "A cleanup sweep failed.", throwable);
+
+        String message = String.format("Cleared %d %s from %d of %d loaded chunks in %.1fms of server time.",
+                cleanupRun.removed.get(), cleanupRun.target.getLabel(), cleanupRun.sweptChunks, cleanupRun.loadedChunks,
+                cleanupRun.elapsedNanos.get() / NANOS_PER_MILLISECOND);
+
+        owner.sendMessage(message);
+        if(owner != Bukkit.getConsoleSender()) InfrastructureCorePluginHandle.LOGGER.info(message);
+    }
+
+    private static long intervalNanos(InfrastructureConfig config) {
+        return TimeUnit.SECONDS.toNanos(config.getCleanupIntervalSeconds());
+    }
+
+    /**
+     * Standard Getter for the Chunk Entity Counters.
+     *
+     * @return The per-chunk candidate counters.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public ChunkEntityCounters getChunkEntityCounters() {
+        return chunkEntityCounters;
+    }
+
+    /**
+     * Checks if a cleanup run of a target is queued or running.
+     *
+     * @param target The CleanupTarget.
+     * @return If a run is in progress.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isRunning(CleanupTarget target) {
+        return running[target.ordinal()];
+    }
+
+    /**
+     * The Results of a Single Cleanup Run, collected by its sweeps on the threads that own their chunks.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static final class CleanupRun {
+        private final CleanupTarget target;
+
+        private int loadedChunks;
+
+        private int sweptChunks;
+
+        private final AtomicInteger removed = new AtomicInteger();
+
+        private final AtomicLong elapsedNanos = new AtomicLong();
+
+        private CleanupRun(CleanupTarget target) {
+            this.target = target;
+        }
+    }
+}
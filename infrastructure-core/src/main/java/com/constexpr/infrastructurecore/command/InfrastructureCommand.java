@@ -25,12 +25,34 @@
 package com.constexpr.infrastructurecore.command;
 
 import co.aikar.commands.BaseCommand;
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditAction;
+import com.constexpr.infrastructurecore.audit.AuditResult;
+import com.constexpr.infrastructurecore.scheduler.InfrastructureScheduler;
+import com.constexpr.infrastructurecore.storage.PlayerRecord;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 /**
  * Base Class for All Infrastructure Commands
  * <p>
- * Currently does not have a use. When patterns start to form within commands,
- * shared methods will be refactored here to organize common operations.
+ * Shared operations of command handlers are refactored here. Handlers run on
+ * the server thread by default; a handler opts into the two-phase execution
+ * mode by handing its work to executeTwoPhase(). Handlers that mutate an
+ * Entity first check isOnOwningThread() and hand themselves to
+ * redispatch() otherwise, since on Folia the command may arrive on a thread
+ * that does not own the Entity. TimedCommand already moves a Player's own
+ * commands to the Player's thread before ACF checks their conditions, so the
+ * guard only redispatches handlers that are invoked from elsewhere.
  *
  * @author constexpr
  * @version 1.0.0-ALPHA
@@ -43,4 +65,129 @@ public class InfrastructureCommand extends BaseCommand {
      * @since 1.0.0-ALPHA
      */
     public InfrastructureCommand() { }
+
+    /**
+     * Records a command execution on the InfrastructurePlayer of the Command Sender.
+     *
+     * @param player The Player Command Sender.
+     * @param counter The command-specific Session Counter to increment.
+     * @return The InfrastructurePlayer of the Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    protected static InfrastructurePlayer recordExecution(Player player, InfrastructurePlayer.SessionCounter counter) {
+        // Look up the session container of the Command Sender.
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(player);
+
+        // Update the session state of the Command Sender.
+        infrastructurePlayer.incrementCounter(InfrastructurePlayer.SessionCounter.COMMANDS_EXECUTED);
+        infrastructurePlayer.incrementCounter(counter);
+        infrastructurePlayer.setTimestamp(InfrastructurePlayer.SessionTimestamp.LAST_COMMAND, System.currentTimeMillis());
+
+        // Update the lifetime usage counter once the PlayerRecord is loaded.
+        PlayerRecord playerRecord = infrastructurePlayer.getPlayerRecord();
+        if(playerRecord != null) {
+            playerRecord.incrementCounter(counter.name());
+            InfrastructureCoreAPI.getPlayerDataStore().markDirty(playerRecord);
+        }
+
+        // Broadcast the changed state to the other servers with the next tick's batch.
+        InfrastructureCoreAPI.getSyncService().markDirty(infrastructurePlayer);
+
+        return infrastructurePlayer;
+    }
+
+    /**
+     * Records a privileged command execution in the Audit Log without blocking.
+     *
+     * @param player The Player Command Sender.
+     * @param action The audited action.
+     * @param result The result of the action.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    protected static void audit(Player player, AuditAction action, AuditResult result) {
+        InfrastructureCoreAPI.getAuditLog().record(player.getUniqueId(), player.getName(), action, result);
+    }
+
+    /**
+     * Executes a command in two phases to keep heavy work off the server thread.
+     * <p>
+     * The compute phase runs on the Bukkit async pool and must not touch the
+     * Bukkit API beyond thread-safe reads. Its result is handed to the commit
+     * phase, which runs on the server thread and performs the Bukkit mutations.
+     * Failures in either phase are logged and reported to the Command Sender
+     * on the thread that owns it.
+     *
+     * @param sender The Command Sender.
+     * @param computePhase The off-thread computation, lookups and I/O.
+     * @param commitPhase The server-thread Bukkit mutations.
+     * @param <T> The type handed from the compute phase to the commit phase.
+     * @return A future completed once the commit phase has run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    protected static <T> CompletableFuture<Void> executeTwoPhase(CommandSender sender, Supplier<T> computePhase, Consumer<T> commitPhase) {
+        InfrastructureScheduler scheduler = InfrastructureCoreAPI.getInfrastructureScheduler();
+
+        return scheduler.supplyAsync(computePhase)
+                .thenAcceptAsync(commitPhase, scheduler.getMainThreadExecutor())
+                .whenComplete((ignored, throwable) -> {
+                    // Exceptional Completion Guard Statement
+                    if(throwable == null) return;
+
+                    InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Two-phase command execution failed.", throwable);
+                    reportInternalError(sender);
+                });
+    }
+
+    /**
+     * Checks if the current thread owns an Entity, so a handler may mutate it inline.
+     * <p>
+     * Always true for a Player's own commands on Paper and Spigot.
+     *
+     * @param entity The Entity the handler operates on.
+     * @return If the current thread owns the Entity.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    protected static boolean isOnOwningThread(Entity entity) {
+        return InfrastructureCoreAPI.getInfrastructureScheduler().isOwnedByCurrentThread(entity);
+    }
+
+    /**
+     * Runs a command handler again on the thread that owns the Entity it operates on.
+     * <p>
+     * The handler is called directly, so ACF conditions such as cooldowns are
+     * not checked again; commands executed by a Player are already on the
+     * Player's thread when ACF checks them. A handler that fails is logged and reported to
+     * the Command Sender on the thread that owns it; one whose Entity was removed in the
+     * meantime is dropped.
+     *
+     * @param sender The Command Sender.
+     * @param entity The Entity the handler operates on.
+     * @param handler The command handler.
+     * @return A future completed once the handler has run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    protected static CompletableFuture<Void> redispatch(CommandSender sender, Entity entity, Runnable handler) {
+        return InfrastructureCoreAPI.getInfrastructureScheduler().runForEntity(entity, handler)
+                .whenComplete((ignored, throwable) -> {
+                    // Exceptional Completion Guard Statement
+                    if(throwable == null || throwable instanceof CancellationException) return;
+
+                    InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Redispatched command execution failed.", throwable);
+                    reportInternalError(sender);
+                });
+    }
+
+    private static void reportInternalError(CommandSender sender) {
+        // The future may complete on any thread, so hop to the one that owns the Command Sender.
+        InfrastructureScheduler scheduler = InfrastructureCoreAPI.getInfrastructureScheduler();
+        Runnable report = () -> sender.sendMessage("An internal error occurred while executing that command.");
+
+        if(sender instanceof Player) scheduler.runForEntity((Player) sender, report);
+        else scheduler.runSync(report);
+    }
 }
@@ -24,11 +24,21 @@
 
 package com.constexpr.infrastructurecore.command;
 
+import co.aikar.commands.CommandIssuer;
 import co.aikar.commands.PaperCommandManager;
 import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
 import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
-import com.constexpr.infrastructurecore.command.player.CommandRepair;
-import com.constexpr.infrastructurecore.command.player.CommandSuicide;
+import com.constexpr.infrastructurecore.command.index.CommandIndex;
+import com.constexpr.infrastructurecore.command.metrics.CommandMetrics;
+import com.constexpr.infrastructurecore.command.metrics.CommandStallDetector;
+import com.constexpr.infrastructurecore.command.metrics.PrometheusMetricsExporter;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import com.constexpr.infrastructurecore.scheduler.TimerHandle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The InfrastructureCommandManager is a wrapper for the ACF Command Manager
@@ -38,8 +48,32 @@ import com.constexpr.infrastructurecore.command.player.CommandSuicide;
  * @since 1.0.0-ALPHA
  */
 public class InfrastructureCommandManager {
+    /**
+     * ACF Completion Identifier for online Player names, used as {@code @CommandCompletion("@playernames")}.
+     * <p>
+     * Completions come from the PlayerNameTrie in O(prefix length) and, unlike
+     * ACF's {@code @players}, do not hide Players the sender cannot see.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String PLAYER_NAMES_COMPLETION = "playernames";
+
+    private static final long METRICS_EXPORT_PERIOD_TICKS = 15L * 20L;
+
     private PaperCommandManager commandManager;
 
+    private final List<InfrastructureCommand> infrastructureCommands = new ArrayList<>();
+
+    private final CommandRateLimiter commandRateLimiter = new CommandRateLimiter();
+
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    private final CommandMetrics commandMetrics = new CommandMetrics();
+
+    private CommandStallDetector commandStallDetector;
+
+    private TimerHandle metricsExportTask;
+
     /**
      * Default Constructor for Initialization
      *
@@ -55,12 +89,70 @@ public class InfrastructureCommandManager {
     public void initializeCommands() {
         InfrastructureCorePluginHandle pluginHandle = InfrastructureCoreAPI.getInfrastructureCorePluginHandle();
 
-        // Create the ACF Command Manager that the class wraps.
-        this.commandManager = new PaperCommandManager(pluginHandle);
+        // Create the ACF Command Manager that the class wraps, answering its permission checks from the cache.
+        this.commandManager = new PaperCommandManager(pluginHandle) {
+            @Override
+            public boolean hasPermission(CommandIssuer issuer, String permission) {
+                // Unrestricted Command Guard Statement
+                if(permission == null || permission.isEmpty()) return true;
+
+                for(String node : permission.split(","))
+                    if(!node.isEmpty() && !permissionCache.hasPermission(issuer.getIssuer(), node)) return false;
+
+                return true;
+            }
+        };
+
+        // Register Command Conditions and Completions
+        commandRateLimiter.registerConditions(commandManager);
+        commandManager.getCommandCompletions().registerAsyncCompletion(PLAYER_NAMES_COMPLETION, context ->
+                InfrastructureCoreAPI.getInfrastructurePlayerRegistry().getPlayerNameTrie().complete(context.getInput(),
+                        InfrastructureCoreAPI.getConfigService().get().getPlayerNameCompletions()));
+
+        // Initialize the Commands listed in the generated command index.
+        for(InfrastructureCommand infrastructureCommand : CommandIndex.createCommands())
+            registerCommand(infrastructureCommand);
 
-        // Initialize Commands
-        commandManager.registerCommand(new CommandRepair());
-        commandManager.registerCommand(new CommandSuicide());
+        // Watch the server thread for command handlers that overrun the stall threshold.
+        commandStallDetector = new CommandStallDetector(pluginHandle.getDataFolder().toPath().resolve("stalls"));
+        commandStallDetector.start();
+
+        // Apply the configured limits now and after every reload.
+        InfrastructureCoreAPI.getConfigService().subscribe(config -> {
+            commandStallDetector.setThresholdMillis(config.getStallThresholdMillis());
+            permissionCache.setTtlMillis(config.getPermissionCacheTtlMillis());
+        });
+
+        // Time and directly dispatch every registered command, and periodically export the metrics.
+        commandMetrics.instrument(commandManager, commandRateLimiter, permissionCache, commandStallDetector);
+        PrometheusMetricsExporter metricsExporter = new PrometheusMetricsExporter(commandMetrics, permissionCache,
+                pluginHandle.getDataFolder().toPath().resolve("metrics").resolve("infrastructure_core.prom"));
+        metricsExportTask = InfrastructureCoreAPI.getInfrastructureScheduler().runTimer(() -> InfrastructureCoreAPI.getBlockingExecutor().execute(metricsExporter),
+                METRICS_EXPORT_PERIOD_TICKS, METRICS_EXPORT_PERIOD_TICKS);
+    }
+
+    /**
+     * Shutdown function for all InfrastructureCore commands.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdownCommands() {
+        // Stop exporting metrics and hand the original commands back to ACF.
+        if(metricsExportTask != null) metricsExportTask.cancel();
+        commandMetrics.uninstrument();
+        if(commandStallDetector != null) commandStallDetector.shutdown();
+    }
+
+    /**
+     * Registers an InfrastructureCommand with the ACF Command Manager.
+     *
+     * @param infrastructureCommand The InfrastructureCommand to register.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private void registerCommand(InfrastructureCommand infrastructureCommand) {
+        commandManager.registerCommand(infrastructureCommand);
+        infrastructureCommands.add(infrastructureCommand);
     }
 
     /**
@@ -71,4 +163,59 @@ public class InfrastructureCommandManager {
     public PaperCommandManager getACFPaperCommandManager() {
         return commandManager;
     }
+
+    /**
+     * Standard Getter for the Command Rate Limiter.
+     *
+     * @return The Command Rate Limiter.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandRateLimiter getCommandRateLimiter() {
+        return commandRateLimiter;
+    }
+
+    /**
+     * Standard Getter for the Permission Cache.
+     *
+     * @return The Permission Cache.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Standard Getter for the Command Metrics.
+     *
+     * @return The Command Metrics.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
+    }
+
+    /**
+     * Standard Getter for the Command Stall Detector.
+     *
+     * @return The Command Stall Detector, or null before the commands are initialized.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandStallDetector getCommandStallDetector() {
+        return commandStallDetector;
+    }
+
+    /**
+     * Standard Getter for the registered InfrastructureCommands.
+     *
+     * @return A read-only view of the registered InfrastructureCommands.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<InfrastructureCommand> getInfrastructureCommands() {
+        return Collections.unmodifiableList(infrastructureCommands);
+    }
 }
@@ -0,0 +1,306 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.admin;
+
+import co.aikar.commands.annotation.*;
+import co.aikar.commands.bukkit.contexts.OnlinePlayer;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditLog;
+import com.constexpr.infrastructurecore.cleanup.CleanupTarget;
+import com.constexpr.infrastructurecore.cleanup.EntityCleanupEngine;
+import com.constexpr.infrastructurecore.command.InfrastructureCommand;
+import com.constexpr.infrastructurecore.command.metrics.LatencyHistogram;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.module.InfrastructureModule;
+import com.constexpr.infrastructurecore.scheduler.BulkTask;
+import com.constexpr.infrastructurecore.scheduler.BulkTaskScheduler;
+import com.constexpr.infrastructurecore.scheduler.InfrastructureScheduler;
+import com.constexpr.infrastructurecore.sync.SyncService;
+import com.constexpr.infrastructurecore.utilities.player.item.ItemUtilities;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Command Class for the /infra administration command.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+@CommandAlias("infra|infrastructure")
+public class CommandInfrastructure extends InfrastructureCommand {
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    /**
+     * Subcommand Handler for the metrics subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("metrics")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.admin.metrics")
+    @Description("View command latency metrics.")
+    public static void onMetricsCommand(CommandSender sender) {
+        // Walk the histograms off the server thread, then report the lines back on it.
+        executeTwoPhase(sender, CommandInfrastructure::formatMetrics, lines -> {
+            for(String line : lines) sender.sendMessage(line);
+        });
+    }
+
+    /**
+     * Formats one report line per command from a snapshot of the command histograms.
+     *
+     * @return The report lines.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static List<String> formatMetrics() {
+        Map<String, LatencyHistogram> histograms = InfrastructureCoreAPI.getInfrastructureCommandManager().getCommandMetrics().getHistograms();
+        List<String> lines = new ArrayList<>();
+
+        lines.add("Command Latency Metrics (p50 / p99 / max):");
+        for(Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if(histogram.getCount() == 0) continue;
+
+            lines.add(String.format("/%s: %d calls, %.3fms / %.3fms / %.3fms", entry.getKey(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50.0) / NANOS_PER_MILLISECOND,
+                    histogram.getValueAtPercentile(99.0) / NANOS_PER_MILLISECOND,
+                    histogram.getMax() / NANOS_PER_MILLISECOND));
+        }
+
+        // Permission Cache Hit Rate
+        PermissionCache permissionCache = InfrastructureCoreAPI.getInfrastructureCommandManager().getPermissionCache();
+        long hits = permissionCache.getHitCount();
+        long checks = hits + permissionCache.getMissCount();
+        lines.add(String.format("Permission Cache: %d checks, %.1f%% hits", checks, checks == 0 ? 0.0 : hits * 100.0 / checks));
+
+        return lines;
+    }
+
+    /**
+     * Subcommand Handler for the tasks subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("tasks")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.admin.tasks")
+    @Description("View queued bulk tasks.")
+    public static void onTasksCommand(CommandSender sender) {
+        BulkTaskScheduler bulkTaskScheduler = InfrastructureCoreAPI.getBulkTaskScheduler();
+        List<BulkTask> queuedTasks = bulkTaskScheduler.getQueuedTasks();
+
+        // Empty Queue Guard Statement
+        if(queuedTasks.isEmpty()) {
+            sender.sendMessage("There are no queued bulk tasks.");
+            return;
+        }
+
+        // Report one line per queued task back to the sender.
+        sender.sendMessage(String.format("Queued Bulk Tasks (%dms per tick):", bulkTaskScheduler.getTickBudgetMillis()));
+        for(BulkTask bulkTask : queuedTasks)
+            sender.sendMessage(bulkTask.describeProgress() + ", submitted by " + bulkTask.getOwner().getName() + ".");
+    }
+
+    /**
+     * Subcommand Handler for the repairall subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("repairall")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.admin.repairall")
+    @Description("Repair the inventories of all online players.")
+    public static void onRepairAllCommand(CommandSender sender) {
+        InfrastructureScheduler infrastructureScheduler = InfrastructureCoreAPI.getInfrastructureScheduler();
+        List<Supplier<CompletableFuture<Void>>> handOffs = new ArrayList<>();
+
+        // Hand one task per online Player to the thread that owns them, which on Folia is the thread of their region.
+        for(Player player : Bukkit.getOnlinePlayers())
+            handOffs.add(() -> infrastructureScheduler.runForEntity(player, () -> repairInventory(player)));
+
+        InfrastructureCoreAPI.getBulkTaskScheduler().submitHandOffs("Repair Online Inventories", sender, handOffs);
+    }
+
+    /**
+     * Subcommand Handler for the clear subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     * @param label The target to clear, "items" or "mobs".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("clear")
+    @Syntax("<+tag> <items|mobs>")
+    @CommandPermission("infrastructure.admin.clear")
+    @CommandCompletion("items|mobs")
+    @Description("Clear ground items or excess mobs from the loaded chunks.")
+    public static void onClearCommand(CommandSender sender, String label) {
+        CleanupTarget target = CleanupTarget.fromLabel(label);
+
+        // Unknown Target Guard Statement
+        if(target == null) {
+            sender.sendMessage("Unknown cleanup target " + label + ", expected items or mobs.");
+            return;
+        }
+
+        // Start the run on the server thread, which on Folia is the global region thread.
+        InfrastructureCoreAPI.getInfrastructureScheduler().runSync(() -> {
+            EntityCleanupEngine entityCleanupEngine = InfrastructureCoreAPI.getEntityCleanupEngine();
+            if(!entityCleanupEngine.clear(target, sender))
+                sender.sendMessage("A cleanup of " + target.getLabel() + " is already running, see /infra tasks.");
+        });
+    }
+
+    /**
+     * Subcommand Handler for the lang subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     * @param locale The locale to reload, e.g. "de_de".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("lang")
+    @Syntax("<+tag> <locale>")
+    @CommandPermission("infrastructure.admin.lang")
+    @Description("Reload a locale file.")
+    public static void onLangCommand(CommandSender sender, String locale) {
+        // Parse the locale file off the server thread; the swap itself is atomic.
+        executeTwoPhase(sender, () -> InfrastructureCoreAPI.getMessageService().reloadLocale(locale), reloaded ->
+                sender.sendMessage(reloaded ? "Reloaded locale " + locale + "." : "Could not load locale " + locale + ", see the console."));
+    }
+
+    /**
+     * Subcommand Handler for the reload subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("reload")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.admin.reload")
+    @Description("Reload config.yml without a restart.")
+    public static void onReloadCommand(CommandSender sender) {
+        // Parse config.yml off the server thread; the swap itself is atomic.
+        executeTwoPhase(sender, () -> InfrastructureCoreAPI.getConfigService().reload(), reloaded ->
+                sender.sendMessage(reloaded ? "Reloaded config.yml." : "Could not load config.yml, see the console."));
+    }
+
+    /**
+     * Subcommand Handler for the modules subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("modules")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.admin.modules")
+    @Description("View module activation times.")
+    public static void onModulesCommand(CommandSender sender) {
+        sender.sendMessage("InfrastructureCore Modules:");
+        for(InfrastructureModule<?> module : InfrastructureCoreAPI.getModuleRegistry().getModules())
+            sender.sendMessage(module.describeActivation());
+    }
+
+    /**
+     * Subcommand Handler for the audit subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     * @param count The number of recent entries to show.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("audit")
+    @Syntax("<+tag> [count]")
+    @CommandPermission("infrastructure.admin.audit")
+    @Description("View recent privileged command executions.")
+    public static void onAuditCommand(CommandSender sender, @Default("10") int count) {
+        AuditLog auditLog = InfrastructureCoreAPI.getAuditLog();
+        List<String> entries = auditLog.getRecentEntries(count);
+
+        // Report the in-memory tail back to the sender.
+        sender.sendMessage(String.format("Recent Audit Entries (%d shown, %d dropped):", entries.size(), auditLog.getDroppedRecords()));
+        for(String entry : entries) sender.sendMessage(entry.replace('\t', ' '));
+    }
+
+    /**
+     * Subcommand Handler for the send subcommand of /infra.
+     *
+     * @param sender The Command Sender.
+     * @param target The Player to send.
+     * @param server The name of the destination server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("send")
+    @Syntax("<+tag> <player> <server>")
+    @CommandPermission("infrastructure.admin.send")
+    @CommandCompletion("@playernames")
+    @Description("Send a player to another server, handing their state off first.")
+    public static void onSendCommand(CommandSender sender, OnlinePlayer target, String server) {
+        SyncService syncService = InfrastructureCoreAPI.getSyncService();
+        Player player = target.getPlayer();
+
+        // Push the state to the destination, then report whether it arrived before the Player.
+        syncService.handoff(player, server).thenAccept(acknowledged -> sender.sendMessage(acknowledged
+                ? "Handed " + player.getName() + " off to " + server + "."
+                : "Sent " + player.getName() + " to " + server + " without an acknowledged handoff."));
+    }
+
+    /**
+     * Repairs every item in a Player's inventory.
+     * <p>
+     * Must be called on the thread that owns the Player, as the inventory is
+     * only read once the task runs there.
+     *
+     * @param player The Player that owns the inventory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static void repairInventory(Player player) {
+        // Player Quit Guard Statement
+        if(!player.isOnline()) return;
+
+        for(ItemStack itemStack : player.getInventory().getContents())
+            if(itemStack != null) ItemUtilities.setItemDurability(itemStack, 0);
+    }
+}
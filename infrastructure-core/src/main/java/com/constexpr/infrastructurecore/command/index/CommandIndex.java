@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.index;
+
+import com.constexpr.infrastructurecore.command.InfrastructureCommand;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CommandIndex is the entry point to the compile-time generated command index.
+ * <p>
+ * The CommandIndexProcessor writes GeneratedCommandIndex from the ACF
+ * annotations of every InfrastructureCommand, with one CommandIndexEntry per
+ * handler, a factory for the command instances, and a switch-based invoker
+ * that calls each handler as a plain static method. This class is the only
+ * place that refers to the generated source.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class CommandIndex {
+    private static final List<CommandIndexEntry> ENTRIES = Collections.unmodifiableList(Arrays.asList(GeneratedCommandIndex.ENTRIES));
+
+    /**
+     * Private Constructor for Static Utility Class.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private CommandIndex() { }
+
+    /**
+     * Standard Getter for the indexed handlers.
+     *
+     * @return Every indexed handler, grouped by declaring class.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static List<CommandIndexEntry> getEntries() {
+        return ENTRIES;
+    }
+
+    /**
+     * Gets the indexed handlers of one root command.
+     *
+     * @param rootName The lower-case primary alias of the root command.
+     * @return The handlers of the root command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static List<CommandIndexEntry> getEntries(String rootName) {
+        List<CommandIndexEntry> entries = new ArrayList<>();
+
+        for(CommandIndexEntry entry : ENTRIES)
+            if(entry.getRootName().equals(rootName)) entries.add(entry);
+
+        return entries;
+    }
+
+    /**
+     * Creates one instance of every indexed InfrastructureCommand, in declaration order.
+     *
+     * @return The new InfrastructureCommands.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static List<InfrastructureCommand> createCommands() {
+        return GeneratedCommandIndex.createCommands();
+    }
+
+    /**
+     * Calls an indexed handler directly.
+     * @apiNote the caller must have checked the sender type and argument count of the entry.
+     *
+     * @param handlerId The identifier of a directly dispatchable handler.
+     * @param sender The Command Sender.
+     * @param args The arguments after the subcommand.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void invoke(int handlerId, CommandSender sender, String[] args) {
+        GeneratedCommandIndex.invoke(handlerId, sender, args);
+    }
+}
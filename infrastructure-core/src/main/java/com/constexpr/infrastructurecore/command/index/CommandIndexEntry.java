@@ -0,0 +1,262 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.index;
+
+import java.util.Locale;
+
+/**
+ * CommandIndexEntry describes one InfrastructureCommand handler in the generated command index.
+ * <p>
+ * Entries are emitted by the CommandIndexProcessor from the ACF annotations of
+ * the handler at compile time, so nothing about a handler has to be discovered
+ * by reflection at runtime.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class CommandIndexEntry {
+    private final int handlerId;
+
+    private final String handlerName;
+
+    private final String rootName;
+
+    private final String[] subcommandAliases;
+
+    private final boolean defaultHandler;
+
+    private final String[] permissions;
+
+    private final int rateLimitCapacity;
+
+    private final long rateLimitMillis;
+
+    private final boolean playerOnly;
+
+    private final int fixedArguments;
+
+    private final boolean variadic;
+
+    private final boolean directDispatch;
+
+    private final String commandKey;
+
+    /**
+     * Constructor for a CommandIndexEntry.
+     * @apiNote only called by the generated command index.
+     *
+     * @param handlerId The identifier of the handler in the generated invoker.
+     * @param handlerName The declaring class and method of the handler, e.g. "CommandRepair#onRepairHandCommand".
+     * @param rootName The lower-case primary alias of the root command.
+     * @param subcommandAliases The lower-case subcommand aliases, empty for root handlers.
+     * @param defaultHandler If the handler is the @Default handler of the root command.
+     * @param permissions The permissions that are all required to use the handler.
+     * @param rateLimitCapacity The capacity of the handler's cooldown or rate limit, 0 for none.
+     * @param rateLimitMillis The interval of the handler's cooldown or rate limit.
+     * @param playerOnly If the handler takes a Player rather than a CommandSender.
+     * @param fixedArguments The number of String parameters of the handler.
+     * @param variadic If the handler takes the remaining arguments as a String[].
+     * @param directDispatch If the generated invoker can call the handler directly.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandIndexEntry(int handlerId, String handlerName, String rootName, String[] subcommandAliases, boolean defaultHandler,
+                             String[] permissions, int rateLimitCapacity, long rateLimitMillis, boolean playerOnly,
+                             int fixedArguments, boolean variadic, boolean directDispatch) {
+        this.handlerId = handlerId;
+        this.handlerName = handlerName;
+        this.rootName = rootName;
+        this.subcommandAliases = subcommandAliases;
+        this.defaultHandler = defaultHandler;
+        this.permissions = permissions;
+        this.rateLimitCapacity = rateLimitCapacity;
+        this.rateLimitMillis = rateLimitMillis;
+        this.playerOnly = playerOnly;
+        this.fixedArguments = fixedArguments;
+        this.variadic = variadic;
+        this.directDispatch = directDispatch;
+        this.commandKey = subcommandAliases.length == 0 ? rootName : rootName + " " + subcommandAliases[0].toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Standard Getter for the Handler Identifier.
+     *
+     * @return The identifier of the handler in the generated invoker.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getHandlerId() {
+        return handlerId;
+    }
+
+    /**
+     * Standard Getter for the Handler Name.
+     *
+     * @return The declaring class and method of the handler.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getHandlerName() {
+        return handlerName;
+    }
+
+    /**
+     * Standard Getter for the Root Command Name.
+     *
+     * @return The lower-case primary alias of the root command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getRootName() {
+        return rootName;
+    }
+
+    /**
+     * Standard Getter for the Subcommand Aliases.
+     *
+     * @return A copy of the lower-case subcommand aliases, empty for root handlers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String[] getSubcommandAliases() {
+        return subcommandAliases.clone();
+    }
+
+    /**
+     * Standard Getter for the default flag of the handler.
+     *
+     * @return If the handler is the @Default handler of the root command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isDefaultHandler() {
+        return defaultHandler;
+    }
+
+    /**
+     * Standard Getter for the Handler Permissions.
+     *
+     * @return A copy of the permissions that are all required to use the handler.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String[] getPermissions() {
+        return permissions.clone();
+    }
+
+    /**
+     * Standard Getter for the Rate Limit Capacity.
+     *
+     * @return The capacity of the handler's cooldown or rate limit, 0 for none.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getRateLimitCapacity() {
+        return rateLimitCapacity;
+    }
+
+    /**
+     * Standard Getter for the Rate Limit Interval.
+     *
+     * @return The interval of the handler's cooldown or rate limit in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getRateLimitMillis() {
+        return rateLimitMillis;
+    }
+
+    /**
+     * Standard Getter for the player-only flag of the handler.
+     *
+     * @return If the handler takes a Player rather than a CommandSender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isPlayerOnly() {
+        return playerOnly;
+    }
+
+    /**
+     * Standard Getter for the number of String parameters of the handler.
+     *
+     * @return The number of fixed arguments.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getFixedArguments() {
+        return fixedArguments;
+    }
+
+    /**
+     * Standard Getter for the variadic flag of the handler.
+     *
+     * @return If the handler takes the remaining arguments as a String[].
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isVariadic() {
+        return variadic;
+    }
+
+    /**
+     * Standard Getter for the direct dispatch flag of the handler.
+     *
+     * @return If the generated invoker can call the handler directly.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isDirectDispatch() {
+        return directDispatch;
+    }
+
+    /**
+     * Standard Getter for the Command Key of the handler.
+     *
+     * @return The key used for metrics and rate limits, e.g. "repair all".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getCommandKey() {
+        return commandKey;
+    }
+
+    /**
+     * Checks whether an argument selects this handler as its subcommand.
+     *
+     * @param argument The first command argument.
+     * @return If the argument is one of the subcommand aliases.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean matchesSubcommand(String argument) {
+        for(String subcommandAlias : subcommandAliases)
+            if(subcommandAlias.equalsIgnoreCase(argument)) return true;
+
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.index;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditResult;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * DirectCommandDispatcher executes the handlers of one root command through the generated invoker.
+ * <p>
+ * The dispatcher covers the common case of a handler whose sender type,
+ * argument count, permissions and rate limit are all known from the command
+ * index, and calls it without ACF's reflective invocation and context
+ * resolution. Every handler's permissions are checked here first, so refused
+ * executions of audited commands are audited whichever path runs them. Anything else, including every error message ACF would produce
+ * (missing permission, wrong sender, bad syntax), is declined so the caller
+ * can fall back to the ACF root command.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class DirectCommandDispatcher {
+    private final CommandIndexEntry[] subcommandEntries;
+
+    private final CommandIndexEntry defaultEntry;
+
+    private final CommandRateLimiter commandRateLimiter;
+
+    private final PermissionCache permissionCache;
+
+    /**
+     * Constructor for a DirectCommandDispatcher.
+     *
+     * @param entries The indexed handlers of the root command.
+     * @param commandRateLimiter The Command Rate Limiter that enforces the handlers' conditions.
+     * @param permissionCache The Permission Cache that answers the handlers' permission checks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public DirectCommandDispatcher(List<CommandIndexEntry> entries, CommandRateLimiter commandRateLimiter, PermissionCache permissionCache) {
+        CommandIndexEntry defaultHandler = null;
+        for(CommandIndexEntry entry : entries)
+            if(entry.isDefaultHandler()) defaultHandler = entry;
+
+        this.subcommandEntries = entries.stream().filter(entry -> entry.getSubcommandAliases().length > 0).toArray(CommandIndexEntry[]::new);
+        this.defaultEntry = defaultHandler;
+        this.commandRateLimiter = commandRateLimiter;
+        this.permissionCache = permissionCache;
+    }
+
+    /**
+     * Executes a command through the generated invoker if the dispatcher supports it.
+     *
+     * @param sender The Command Sender.
+     * @param args The command arguments, starting with the subcommand.
+     * @return If the command was handled; false if the caller must fall back to ACF.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean tryDispatch(CommandSender sender, String[] args) {
+        // Resolve the handler by subcommand, falling back to the @Default handler.
+        CommandIndexEntry entry = null;
+        int offset = 0;
+        if(args.length > 0) {
+            for(CommandIndexEntry subcommandEntry : subcommandEntries) {
+                if(subcommandEntry.matchesSubcommand(args[0])) {
+                    entry = subcommandEntry;
+                    offset = 1;
+                    break;
+                }
+            }
+        }
+        if(entry == null) entry = defaultEntry;
+
+        // Unknown Handler Guard Statement
+        if(entry == null) return false;
+
+        // Permission Guard Statement, which audits the refusal and leaves the permission message to ACF.
+        for(String permission : entry.getPermissions()) {
+            if(!permissionCache.hasPermission(sender, permission)) {
+                if(sender instanceof Player) InfrastructureCoreAPI.getAuditLog().recordRefusal(((Player) sender).getUniqueId(),
+                        sender.getName(), entry.getCommandKey(), AuditResult.REFUSED_PERMISSION);
+                return false;
+            }
+        }
+
+        // Unsupported Handler Guard Statements
+        if(!entry.isDirectDispatch()) return false;
+        if(entry.isPlayerOnly() && !(sender instanceof Player)) return false;
+
+        int arguments = args.length - offset;
+        if(arguments < entry.getFixedArguments() || (arguments > entry.getFixedArguments() && !entry.isVariadic())) return false;
+
+        // Enforce the cooldown or rate limit of the handler before it runs.
+        if(entry.getRateLimitCapacity() > 0 && sender instanceof Player) {
+            long wait = commandRateLimiter.tryAcquire(InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get((Player) sender),
+                    entry.getCommandKey(), entry.getRateLimitCapacity(), TimeUnit.MILLISECONDS.toNanos(entry.getRateLimitMillis()));
+
+            if(wait > 0) {
+                InfrastructureCoreAPI.getAuditLog().recordRefusal(((Player) sender).getUniqueId(), sender.getName(),
+                        entry.getCommandKey(), AuditResult.REFUSED_COOLDOWN);
+                sender.sendMessage(ChatColor.RED + "Error: " + commandRateLimiter.formatRefusal(sender, wait));
+                return true;
+            }
+        }
+
+        // Call the handler through the generated invoker.
+        try {
+            CommandIndex.invoke(entry.getHandlerId(), sender, offset == 0 ? args : Arrays.copyOfRange(args, offset, args.length));
+        } catch(RuntimeException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Handler " + entry.getHandlerName() + " failed.", exception);
+            sender.sendMessage(ChatColor.RED + "An internal error occurred while executing that command.");
+        }
+
+        return true;
+    }
+}
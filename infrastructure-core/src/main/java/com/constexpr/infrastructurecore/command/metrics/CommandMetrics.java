@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.metrics;
+
+import co.aikar.commands.PaperCommandManager;
+import co.aikar.commands.RootCommand;
+import com.constexpr.infrastructurecore.command.index.CommandIndex;
+import com.constexpr.infrastructurecore.command.index.CommandIndexEntry;
+import com.constexpr.infrastructurecore.command.index.DirectCommandDispatcher;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandMetrics keeps a LatencyHistogram for every command and subcommand.
+ * <p>
+ * Instrumentation replaces the ACF root commands in the server's command map
+ * with TimedCommand wrappers, so every registered InfrastructureCommand is timed
+ * without any change to its handlers. The subcommands of each root command are
+ * read from the generated command index.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class CommandMetrics {
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandMetrics() { }
+
+    /**
+     * Gets or creates the histogram of a command key.
+     *
+     * @param commandKey The key of the command, e.g. "repair all".
+     * @return The LatencyHistogram of the command key.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public LatencyHistogram getHistogram(String commandKey) {
+        return histograms.computeIfAbsent(commandKey, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Gets all histograms sorted by command key.
+     *
+     * @return A sorted snapshot of the command keys and their histograms.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public SortedMap<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Wraps the registered ACF root commands of InfrastructureCommands with TimedCommands.
+     *
+     * @param commandManager The ACF Paper Command Manager the commands were registered with.
+     * @param commandRateLimiter The Command Rate Limiter used by the direct dispatchers.
+     * @param permissionCache The Permission Cache used by the direct dispatchers.
+     * @param commandStallDetector The Command Stall Detector the TimedCommands mark executions on.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void instrument(PaperCommandManager commandManager, CommandRateLimiter commandRateLimiter, PermissionCache permissionCache,
+                           CommandStallDetector commandStallDetector) {
+        // Create one TimedCommand per indexed ACF root command.
+        Map<Command, TimedCommand> timedCommands = new IdentityHashMap<>();
+        for(RootCommand rootCommand : commandManager.getRegisteredRootCommands()) {
+            List<CommandIndexEntry> entries = CommandIndex.getEntries(rootCommand.getCommandName());
+            if(entries.isEmpty() || !(rootCommand instanceof Command)) continue;
+
+            Command command = (Command) rootCommand;
+            timedCommands.put(command, new TimedCommand(command, getSubcommands(entries), getDefaultKey(command.getName(), entries),
+                    this, new DirectCommandDispatcher(entries, commandRateLimiter, permissionCache), commandStallDetector));
+        }
+
+        // Swap every label of the root commands, including aliases and the fallback prefix.
+        for(Map.Entry<String, Command> entry : Bukkit.getCommandMap().getKnownCommands().entrySet()) {
+            TimedCommand timedCommand = timedCommands.get(entry.getValue());
+            if(timedCommand != null) entry.setValue(timedCommand);
+        }
+    }
+
+    /**
+     * Restores the ACF root commands wrapped by instrument().
+     * @apiNote must be called before ACF unregisters its commands on disable.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void uninstrument() {
+        for(Map.Entry<String, Command> entry : Bukkit.getCommandMap().getKnownCommands().entrySet())
+            if(entry.getValue() instanceof TimedCommand) entry.setValue(((TimedCommand) entry.getValue()).getDelegate());
+    }
+
+    private static String[] getSubcommands(List<CommandIndexEntry> entries) {
+        Set<String> subcommands = new LinkedHashSet<>();
+
+        // Collect every subcommand alias, including those with flags such as "all --preview".
+        for(CommandIndexEntry entry : entries)
+            Collections.addAll(subcommands, entry.getSubcommandAliases());
+
+        return subcommands.toArray(new String[0]);
+    }
+
+    private static String getDefaultKey(String rootName, List<CommandIndexEntry> entries) {
+        // Attribute executions without a subcommand to the subcommand of the @Default handler.
+        for(CommandIndexEntry entry : entries)
+            if(entry.isDefaultHandler() && entry.getSubcommandAliases().length > 0)
+                return rootName + " " + entry.getSubcommandAliases()[0];
+
+        return rootName;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.metrics;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * CommandStallDetector samples the executing thread while a command handler overruns.
+ * <p>
+ * Every thread that executes commands, i.e. the server thread, or every region
+ * thread on Folia, has its own ExecutionMarker. TimedCommand marks the command
+ * that is executing with a few volatile writes on entry and one on exit, so
+ * concurrent executions on different threads never overwrite each other. A
+ * watchdog thread polls the markers, and once a single execution has run longer
+ * than the threshold it samples that marker's thread every millisecond until
+ * the execution ends. One stall is sampled at a time. The samples are
+ * aggregated per command in the collapsed stack format of flamegraph.pl
+ * ("frame;frame;frame count") and written to one .collapsed file per command,
+ * so each file renders directly as a flame graph of that command's stalls.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class CommandStallDetector implements Runnable {
+    /**
+     * The Default Stall Threshold, one server tick.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final long DEFAULT_THRESHOLD_MILLIS = 50L;
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5L);
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1000L;
+
+    private final Path outputDirectory;
+
+    private final Map<String, Map<String, Long>> collapsedStacks = new HashMap<>();
+
+    private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD_MILLIS);
+
+    private final ConcurrentHashMap<Thread, ExecutionMarker> executionMarkers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread watchdogThread;
+
+    /**
+     * Constructor for a CommandStallDetector.
+     *
+     * @param outputDirectory The directory to write the .collapsed files to.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandStallDetector(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Starts the watchdog thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void start() {
+        running = true;
+
+        watchdogThread = new Thread(this, "InfrastructureCore-StallDetector");
+        watchdogThread.setDaemon(true);
+        watchdogThread.start();
+    }
+
+    /**
+     * Stops the watchdog thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        running = false;
+
+        // Not Started Guard Statement
+        if(watchdogThread == null) return;
+
+        watchdogThread.interrupt();
+        try {
+            watchdogThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Release the executing threads.
+        executionMarkers.clear();
+    }
+
+    /**
+     * Marks a command as executing on the calling thread.
+     *
+     * @param commandKey The key of the command, e.g. "repair all".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void enter(String commandKey) {
+        ExecutionMarker marker = getMarker();
+        marker.since = System.nanoTime();
+        marker.commandKey = commandKey;
+        marker.execution.incrementAndGet();
+    }
+
+    /**
+     * Clears the marker once the executing command has returned.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void exit() {
+        getMarker().commandKey = null;
+    }
+
+    /**
+     * Standard Getter for the Stall Threshold.
+     *
+     * @return The execution time after which a command is sampled, in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Standard Setter for the Stall Threshold.
+     *
+     * @param thresholdMillis The execution time after which a command is sampled, in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, thresholdMillis));
+    }
+
+    /**
+     * Polls the markers and samples executions that overrun the threshold.
+     * @apiNote runs on the watchdog thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void run() {
+        while(running) {
+            boolean sampled = false;
+
+            for(ExecutionMarker marker : executionMarkers.values()) {
+                // Forget the markers of threads that have terminated.
+                if(!marker.thread.isAlive()) {
+                    executionMarkers.remove(marker.thread);
+                    continue;
+                }
+
+                long execution = marker.execution.get();
+                String commandKey = marker.commandKey;
+                long since = marker.since;
+
+                // Only sample a marker that was read whole, without a new execution starting in between, and only once.
+                if(commandKey == null || marker.execution.get() != execution || marker.sampledExecution == execution
+                        || System.nanoTime() - since <= thresholdNanos) continue;
+
+                sample(marker, commandKey, execution, since);
+                marker.sampledExecution = execution;
+                sampled = true;
+            }
+
+            if(!sampled) LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+        }
+    }
+
+    private ExecutionMarker getMarker() {
+        Thread thread = Thread.currentThread();
+        ExecutionMarker marker = executionMarkers.get(thread);
+
+        // Create the marker on the thread's first command only, so later lookups never lock.
+        if(marker == null) marker = executionMarkers.computeIfAbsent(thread, ExecutionMarker::new);
+
+        return marker;
+    }
+
+    private void sample(ExecutionMarker marker, String commandKey, long execution, long since) {
+        Thread thread = marker.thread;
+        InfrastructureCorePluginHandle.LOGGER.warning(String.format("/%s has run for over %dms on %s, sampling its stack.",
+                commandKey, getThresholdMillis(), thread.getName()));
+
+        // Sample until the marked execution returns.
+        Map<String, Long> commandStacks = collapsedStacks.computeIfAbsent(commandKey, key -> new HashMap<>());
+        int samples = 0;
+        while(running && marker.isExecuting(execution)) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            if(!marker.isExecuting(execution)) break;
+
+            commandStacks.merge(collapse(commandKey, stack), 1L, Long::sum);
+            samples++;
+            LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+        }
+
+        long stallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+        Path outputPath = outputDirectory.resolve(commandKey.replace(' ', '-') + ".collapsed");
+        InfrastructureCorePluginHandle.LOGGER.warning(String.format("/%s stalled %s for %dms, %d stack samples written to %s.",
+                commandKey, thread.getName(), stallMillis, samples, outputPath));
+        write(outputPath, commandStacks);
+    }
+
+    private static String collapse(String commandKey, StackTraceElement[] stack) {
+        StringBuilder builder = new StringBuilder(stack.length * 48).append('/').append(commandKey);
+
+        // Collapsed stacks list the root frame first, the reverse of a stack trace.
+        for(int index = stack.length - 1; index >= 0; index--)
+            builder.append(';').append(stack[index].getClassName()).append('.').append(stack[index].getMethodName());
+
+        return builder.toString();
+    }
+
+    private static void write(Path outputPath, Map<String, Long> commandStacks) {
+        Path temporaryPath = outputPath.resolveSibling(outputPath.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(outputPath.getParent());
+
+            try(Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+                for(Map.Entry<String, Long> entry : new TreeMap<>(commandStacks).entrySet())
+                    writer.write(entry.getKey() + " " + entry.getValue() + "\n");
+            }
+
+            Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to write stall samples to " + outputPath + ".", exception);
+        }
+    }
+
+    /**
+     * The Command Execution Marker of a Single Thread, written only by that thread.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static final class ExecutionMarker {
+        private final Thread thread;
+
+        private final AtomicLong execution = new AtomicLong();
+
+        private volatile String commandKey;
+
+        private volatile long since;
+
+        private long sampledExecution;
+
+        private ExecutionMarker(Thread thread) {
+            this.thread = thread;
+        }
+
+        private boolean isExecuting(long execution) {
+            return this.execution.get() == execution && commandKey != null;
+        }
+    }
+}
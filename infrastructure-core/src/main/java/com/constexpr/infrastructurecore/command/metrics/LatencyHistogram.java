@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-Memory Log-Linear Latency Histogram.
+ * <p>
+ * Durations in nanoseconds are counted in HDR-style buckets: every power of
+ * two is split into 32 linear sub-buckets, which bounds the relative error of
+ * any reported percentile to about 3% while the whole histogram stays a single
+ * array of roughly a thousand counters. Recording never allocates and can be
+ * read concurrently from other threads.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_SHIFT = 31;
+
+    private static final int BUCKET_COUNT = (MAX_SHIFT + 2) * SUB_BUCKET_COUNT;
+
+    private static final long MAX_TRACKABLE_NANOS = ((long) SUB_BUCKET_COUNT << (MAX_SHIFT + 1)) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public LatencyHistogram() { }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void record(long nanos) {
+        // Clamp durations into the trackable range.
+        long value = Math.min(Math.max(nanos, 0L), MAX_TRACKABLE_NANOS);
+
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+
+        // Raise the maximum, retrying only if another thread raised it concurrently.
+        for(long current = max.get(); value > current; current = max.get())
+            if(max.compareAndSet(current, value)) break;
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The invocation count.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of all recorded durations.
+     *
+     * @return The total duration in nanoseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     *
+     * @return The maximum duration in nanoseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the duration at a percentile of all recorded durations.
+     *
+     * @param percentile The percentile between 0.0 and 100.0.
+     * @return The upper bound of the bucket holding the percentile in nanoseconds, or 0 if empty.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getCount();
+
+        // Empty Histogram Guard Statement
+        if(total == 0) return 0L;
+
+        // Walk the buckets until the cumulative count reaches the target rank.
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulative = 0L;
+
+        for(int index = 0; index < BUCKET_COUNT; index++) {
+            cumulative += buckets.get(index);
+            if(cumulative >= rank) return Math.min(bucketUpperBound(index), getMax());
+        }
+
+        return getMax();
+    }
+
+    private static int bucketIndex(long value) {
+        // Values below the sub-bucket count are counted exactly.
+        if(value < SUB_BUCKET_COUNT) return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        // Exact Bucket Guard Statement
+        if(index < SUB_BUCKET_COUNT) return index;
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.metrics;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Periodic Prometheus Text-Format Exporter for CommandMetrics and the PermissionCache.
+ * <p>
+ * The file is written beside its destination and atomically moved into place,
+ * so the node exporter's textfile collector never scrapes a partial file.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PrometheusMetricsExporter implements Runnable {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final CommandMetrics commandMetrics;
+
+    private final PermissionCache permissionCache;
+
+    private final Path exportPath;
+
+    /**
+     * Constructor for a PrometheusMetricsExporter.
+     *
+     * @param commandMetrics The Command Metrics to export.
+     * @param permissionCache The Permission Cache whose hits and misses to export.
+     * @param exportPath The path of the .prom file to write.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PrometheusMetricsExporter(CommandMetrics commandMetrics, PermissionCache permissionCache, Path exportPath) {
+        this.commandMetrics = commandMetrics;
+        this.permissionCache = permissionCache;
+        this.exportPath = exportPath;
+    }
+
+    /**
+     * Writes the current metrics to the export path.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void run() {
+        Path temporaryPath = exportPath.resolveSibling(exportPath.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(exportPath.getParent());
+
+            try(Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+                write(writer);
+            }
+
+            Files.move(temporaryPath, exportPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to export command metrics to " + exportPath + ".", exception);
+        }
+    }
+
+    /**
+     * Writes the current metrics in the Prometheus text exposition format.
+     *
+     * @param writer The Writer to write to.
+     * @throws IOException If the Writer fails.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void write(Writer writer) throws IOException {
+        Map<String, LatencyHistogram> histograms = commandMetrics.getHistograms();
+
+        // Latency Summary
+        writer.write("# HELP infrastructure_command_duration_seconds Main-thread time spent executing InfrastructureCore commands.\n");
+        writer.write("# TYPE infrastructure_command_duration_seconds summary\n");
+        for(Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String label = "command=\"" + escape(entry.getKey()) + "\"";
+            LatencyHistogram histogram = entry.getValue();
+
+            writer.write("infrastructure_command_duration_seconds{" + label + ",quantile=\"0.5\"} " + seconds(histogram.getValueAtPercentile(50.0)) + "\n");
+            writer.write("infrastructure_command_duration_seconds{" + label + ",quantile=\"0.99\"} " + seconds(histogram.getValueAtPercentile(99.0)) + "\n");
+            writer.write("infrastructure_command_duration_seconds_sum{" + label + "} " + seconds(histogram.getSum()) + "\n");
+            writer.write("infrastructure_command_duration_seconds_count{" + label + "} " + histogram.getCount() + "\n");
+        }
+
+        // Maximum Latency Gauge
+        writer.write("# HELP infrastructure_command_duration_max_seconds Longest execution of each InfrastructureCore command.\n");
+        writer.write("# TYPE infrastructure_command_duration_max_seconds gauge\n");
+        for(Map.Entry<String, LatencyHistogram> entry : histograms.entrySet())
+            writer.write("infrastructure_command_duration_max_seconds{command=\"" + escape(entry.getKey()) + "\"} " + seconds(entry.getValue().getMax()) + "\n");
+
+        // Permission Cache Counters
+        writer.write("# HELP infrastructure_permission_checks_total Permission checks of commands and perks by whether the cached decision was used.\n");
+        writer.write("# TYPE infrastructure_permission_checks_total counter\n");
+        writer.write("infrastructure_permission_checks_total{result=\"hit\"} " + permissionCache.getHitCount() + "\n");
+        writer.write("infrastructure_permission_checks_total{result=\"miss\"} " + permissionCache.getMissCount() + "\n");
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.metrics;
+
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.command.index.DirectCommandDispatcher;
+import com.constexpr.infrastructurecore.message.MessageKey;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * TimedCommand wraps a registered ACF root command to time every execution.
+ * <p>
+ * The subcommand is resolved by comparing the leading arguments against the
+ * subcommands declared on the InfrastructureCommand, preferring the longest
+ * match so that e.g. "all --preview" is timed apart from "all". Every
+ * subcommand has its own LatencyHistogram resolved up front, so timing an
+ * execution costs two System.nanoTime() calls and a few string comparisons. The resolved command
+ * key is checked against the commands disabled in the current configuration,
+ * and marked on the CommandStallDetector for the duration of the execution.
+ * Executions go through the DirectCommandDispatcher first, and only reach the
+ * wrapped ACF command when the dispatcher declines them.
+ * <p>
+ * A Player's command that arrives on a thread that does not own the Player,
+ * which only happens on Folia, is first moved to the Player's thread as a
+ * whole, so ACF checks its permissions and conditions (cooldowns and rate
+ * limits) on the thread the handler then runs on.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class TimedCommand extends Command {
+    private final Command delegate;
+
+    private final String[][] subcommandWords;
+
+    private final String[] subcommandKeys;
+
+    private final LatencyHistogram[] subcommandHistograms;
+
+    private final String defaultKey;
+
+    private final LatencyHistogram defaultHistogram;
+
+    private final DirectCommandDispatcher directCommandDispatcher;
+
+    private final CommandStallDetector commandStallDetector;
+
+    /**
+     * Constructor for a TimedCommand.
+     *
+     * @param delegate The ACF root command to wrap.
+     * @param subcommands The lower-case subcommands of the root command, e.g. "all" and "all --preview".
+     * @param defaultKey The metrics key of executions without a known subcommand.
+     * @param commandMetrics The Command Metrics to record into.
+     * @param directCommandDispatcher The generated fast path of the root command.
+     * @param commandStallDetector The Command Stall Detector to mark executions on.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public TimedCommand(Command delegate, String[] subcommands, String defaultKey, CommandMetrics commandMetrics,
+                        DirectCommandDispatcher directCommandDispatcher, CommandStallDetector commandStallDetector) {
+        super(delegate.getName(), delegate.getDescription(), delegate.getUsage(), delegate.getAliases());
+        setPermission(delegate.getPermission());
+        setPermissionMessage(delegate.getPermissionMessage());
+
+        this.delegate = delegate;
+        this.subcommandWords = new String[subcommands.length][];
+        this.subcommandKeys = new String[subcommands.length];
+        this.subcommandHistograms = new LatencyHistogram[subcommands.length];
+        this.defaultKey = defaultKey;
+        this.defaultHistogram = commandMetrics.getHistogram(defaultKey);
+        this.directCommandDispatcher = directCommandDispatcher;
+        this.commandStallDetector = commandStallDetector;
+
+        // Resolve every subcommand's words, key and histogram once.
+        for(int index = 0; index < subcommands.length; index++) {
+            subcommandWords[index] = subcommands[index].split(" ");
+            subcommandKeys[index] = delegate.getName() + " " + subcommands[index];
+            subcommandHistograms[index] = commandMetrics.getHistogram(subcommandKeys[index]);
+        }
+    }
+
+    /**
+     * Standard Getter for the wrapped ACF root command.
+     *
+     * @return The wrapped root command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Command getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Executes the command directly or through the wrapped command, and records its duration.
+     *
+     * @param sender The Command Sender.
+     * @param commandLabel The label the command was executed with.
+     * @param args The command arguments.
+     * @return The result of the wrapped command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public boolean execute(CommandSender sender, String commandLabel, String[] args) {
+        // Owning Thread Guard Statement
+        if(sender instanceof Player && !InfrastructureCoreAPI.getInfrastructureScheduler().isOwnedByCurrentThread((Player) sender)) {
+            InfrastructureCoreAPI.getInfrastructureScheduler().runForEntity((Player) sender, () -> execute(sender, commandLabel, args));
+            return true;
+        }
+
+        int subcommand = resolveSubcommand(args);
+        String commandKey = subcommand < 0 ? defaultKey : subcommandKeys[subcommand];
+
+        // Disabled Command Guard Statement
+        if(!InfrastructureCoreAPI.getConfigService().get().isCommandEnabled(commandKey)) {
+            sender.sendMessage(ChatColor.RED + "Error: " + InfrastructureCoreAPI.getMessageService().format(sender, MessageKey.COMMAND_DISABLED));
+            return true;
+        }
+
+        commandStallDetector.enter(commandKey);
+        long start = System.nanoTime();
+
+        try {
+            return directCommandDispatcher.tryDispatch(sender, args) || delegate.execute(sender, commandLabel, args);
+        } finally {
+            long duration = System.nanoTime() - start;
+            commandStallDetector.exit();
+            (subcommand < 0 ? defaultHistogram : subcommandHistograms[subcommand]).record(duration);
+        }
+    }
+
+    /**
+     * Delegates tab completion to the wrapped command.
+     *
+     * @param sender The Command Sender.
+     * @param alias The alias being completed.
+     * @param args The command arguments.
+     * @return The completions of the wrapped command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
+        return delegate.tabComplete(sender, alias, args);
+    }
+
+    /**
+     * Delegates silent permission tests to the wrapped command.
+     *
+     * @param target The Command Sender to test.
+     * @return If the Command Sender may use the wrapped command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public boolean testPermissionSilent(CommandSender target) {
+        return delegate.testPermissionSilent(target);
+    }
+
+    private int resolveSubcommand(String[] args) {
+        // Default Subcommand Guard Statement
+        if(args.length == 0) return -1;
+
+        // Prefer the longest subcommand whose words lead the arguments.
+        int resolved = -1;
+        for(int index = 0; index < subcommandWords.length; index++) {
+            String[] words = subcommandWords[index];
+            if(words.length > args.length || (resolved >= 0 && words.length <= subcommandWords[resolved].length)) continue;
+
+            int word = 0;
+            while(word < words.length && words[word].equalsIgnoreCase(args[word])) word++;
+            if(word == words.length) resolved = index;
+        }
+
+        return resolved;
+    }
+}
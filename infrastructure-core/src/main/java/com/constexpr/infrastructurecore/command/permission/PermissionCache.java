@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.permission;
+
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-Player Permission Decision Cache for InfrastructureCommand checks.
+ * <p>
+ * Permission nodes are interned to small indices on first use, and every
+ * InfrastructurePlayer holds PermissionDecisions, two bitsets over those
+ * indices, so a repeated check costs a map lookup and two array reads instead
+ * of a walk over the Player's attachments and inherited groups.
+ * <p>
+ * Bukkit has no event for permission recalculation, so decisions are replaced
+ * when any of the following is true:
+ * <ul>
+ *     <li>The Player joined or quit, which creates a fresh InfrastructurePlayer.</li>
+ *     <li>The Player's operator status differs from when the decisions were made.</li>
+ *     <li>invalidate() or invalidateAll() was called, e.g. on a world change or by a permission plugin.</li>
+ *     <li>The decisions are older than the time-to-live.</li>
+ * </ul>
+ * Nodes beyond MAX_NODES and non-Player senders are always checked directly.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PermissionCache {
+    /**
+     * The Maximum Number of Interned Permission Nodes.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int MAX_NODES = 256;
+
+    /**
+     * The Default Time-To-Live of a Player's Decisions.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final long DEFAULT_TTL_MILLIS = 5000L;
+
+    private final ConcurrentHashMap<String, Integer> nodeIndices = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextNodeIndex = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private volatile long epoch;
+
+    private volatile long ttlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TTL_MILLIS);
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PermissionCache() { }
+
+    /**
+     * Checks a permission node, answering from the sender's cached decisions where possible.
+     *
+     * @param sender The Command Sender to check.
+     * @param node The permission node.
+     * @return If the sender has the permission node.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean hasPermission(CommandSender sender, String node) {
+        return hasPermission(sender, node, true);
+    }
+
+    /**
+     * Checks a permission node, answering from the sender's cached decisions where possible.
+     * <p>
+     * Checks outside of command dispatch, such as the per-event perk checks of
+     * listeners, pass false so they do not skew the command hit rate.
+     *
+     * @param sender The Command Sender to check.
+     * @param node The permission node.
+     * @param counted If the check counts towards the hit and miss counts.
+     * @return If the sender has the permission node.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean hasPermission(CommandSender sender, String node, boolean counted) {
+        // Non-Player Guard Statement
+        if(!(sender instanceof Player)) return sender.hasPermission(node);
+
+        Player player = (Player) sender;
+        int nodeIndex = intern(node);
+
+        // Node Capacity Guard Statement
+        if(nodeIndex < 0) {
+            if(counted) misses.increment();
+            return player.hasPermission(node);
+        }
+
+        // Replace the decisions of the Player if they went stale.
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(player);
+        PermissionDecisions permissionDecisions = infrastructurePlayer.getPermissionDecisions();
+        boolean op = player.isOp();
+        long now = System.nanoTime();
+        if(permissionDecisions == null || permissionDecisions.isStale(op, epoch, now, ttlNanos)) {
+            permissionDecisions = new PermissionDecisions(MAX_NODES, op, epoch, now);
+            infrastructurePlayer.setPermissionDecisions(permissionDecisions);
+        }
+
+        int decision = permissionDecisions.get(nodeIndex);
+        if(decision != PermissionDecisions.UNRESOLVED) {
+            if(counted) hits.increment();
+            return decision == PermissionDecisions.GRANTED;
+        }
+
+        // Resolve the node through Bukkit once and remember the result.
+        if(counted) misses.increment();
+        boolean granted = player.hasPermission(node);
+        permissionDecisions.put(nodeIndex, granted);
+        return granted;
+    }
+
+    /**
+     * Gets or assigns the index of a permission node.
+     *
+     * @param node The permission node.
+     * @return The index of the node, or -1 if MAX_NODES nodes are already interned.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int intern(String node) {
+        Integer nodeIndex = nodeIndices.get(node);
+        if(nodeIndex != null) return nodeIndex < MAX_NODES ? nodeIndex : -1;
+
+        // Node Capacity Guard Statement
+        if(nextNodeIndex.get() >= MAX_NODES) return -1;
+
+        nodeIndex = nodeIndices.computeIfAbsent(node, key -> nextNodeIndex.getAndIncrement());
+        return nodeIndex < MAX_NODES ? nodeIndex : -1;
+    }
+
+    /**
+     * Drops the cached decisions of one Player.
+     *
+     * @param player The Player whose permissions changed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void invalidate(Player player) {
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(player.getUniqueId());
+        if(infrastructurePlayer != null) infrastructurePlayer.setPermissionDecisions(null);
+    }
+
+    /**
+     * Drops the cached decisions of every Player, e.g. after a permission plugin reloaded its groups.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void invalidateAll() {
+        epoch++;
+    }
+
+    /**
+     * Standard Getter for the Hit Count.
+     *
+     * @return The number of checks answered from cached decisions.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Standard Getter for the Miss Count.
+     *
+     * @return The number of checks that were resolved through Bukkit.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Standard Getter for the Time-To-Live.
+     *
+     * @return The maximum age of a Player's decisions, in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    /**
+     * Standard Setter for the Time-To-Live.
+     *
+     * @param ttlMillis The maximum age of a Player's decisions, in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, ttlMillis));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.command.permission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * PermissionDecisions holds the cached permission decisions of one Player.
+ * <p>
+ * Decisions are two bitsets indexed by the interned permission node: one bit
+ * that says whether the node has been resolved and one that holds the result.
+ * The result bit is always published before the resolved bit, so a reader that
+ * sees a node as resolved also sees its result. A set of decisions is never
+ * cleared; it is replaced as a whole when it goes stale.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class PermissionDecisions {
+    /**
+     * Decision of a node that has not been resolved yet.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int UNRESOLVED = -1;
+
+    /**
+     * Decision of a node that the Player does not have.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int DENIED = 0;
+
+    /**
+     * Decision of a node that the Player has.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int GRANTED = 1;
+
+    private final AtomicLongArray resolved;
+
+    private final AtomicLongArray granted;
+
+    private final boolean op;
+
+    private final long epoch;
+
+    private final long createdNanos;
+
+    /**
+     * Constructor for an empty set of PermissionDecisions.
+     *
+     * @param nodeCapacity The number of interned nodes the decisions can hold.
+     * @param op If the Player was an operator when the decisions were created.
+     * @param epoch The invalidation epoch of the PermissionCache at creation.
+     * @param createdNanos The System.nanoTime() of creation.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    PermissionDecisions(int nodeCapacity, boolean op, long epoch, long createdNanos) {
+        int words = (nodeCapacity + Long.SIZE - 1) / Long.SIZE;
+
+        this.resolved = new AtomicLongArray(words);
+        this.granted = new AtomicLongArray(words);
+        this.op = op;
+        this.epoch = epoch;
+        this.createdNanos = createdNanos;
+    }
+
+    /**
+     * Gets the cached decision of an interned node.
+     *
+     * @param nodeIndex The index of the interned node.
+     * @return GRANTED, DENIED, or UNRESOLVED.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int get(int nodeIndex) {
+        long bit = 1L << nodeIndex;
+
+        // Unresolved Node Guard Statement
+        if((resolved.get(nodeIndex >>> 6) & bit) == 0) return UNRESOLVED;
+
+        return (granted.get(nodeIndex >>> 6) & bit) != 0 ? GRANTED : DENIED;
+    }
+
+    /**
+     * Caches the decision of an interned node.
+     *
+     * @param nodeIndex The index of the interned node.
+     * @param decision If the Player has the node.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void put(int nodeIndex, boolean decision) {
+        long bit = 1L << nodeIndex;
+
+        // Publish the result before marking the node as resolved.
+        if(decision) granted.getAndAccumulate(nodeIndex >>> 6, bit, (word, mask) -> word | mask);
+        resolved.getAndAccumulate(nodeIndex >>> 6, bit, (word, mask) -> word | mask);
+    }
+
+    /**
+     * Checks if the decisions must be replaced before they are read again.
+     *
+     * @param op If the Player is an operator now.
+     * @param epoch The current invalidation epoch of the PermissionCache.
+     * @param now The current System.nanoTime().
+     * @param ttlNanos The maximum age of the decisions.
+     * @return If the decisions are stale.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isStale(boolean op, long epoch, long now, long ttlNanos) {
+        return this.op != op || this.epoch != epoch || now - createdNanos > ttlNanos;
+    }
+}
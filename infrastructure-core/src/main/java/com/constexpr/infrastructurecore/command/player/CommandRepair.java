@@ -26,13 +26,24 @@ package com.constexpr.infrastructurecore.command.player;
 
 import co.aikar.commands.annotation.*;
 import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditAction;
+import com.constexpr.infrastructurecore.audit.AuditResult;
 import com.constexpr.infrastructurecore.command.InfrastructureCommand;
 import com.constexpr.infrastructurecore.command.InfrastructureCommandManager;
+import com.constexpr.infrastructurecore.message.MessageKey;
+import com.constexpr.infrastructurecore.message.MessageService;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import com.constexpr.infrastructurecore.utilities.player.item.InventoryDiff;
+import com.constexpr.infrastructurecore.utilities.player.item.InventorySnapshot;
 import com.constexpr.infrastructurecore.utilities.player.item.ItemUtilities;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 
+import java.util.List;
+
 /**
  * Command Class for the /repair command.
  *
@@ -54,13 +65,24 @@ public class CommandRepair extends InfrastructureCommand {
     @Subcommand("hand")
     @Syntax("<+tag> [hand/all]")
     @CommandPermission("infrastructure.repair")
+    @Conditions("ratelimit:capacity=3,millis=1000")
     @Description("Repair one or more items.")
     public static void onRepairHandCommand(Player player) {
+        // Owning Thread Guard Statement
+        if(!isOnOwningThread(player)) {
+            redispatch(player, player, () -> onRepairHandCommand(player));
+            return;
+        }
+
+        // Record the execution on the Player's session.
+        recordExecution(player, InfrastructurePlayer.SessionCounter.REPAIRS);
+
         // Get the ItemStack in the Player's Main Hand.
         ItemStack itemStack = player.getInventory().getItemInMainHand();
 
         // Perform the repairing operation on the ItemStack and get the operation exit code.
         ItemUtilities.ItemRepairExitValue exitValue = ItemUtilities.repairItem(itemStack);
+        audit(player, AuditAction.REPAIR_HAND, AuditResult.of(exitValue));
 
         // Report Exit Code back to the player.
         handleHandRepairCommandResult(player, itemStack, exitValue);
@@ -74,20 +96,176 @@ public class CommandRepair extends InfrastructureCommand {
      * @since 1.0.0-ALPHA
      */
     @Subcommand("all")
-    @Syntax("<+tag> [hand/all]")
+    @Syntax("<+tag> [hand/all] [--preview]")
     @CommandPermission("infrastructure.repair")
+    @Conditions("cooldown:millis=5000")
     @Description("Repair one or more items.")
     public static void onRepairAllCommand(Player player) {
+        // Owning Thread Guard Statement
+        if(!isOnOwningThread(player)) {
+            redispatch(player, player, () -> onRepairAllCommand(player));
+            return;
+        }
+
+        // Record the execution on the Player's session.
+        recordExecution(player, InfrastructurePlayer.SessionCounter.REPAIRS);
+
         // Get the PlayerInventory object from the Player.
         PlayerInventory playerInventory = player.getInventory();
 
         // Perform the repairing operation on the PlayerInventory and get the operation exit code.
         ItemUtilities.ItemRepairExitValue exitValue = ItemUtilities.repairItemCollection(playerInventory);
+        audit(player, AuditAction.REPAIR_ALL, AuditResult.of(exitValue));
 
         // Report Exit Code back to the player.
         handleAllRepairCommandResult(player, exitValue);
     }
 
+    /**
+     * Subcommand Handler for the all --preview subcommand of repair.
+     * <p>
+     * Compares a snapshot of the PlayerInventory with the snapshot a repair
+     * would produce and reports the differing slots without writing anything.
+     *
+     * @param player The Player Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("all --preview")
+    @Syntax("<+tag>")
+    @CommandPermission("infrastructure.repair")
+    @Conditions("ratelimit:capacity=3,millis=1000")
+    @Description("Show what /repair all would change.")
+    public static void onRepairAllPreviewCommand(Player player) {
+        // Owning Thread Guard Statement
+        if(!isOnOwningThread(player)) {
+            redispatch(player, player, () -> onRepairAllPreviewCommand(player));
+            return;
+        }
+
+        // Diff the current inventory against its predicted repaired state.
+        InventorySnapshot snapshot = InventorySnapshot.capture(player.getInventory(), false);
+        InventoryDiff diff = snapshot.diff(snapshot.withRepairs());
+
+        // Nothing To Repair Guard Statement
+        MessageService messageService = InfrastructureCoreAPI.getMessageService();
+        if(diff.isEmpty()) {
+            messageService.send(player, MessageKey.REPAIR_PREVIEW_NONE);
+            return;
+        }
+
+        // Report one line per slot that would be repaired.
+        messageService.send(player, MessageKey.REPAIR_PREVIEW_HEADER, Integer.toString(diff.size()));
+        for(int change = 0; change < diff.size(); change++) {
+            int slot = diff.getSlot(change);
+            messageService.send(player, MessageKey.REPAIR_PREVIEW_SLOT, Integer.toString(slot),
+                    messageService.getMaterialName(player, snapshot.getMaterial(slot)), Integer.toString(snapshot.getDamage(slot)));
+        }
+    }
+
+    /**
+     * Subcommand Handler for the containers subcommand of repair.
+     *
+     * @param player The Player Command Sender.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Subcommand("containers")
+    @Syntax("<+tag> [hand/all/containers]")
+    @CommandPermission("infrastructure.repair.containers")
+    @Conditions("cooldown:millis=5000")
+    @Description("Repair the items inside your shulker boxes and ender chest.")
+    public static void onRepairContainersCommand(Player player) {
+        // Owning Thread Guard Statement
+        if(!isOnOwningThread(player)) {
+            redispatch(player, player, () -> onRepairContainersCommand(player));
+            return;
+        }
+
+        // Record the execution on the Player's session.
+        recordExecution(player, InfrastructurePlayer.SessionCounter.REPAIRS);
+
+        // Repair the shulker boxes carried in the PlayerInventory.
+        MessageService messageService = InfrastructureCoreAPI.getMessageService();
+        int containers = repairContainerItems(player, player.getInventory(), messageService.format(player, MessageKey.REPAIR_CONTAINER_INVENTORY));
+
+        // Repair the Ender Chest in bulk, then the shulker boxes stored inside it.
+        Inventory enderChest = player.getEnderChest();
+        List<ItemStack> enderChestItems = ItemUtilities.getStoredItems(enderChest.getContents());
+        String enderChestName = messageService.format(player, MessageKey.REPAIR_CONTAINER_ENDER_CHEST);
+        ItemUtilities.ItemRepairExitValue enderChestExitValue = enderChestItems.isEmpty()
+                ? ItemUtilities.ItemRepairExitValue.AIR_ITEM : ItemUtilities.repairItemCollection(enderChestItems);
+        handleContainerRepairCommandResult(player, enderChestName, enderChestExitValue);
+        containers += repairContainerItems(player, enderChest, enderChestName);
+
+        // Only count the Ender Chest itself when its pass repaired something.
+        if(enderChestExitValue == ItemUtilities.ItemRepairExitValue.SUCCESS
+                || enderChestExitValue == ItemUtilities.ItemRepairExitValue.PARTIAL_SUCCESS) containers++;
+
+        // Report the number of repaired containers back to the player.
+        audit(player, AuditAction.REPAIR_CONTAINERS, containers == 0 ? AuditResult.NOTHING_CHANGED : AuditResult.SUCCESS);
+        messageService.send(player, MessageKey.REPAIR_CONTAINER_SUMMARY, Integer.toString(containers));
+    }
+
+    /**
+     * Repairs every container item stored in an inventory and reports each outcome.
+     *
+     * @param player The Player Command Sender.
+     * @param inventory The inventory holding container items.
+     * @param location The name of the inventory used in reports.
+     * @return The number of container items found.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static int repairContainerItems(Player player, Inventory inventory, String location) {
+        ItemStack[] contents = inventory.getContents();
+        int containers = 0;
+
+        for(int slot = 0; slot < contents.length; slot++) {
+            ItemStack itemStack = contents[slot];
+            if(!ItemUtilities.isContainerItem(itemStack)) continue;
+
+            // Repair the container in one pass and store the updated ItemStack back.
+            ItemUtilities.ItemRepairExitValue exitValue = ItemUtilities.repairContainerItem(itemStack);
+            inventory.setItem(slot, itemStack);
+            containers++;
+
+            MessageService messageService = InfrastructureCoreAPI.getMessageService();
+            handleContainerRepairCommandResult(player, messageService.format(player, MessageKey.REPAIR_CONTAINER_SLOT,
+                    messageService.getMaterialName(player, itemStack.getType()), location, Integer.toString(slot)), exitValue);
+        }
+
+        return containers;
+    }
+
+    /**
+     * Refactored I/O Handler for Operation Status Reporting.
+     *
+     * @param player The Player Command Sender.
+     * @param container The name of the Operated Container.
+     * @param exitValue The Result of the Operation.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static void handleContainerRepairCommandResult(Player player, String container, ItemUtilities.ItemRepairExitValue exitValue) {
+        MessageService messageService = InfrastructureCoreAPI.getMessageService();
+
+        switch(exitValue) {
+            case SUCCESS:
+                messageService.send(player, MessageKey.REPAIR_CONTAINER_SUCCESS, container);
+                break;
+            case PARTIAL_SUCCESS:
+                messageService.send(player, MessageKey.REPAIR_CONTAINER_PARTIAL, container);
+                break;
+            case AIR_ITEM:
+                messageService.send(player, MessageKey.REPAIR_CONTAINER_AIR, container);
+                break;
+            case ILLEGAL_ITEM:
+                messageService.send(player, MessageKey.REPAIR_CONTAINER_ILLEGAL, container);
+                break;
+        }
+    }
+
     /**
      * Refactored I/O Handler for Operation Status Reporting.
      *
@@ -98,16 +276,18 @@ public class CommandRepair extends InfrastructureCommand {
      * @since 1.0.0-ALPHA
      */
     private static void handleHandRepairCommandResult(Player player, ItemStack itemStack, ItemUtilities.ItemRepairExitValue exitValue) {
+        MessageService messageService = InfrastructureCoreAPI.getMessageService();
+
         switch(exitValue) {
             case SUCCESS:
             case PARTIAL_SUCCESS:
-                player.sendMessage("Successfully Repaired Your" + itemStack.getType().toString() + ".");
+                messageService.send(player, MessageKey.REPAIR_HAND_SUCCESS, messageService.getMaterialName(player, itemStack.getType()));
                 break;
             case AIR_ITEM:
-                player.sendMessage("You cannot repair air!");
+                messageService.send(player, MessageKey.REPAIR_HAND_AIR);
                 break;
             case ILLEGAL_ITEM:
-                player.sendMessage("You cannot repair that item!");
+                messageService.send(player, MessageKey.REPAIR_HAND_ILLEGAL);
                 break;
         }
     }
@@ -121,18 +301,20 @@ public class CommandRepair extends InfrastructureCommand {
      * @since 1.0.0-ALPHA
      */
     private static void handleAllRepairCommandResult(Player player, ItemUtilities.ItemRepairExitValue exitValue) {
+        MessageService messageService = InfrastructureCoreAPI.getMessageService();
+
         switch(exitValue) {
             case SUCCESS:
-                player.sendMessage("Successfully Repaired Your Items.");
+                messageService.send(player, MessageKey.REPAIR_ALL_SUCCESS);
                 break;
             case PARTIAL_SUCCESS:
-                player.sendMessage("Successfully Repaired Most of Your Items.");
+                messageService.send(player, MessageKey.REPAIR_ALL_PARTIAL);
                 break;
             case AIR_ITEM:
-                player.sendMessage("You cannot repair air!");
+                messageService.send(player, MessageKey.REPAIR_ALL_AIR);
                 break;
             case ILLEGAL_ITEM:
-                player.sendMessage("You cannot repair that item!");
+                messageService.send(player, MessageKey.REPAIR_ALL_ILLEGAL);
                 break;
         }
     }
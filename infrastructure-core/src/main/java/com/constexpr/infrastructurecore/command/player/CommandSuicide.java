@@ -1,7 +1,12 @@
 package com.constexpr.infrastructurecore.command.player;
 
 import co.aikar.commands.annotation.*;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditAction;
+import com.constexpr.infrastructurecore.audit.AuditResult;
 import com.constexpr.infrastructurecore.command.InfrastructureCommand;
+import com.constexpr.infrastructurecore.message.MessageKey;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
 import org.bukkit.entity.Player;
 
 /**
@@ -23,12 +28,23 @@ public class CommandSuicide extends InfrastructureCommand {
     @CatchUnknown
     @Syntax("<+tag>")
     @CommandPermission("infrastructure.suicide")
+    @Conditions("cooldown:millis=3000")
     @Description("Causes you to perish.")
     public static void onSuicideCommand(Player player, String[] args) {
+        // Owning Thread Guard Statement
+        if(!isOnOwningThread(player)) {
+            redispatch(player, player, () -> onSuicideCommand(player, args));
+            return;
+        }
+
+        // Record the execution on the Player's session.
+        recordExecution(player, InfrastructurePlayer.SessionCounter.SUICIDES);
+
         // Perform the killing operation on the Player Command Sender.
         player.setHealth(0.0);
+        audit(player, AuditAction.SUICIDE, AuditResult.SUCCESS);
 
         // Report operation back to the player.
-        player.sendMessage("Successfully Killed " + player.getName() + ".");
+        InfrastructureCoreAPI.getMessageService().send(player, MessageKey.SUICIDE_SUCCESS, player.getName());
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.command.ratelimit;
+
+import co.aikar.commands.BukkitCommandIssuer;
+import co.aikar.commands.CommandManager;
+import co.aikar.commands.ConditionContext;
+import co.aikar.commands.ConditionFailedException;
+import co.aikar.commands.PaperCommandManager;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.audit.AuditResult;
+import com.constexpr.infrastructurecore.message.MessageKey;
+import com.constexpr.infrastructurecore.storage.PlayerRecord;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.command.CommandSender;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-Free Per-Player Command Rate Limiter.
+ * <p>
+ * Handlers declare their limits with ACF conditions, which ACF enforces before
+ * the handler body runs:
+ * <ul>
+ *     <li>{@code @Conditions("cooldown:millis=5000")} allows one use every 5 seconds.</li>
+ *     <li>{@code @Conditions("ratelimit:capacity=3,millis=1000")} is a token bucket of 3
+ *     uses that refills one use every second.</li>
+ * </ul>
+ * Both are implemented with the generic cell rate algorithm, so the whole state
+ * of a bucket is a single timestamp held in an AtomicLong on the Player's
+ * InfrastructurePlayer. Buckets refill by comparing against the clock; no task
+ * is ever scheduled, and only the owning Player ever touches their buckets.
+ * <p>
+ * Every taken use also stores the bucket's refill time as a cooldown expiry in
+ * the Player's PlayerRecord, and a session's first use of a bucket restores it
+ * from there, so relogging or switching servers does not reset a cooldown.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class CommandRateLimiter {
+    /**
+     * ACF Condition Identifier for fixed cooldowns.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String COOLDOWN_CONDITION = "cooldown";
+
+    /**
+     * ACF Condition Identifier for token buckets.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String RATE_LIMIT_CONDITION = "ratelimit";
+
+    /**
+     * Sentinel for a bucket that has never been used.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final long UNUSED_BUCKET = Long.MIN_VALUE;
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandRateLimiter() { }
+
+    /**
+     * Registers the cooldown and rate limit conditions with an ACF Command Manager.
+     *
+     * @param commandManager The ACF Paper Command Manager.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void registerConditions(PaperCommandManager commandManager) {
+        commandManager.getCommandConditions().addCondition(COOLDOWN_CONDITION,
+                context -> enforce(context, 1));
+        commandManager.getCommandConditions().addCondition(RATE_LIMIT_CONDITION,
+                context -> enforce(context, context.getConfigValue("capacity", 1)));
+    }
+
+    /**
+     * Attempts to take one use from a Player's bucket for a command.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer executing the command.
+     * @param commandKey The key of the command, e.g. "repair all".
+     * @param capacity The maximum number of uses available at once.
+     * @param intervalNanos The time it takes for one use to become available again.
+     * @return 0 if the use was taken, otherwise the nanoseconds until a use is available.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long tryAcquire(InfrastructurePlayer infrastructurePlayer, String commandKey, int capacity, long intervalNanos) {
+        AtomicLong bucket = infrastructurePlayer.getRateLimitBucket(commandKey);
+        long tolerance = (capacity - 1) * intervalNanos;
+
+        // Restore a cooldown from an earlier session on the first use of this session.
+        PlayerRecord playerRecord = infrastructurePlayer.getPlayerRecord();
+        if(playerRecord != null && bucket.get() == UNUSED_BUCKET) restore(playerRecord, commandKey, bucket);
+
+        while(true) {
+            long now = System.nanoTime();
+            long state = bucket.get();
+
+            // The theoretical arrival time of the next use, never earlier than now.
+            long arrival = state == UNUSED_BUCKET || state - now < 0 ? now : state;
+
+            // Reject uses that arrive before the burst tolerance allows.
+            long wait = arrival - tolerance - now;
+            if(wait > 0) return wait;
+
+            // Publish the next arrival time, retrying if the bucket changed concurrently.
+            if(bucket.compareAndSet(state, arrival + intervalNanos)) {
+                if(playerRecord != null) persist(playerRecord, commandKey, arrival + intervalNanos - now);
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Formats the message that refuses a command until a use is available.
+     *
+     * @param sender The Command Sender that was refused.
+     * @param waitNanos The nanoseconds until a use is available.
+     * @return The localized refusal, rounded up to whole seconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String formatRefusal(CommandSender sender, long waitNanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+
+        return InfrastructureCoreAPI.getMessageService().format(sender, MessageKey.COMMAND_COOLDOWN, Long.toString(seconds));
+    }
+
+    private void restore(PlayerRecord playerRecord, String commandKey, AtomicLong bucket) {
+        long remainingMillis = playerRecord.getCooldownExpiry(commandKey) - System.currentTimeMillis();
+
+        // Expired Cooldown Guard Statement
+        if(remainingMillis <= 0) return;
+
+        bucket.compareAndSet(UNUSED_BUCKET, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    private void persist(PlayerRecord playerRecord, String commandKey, long refillNanos) {
+        // Round up, so a restored cooldown never ends early.
+        long refillMillis = TimeUnit.NANOSECONDS.toMillis(refillNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+
+        playerRecord.setCooldownExpiry(commandKey, System.currentTimeMillis() + refillMillis);
+        InfrastructureCoreAPI.getPlayerDataStore().markDirty(playerRecord);
+    }
+
+    private void enforce(ConditionContext<BukkitCommandIssuer> context, int capacity) {
+        BukkitCommandIssuer issuer = context.getIssuer();
+
+        // Non-Player Command Sender Guard Statement
+        if(!issuer.isPlayer()) return;
+
+        // Identify the command being executed, e.g. "repair all".
+        String commandKey = CommandManager.getCurrentCommandOperationContext().getRegisteredCommand().getCommand();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(context.getConfigValue("millis", 0));
+
+        // Take a use, or refuse the command before the handler runs.
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(issuer.getPlayer());
+        long wait = tryAcquire(infrastructurePlayer, commandKey, Math.max(1, capacity), intervalNanos);
+
+        // Rate Limited Guard Statement, which audits the refusal.
+        if(wait > 0) {
+            InfrastructureCoreAPI.getAuditLog().recordRefusal(issuer.getUniqueId(), issuer.getPlayer().getName(), commandKey, AuditResult.REFUSED_COOLDOWN);
+            throw new ConditionFailedException(formatRefusal(issuer.getIssuer(), wait));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.config;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * ConfigService publishes the current InfrastructureConfig snapshot.
+ * <p>
+ * The snapshot is held in a single volatile reference, so get() is one
+ * volatile read from any thread. Reloading parses config.yml into a complete
+ * new snapshot before swapping it in, so a reader sees either the old or the
+ * new snapshot and never a mix of both; a file that fails to parse leaves the
+ * current snapshot in place. Subsystems that keep their own copy of a value
+ * subscribe to be handed every snapshot that is published.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class ConfigService {
+    /**
+     * The Bundled Resource of the Configuration, copied to the data folder on first start.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String CONFIG_RESOURCE = "config.yml";
+
+    private final Path configFile;
+
+    private final List<Consumer<InfrastructureConfig>> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile InfrastructureConfig config = InfrastructureConfig.DEFAULTS;
+
+    /**
+     * Constructor for a ConfigService.
+     *
+     * @param configFile The path of config.yml, or null to serve only the defaults.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public ConfigService(Path configFile) {
+        this.configFile = configFile;
+    }
+
+    /**
+     * Gets the current snapshot.
+     *
+     * @return The current InfrastructureConfig.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructureConfig get() {
+        return config;
+    }
+
+    /**
+     * Parses config.yml and atomically publishes the new snapshot.
+     * @apiNote safe to call off the server thread.
+     *
+     * @return If the file was found and parsed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized boolean reload() {
+        // Missing Configuration File Guard Statement
+        if(configFile == null || !Files.isRegularFile(configFile)) return false;
+
+        // Parse the whole file before publishing it.
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.loadFromString(new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8));
+        } catch(IOException | InvalidConfigurationException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to load " + configFile + ", keeping the current configuration.", exception);
+            return false;
+        }
+
+        InfrastructureConfig parsedConfig = InfrastructureConfig.parse(configuration);
+        config = parsedConfig;
+
+        for(Consumer<InfrastructureConfig> subscriber : subscribers)
+            subscriber.accept(parsedConfig);
+
+        return true;
+    }
+
+    /**
+     * Hands the current snapshot and every snapshot published afterwards to a subscriber.
+     *
+     * @param subscriber The subscriber, which must be safe to call from any thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void subscribe(Consumer<InfrastructureConfig> subscriber) {
+        subscribers.add(subscriber);
+        subscriber.accept(config);
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.config;
+
+import com.constexpr.infrastructurecore.cleanup.EntityCleanupEngine;
+import com.constexpr.infrastructurecore.command.metrics.CommandStallDetector;
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.scheduler.BulkTaskScheduler;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayerRegistry;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * InfrastructureConfig is an immutable, typed snapshot of config.yml.
+ * <p>
+ * The YAML tree is read once, when the snapshot is parsed, into plain final
+ * fields. Readers never touch a ConfigurationSection, so a snapshot can be read
+ * from any thread without locks, and a reload replaces the snapshot as a whole.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class InfrastructureConfig {
+    /**
+     * The Snapshot used before config.yml is loaded, or without a plugin handle.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final InfrastructureConfig DEFAULTS = new InfrastructureConfig(Collections.emptySet(),
+            BulkTaskScheduler.DEFAULT_TICK_BUDGET_MILLIS, CommandStallDetector.DEFAULT_THRESHOLD_MILLIS,
+            PermissionCache.DEFAULT_TTL_MILLIS, InfrastructurePlayerRegistry.PLAYER_NAME_COMPLETIONS,
+            EntityCleanupEngine.DEFAULT_INTERVAL_SECONDS, EntityCleanupEngine.DEFAULT_ITEM_MIN_AGE_SECONDS,
+            EntityCleanupEngine.DEFAULT_ITEM_THRESHOLD, EntityCleanupEngine.DEFAULT_MOBS_PER_CHUNK,
+            EntityCleanupEngine.DEFAULT_MOB_THRESHOLD);
+
+    private final Set<String> disabledCommands;
+
+    private final long bulkTickBudgetMillis;
+
+    private final long stallThresholdMillis;
+
+    private final long permissionCacheTtlMillis;
+
+    private final int playerNameCompletions;
+
+    private final long cleanupIntervalSeconds;
+
+    private final int cleanupItemMinAgeSeconds;
+
+    private final int cleanupItemThreshold;
+
+    private final int cleanupMobsPerChunk;
+
+    private final int cleanupMobThreshold;
+
+    private InfrastructureConfig(Set<String> disabledCommands, long bulkTickBudgetMillis, long stallThresholdMillis,
+                                 long permissionCacheTtlMillis, int playerNameCompletions, long cleanupIntervalSeconds,
+                                 int cleanupItemMinAgeSeconds, int cleanupItemThreshold, int cleanupMobsPerChunk,
+                                 int cleanupMobThreshold) {
+        this.disabledCommands = disabledCommands;
+        this.bulkTickBudgetMillis = bulkTickBudgetMillis;
+        this.stallThresholdMillis = stallThresholdMillis;
+        this.permissionCacheTtlMillis = permissionCacheTtlMillis;
+        this.playerNameCompletions = playerNameCompletions;
+        this.cleanupIntervalSeconds = cleanupIntervalSeconds;
+        this.cleanupItemMinAgeSeconds = cleanupItemMinAgeSeconds;
+        this.cleanupItemThreshold = cleanupItemThreshold;
+        this.cleanupMobsPerChunk = cleanupMobsPerChunk;
+        this.cleanupMobThreshold = cleanupMobThreshold;
+    }
+
+    /**
+     * Parses a snapshot from the root section of config.yml.
+     * <p>
+     * Missing or out-of-range values fall back to their defaults.
+     *
+     * @param section The root ConfigurationSection.
+     * @return The parsed snapshot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static InfrastructureConfig parse(ConfigurationSection section) {
+        // Command keys are matched in lower case, e.g. "repair all".
+        Set<String> disabledCommands = new HashSet<>();
+        for(String commandKey : section.getStringList("commands.disabled"))
+            disabledCommands.add(commandKey.trim().toLowerCase(Locale.ROOT));
+
+        return new InfrastructureConfig(Collections.unmodifiableSet(disabledCommands),
+                Math.max(1L, section.getLong("limits.bulk-tick-budget-millis", DEFAULTS.bulkTickBudgetMillis)),
+                Math.max(1L, section.getLong("limits.stall-threshold-millis", DEFAULTS.stallThresholdMillis)),
+                Math.max(0L, section.getLong("limits.permission-cache-ttl-millis", DEFAULTS.permissionCacheTtlMillis)),
+                Math.min(InfrastructurePlayerRegistry.PLAYER_NAME_COMPLETIONS,
+                        Math.max(1, section.getInt("limits.player-name-completions", DEFAULTS.playerNameCompletions))),
+                Math.max(0L, section.getLong("cleanup.interval-seconds", DEFAULTS.cleanupIntervalSeconds)),
+                Math.max(0, section.getInt("cleanup.items.min-age-seconds", DEFAULTS.cleanupItemMinAgeSeconds)),
+                Math.max(0, section.getInt("cleanup.items.threshold", DEFAULTS.cleanupItemThreshold)),
+                Math.max(0, section.getInt("cleanup.mobs.max-per-chunk", DEFAULTS.cleanupMobsPerChunk)),
+                Math.max(0, section.getInt("cleanup.mobs.threshold", DEFAULTS.cleanupMobThreshold)));
+    }
+
+    /**
+     * Checks if a command is enabled.
+     * <p>
+     * Disabling a command disables all of its subcommands, e.g. "repair" and
+     * "repair all" both disable "repair all --preview".
+     *
+     * @param commandKey The key of the command, e.g. "repair all".
+     * @return If the command is enabled.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isCommandEnabled(String commandKey) {
+        // No Disabled Commands Fast Path
+        if(disabledCommands.isEmpty()) return true;
+        if(disabledCommands.contains(commandKey)) return false;
+
+        for(int separator = commandKey.indexOf(' '); separator >= 0; separator = commandKey.indexOf(' ', separator + 1))
+            if(disabledCommands.contains(commandKey.substring(0, separator))) return false;
+
+        return true;
+    }
+
+    /**
+     * Standard Getter for the Disabled Commands.
+     *
+     * @return A read-only set of the disabled command keys.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Set<String> getDisabledCommands() {
+        return disabledCommands;
+    }
+
+    /**
+     * Standard Getter for the Bulk Task Tick Budget.
+     *
+     * @return The milliseconds per tick the BulkTaskScheduler may spend.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getBulkTickBudgetMillis() {
+        return bulkTickBudgetMillis;
+    }
+
+    /**
+     * Standard Getter for the Stall Threshold.
+     *
+     * @return The milliseconds after which the CommandStallDetector samples a command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getStallThresholdMillis() {
+        return stallThresholdMillis;
+    }
+
+    /**
+     * Standard Getter for the Permission Cache Time-To-Live.
+     *
+     * @return The maximum age of a Player's cached permission decisions, in milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getPermissionCacheTtlMillis() {
+        return permissionCacheTtlMillis;
+    }
+
+    /**
+     * Standard Getter for the Player Name Completions.
+     *
+     * @return The maximum number of Player names offered per tab completion.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getPlayerNameCompletions() {
+        return playerNameCompletions;
+    }
+
+    /**
+     * Standard Getter for the Cleanup Interval.
+     *
+     * @return The seconds between automatic cleanup runs, or 0 if they are disabled.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getCleanupIntervalSeconds() {
+        return cleanupIntervalSeconds;
+    }
+
+    /**
+     * Standard Getter for the Cleanup Item Minimum Age.
+     *
+     * @return The seconds a ground item must have existed before it is cleared.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCleanupItemMinAgeSeconds() {
+        return cleanupItemMinAgeSeconds;
+    }
+
+    /**
+     * Standard Getter for the Cleanup Item Threshold.
+     *
+     * @return The number of counted ground items that triggers an automatic run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCleanupItemThreshold() {
+        return cleanupItemThreshold;
+    }
+
+    /**
+     * Standard Getter for the Cleanup Mobs per Chunk.
+     *
+     * @return The number of Mobs a chunk keeps when mobs are cleared.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCleanupMobsPerChunk() {
+        return cleanupMobsPerChunk;
+    }
+
+    /**
+     * Standard Getter for the Cleanup Mob Threshold.
+     *
+     * @return The number of counted Mobs that triggers an automatic run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCleanupMobThreshold() {
+        return cleanupMobThreshold;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.listener;
+
+import com.constexpr.infrastructurecore.cleanup.ChunkEntityCounters;
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Listener Class that keeps the per-chunk counters of the EntityCleanupEngine up to date.
+ * <p>
+ * Paper fires the add and remove events for every Entity entering or leaving
+ * a world, including those loaded and unloaded with their chunk, so the
+ * counters follow chunk loading without a scan. The counters are looked up on
+ * every event rather than at registration, so the EntityCleanupEngine is
+ * activated by the first entity event instead of at enable.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class ChunkEntityListener implements Listener {
+    private final Supplier<ChunkEntityCounters> chunkEntityCounters;
+
+    /**
+     * Constructor for a ChunkEntityListener.
+     *
+     * @param chunkEntityCounters Looks up the Chunk Entity Counters to update, activating them on first use.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public ChunkEntityListener(Supplier<ChunkEntityCounters> chunkEntityCounters) {
+        this.chunkEntityCounters = chunkEntityCounters;
+    }
+
+    /**
+     * Counts an Entity added to a World.
+     *
+     * @param event The Entity Add To World Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        chunkEntityCounters.get().add(event.getEntity());
+    }
+
+    /**
+     * Uncounts an Entity removed from a World.
+     *
+     * @param event The Entity Remove From World Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        chunkEntityCounters.get().remove(event.getEntity());
+    }
+
+    /**
+     * Forgets the counters of an unloaded chunk.
+     *
+     * @param event The Chunk Unload Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        chunkEntityCounters.get().clear(event.getChunk());
+    }
+
+    /**
+     * Forgets the counters of an unloaded World.
+     *
+     * @param event The World Unload Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        chunkEntityCounters.get().clear(event.getWorld());
+    }
+}
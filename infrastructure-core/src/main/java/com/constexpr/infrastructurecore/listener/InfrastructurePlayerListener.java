@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.listener;
+
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener Class for the InfrastructurePlayer session lifecycle.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class InfrastructurePlayerListener implements Listener {
+    /**
+     * Default Constructor.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayerListener() { }
+
+    /**
+     * Prefetches the PlayerRecord of an allowed login while still off the server thread.
+     *
+     * @param event The Async Player Pre-Login Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if(event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        InfrastructureCoreAPI.getPlayerDataStore().prefetch(event.getUniqueId());
+    }
+
+    /**
+     * Releases the prefetched PlayerRecord of a login that was denied after the pre-login, e.g. by the whitelist.
+     *
+     * @param event The Player Login Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        // Allowed Login Guard Statement
+        if(event.getResult() == PlayerLoginEvent.Result.ALLOWED) return;
+
+        // Online Player Guard Statement; a denied duplicate connection must not release the running session's record.
+        if(InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(event.getPlayer().getUniqueId()) != null) return;
+
+        InfrastructureCoreAPI.getPlayerDataStore().release(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Registers the InfrastructurePlayer before other plugins handle the join.
+     *
+     * @param event The Player Join Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().register(event.getPlayer());
+
+        // Attach the prefetched PlayerRecord.
+        InfrastructureCoreAPI.getPlayerDataStore().attach(infrastructurePlayer);
+
+        // Apply the state the Player brought from another server.
+        InfrastructureCoreAPI.getSyncService().attach(infrastructurePlayer);
+    }
+
+    /**
+     * Evicts the InfrastructurePlayer after other plugins have handled the quit.
+     *
+     * @param event The Player Quit Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().unregister(event.getPlayer());
+
+        // Broadcast the final state for the server the Player is switching to.
+        if(infrastructurePlayer != null) InfrastructureCoreAPI.getSyncService().publish(infrastructurePlayer);
+
+        // Write the PlayerRecord behind and evict it afterwards.
+        InfrastructureCoreAPI.getPlayerDataStore().release(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drops the cached permission decisions of a Player that changed worlds, as permissions may be per-world.
+     *
+     * @param event The Player Changed World Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        InfrastructureCoreAPI.getInfrastructureCommandManager().getPermissionCache().invalidate(event.getPlayer());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.listener;
+
+import com.constexpr.infrastructurecore.command.permission.PermissionCache;
+import com.constexpr.infrastructurecore.utilities.player.item.DamageableMaterialIndex;
+import com.constexpr.infrastructurecore.utilities.player.item.ItemUtilities;
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Listener Class for the "keep repaired" perk, whose holders' items never lose durability.
+ * <p>
+ * PlayerItemDamageEvent fires for every block mined and every hit landed, so
+ * the handler never allocates in the common case: the Material is checked
+ * against the DamageableMaterialIndex, the entitlement is a bit in the
+ * Player's cached PermissionDecisions (checked without counting towards the
+ * command hit rate), and the damage is cancelled rather than undone through
+ * the ItemMeta. Only an item that was already damaged before the perk applied
+ * is repaired once through ItemUtilities.setItemDurability().
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class KeepRepairedListener implements Listener {
+    /**
+     * The Permission Node that grants the perk.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String KEEP_REPAIRED_PERMISSION = "infrastructure.keeprepaired";
+
+    private final PermissionCache permissionCache;
+
+    /**
+     * Constructor for a KeepRepairedListener.
+     *
+     * @param permissionCache The Permission Cache holding the entitlement bits.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public KeepRepairedListener(PermissionCache permissionCache) {
+        this.permissionCache = permissionCache;
+    }
+
+    /**
+     * Cancels item damage for Players entitled to the perk.
+     *
+     * @param event The Player Item Damage Event.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerItemDamage(PlayerItemDamageEvent event) {
+        ItemStack itemStack = event.getItem();
+        Material material = itemStack.getType();
+
+        // Undamageable Material Guard Statement
+        if(DamageableMaterialIndex.isIndexed(material) && !DamageableMaterialIndex.hasDamageableMeta(material)) return;
+
+        // Entitlement Guard Statement
+        if(!permissionCache.hasPermission(event.getPlayer(), KEEP_REPAIRED_PERMISSION, false)) return;
+
+        event.setCancelled(true);
+
+        // Repair damage taken before the perk applied; undamaged items return before the ItemMeta is touched.
+        ItemUtilities.setItemDurability(itemStack, 0);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.message;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MessageCatalog holds the parsed MessageTemplates and material names of one locale.
+ * <p>
+ * A catalog is never modified after it is built; swapping a locale replaces
+ * the whole catalog. Material display names are formatted on first use and
+ * cached by Material ordinal.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class MessageCatalog {
+    private final String locale;
+
+    private final EnumMap<MessageKey, MessageTemplate> templates = new EnumMap<>(MessageKey.class);
+
+    private final Map<String, String> materialOverrides = new HashMap<>();
+
+    private final String[] materialNames = new String[Material.values().length];
+
+    /**
+     * Builds a MessageCatalog from a locale file, falling back to the English defaults.
+     *
+     * @param locale The locale of the catalog, e.g. "en_us".
+     * @param section The parsed locale file, or null for the English defaults.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public MessageCatalog(String locale, ConfigurationSection section) {
+        this.locale = locale;
+
+        // Parse every template once.
+        for(MessageKey messageKey : MessageKey.values()) {
+            String rawTemplate = section == null ? null : section.getString(messageKey.getPath());
+            templates.put(messageKey, MessageTemplate.parse(messageKey, rawTemplate == null ? messageKey.getDefaultTemplate() : rawTemplate));
+        }
+
+        // Collect translated material names, e.g. "material.diamond_pickaxe".
+        ConfigurationSection materials = section == null ? null : section.getConfigurationSection("material");
+        if(materials != null)
+            for(String key : materials.getKeys(false))
+                materialOverrides.put(key.toLowerCase(Locale.ROOT), materials.getString(key));
+    }
+
+    /**
+     * Standard Getter for the Locale of the MessageCatalog.
+     *
+     * @return The Locale, e.g. "en_us".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * Standard Getter for the MessageTemplate of a MessageKey.
+     *
+     * @param messageKey The MessageKey.
+     * @return The parsed MessageTemplate.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public MessageTemplate getTemplate(MessageKey messageKey) {
+        return templates.get(messageKey);
+    }
+
+    /**
+     * Gets the display name of a Material in this locale.
+     *
+     * @param material The Material.
+     * @return The display name, e.g. "Diamond Pickaxe".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getMaterialName(Material material) {
+        // Racy single-check caching is safe because Strings are immutable and the result is idempotent.
+        String materialName = materialNames[material.ordinal()];
+        if(materialName == null) {
+            materialName = formatMaterialName(material);
+            materialNames[material.ordinal()] = materialName;
+        }
+
+        return materialName;
+    }
+
+    private String formatMaterialName(Material material) {
+        String key = material.name().toLowerCase(Locale.ROOT);
+
+        // Locale Override Guard Statement
+        String override = materialOverrides.get(key);
+        if(override != null) return override;
+
+        // Title-case the words of the Material name.
+        StringBuilder builder = new StringBuilder(key.length());
+        boolean capitalize = true;
+        for(char character : key.toCharArray()) {
+            if(character == '_') {
+                builder.append(' ');
+                capitalize = true;
+            } else {
+                builder.append(capitalize ? Character.toUpperCase(character) : character);
+                capitalize = false;
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.message;
+
+/**
+ * MessageKey enumerates every localizable InfrastructureCore message.
+ * <p>
+ * Each key carries its locale file path, its English default and the names of
+ * its placeholders, in the order their values are passed when formatting.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public enum MessageKey {
+    /**
+     * Reply to a successful /repair hand.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_HAND_SUCCESS("repair.hand.success", "Successfully Repaired Your {item}.", "item"),
+
+    /**
+     * Reply to /repair hand with an empty hand.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_HAND_AIR("repair.hand.air", "You cannot repair air!"),
+
+    /**
+     * Reply to /repair hand with an unrepairable item.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_HAND_ILLEGAL("repair.hand.illegal", "You cannot repair that item!"),
+
+    /**
+     * Reply to a successful /repair all.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_ALL_SUCCESS("repair.all.success", "Successfully Repaired Your Items."),
+
+    /**
+     * Reply to a partially successful /repair all.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_ALL_PARTIAL("repair.all.partial", "Successfully Repaired Most of Your Items."),
+
+    /**
+     * Reply to /repair all with nothing to repair.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_ALL_AIR("repair.all.air", "You cannot repair air!"),
+
+    /**
+     * Reply to /repair all with only unrepairable items.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_ALL_ILLEGAL("repair.all.illegal", "You cannot repair that item!"),
+
+    /**
+     * Header of /repair all --preview.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_PREVIEW_HEADER("repair.preview.header", "/repair all would repair {count} items:", "count"),
+
+    /**
+     * Per-slot line of /repair all --preview.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_PREVIEW_SLOT("repair.preview.slot", "Slot {slot}: {item} ({damage} damage)", "slot", "item", "damage"),
+
+    /**
+     * Reply to /repair all --preview with nothing to repair.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_PREVIEW_NONE("repair.preview.none", "None of your items need repairing."),
+
+    /**
+     * Per-container reply to a successful /repair containers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_SUCCESS("repair.container.success", "{container}: Successfully Repaired All Items.", "container"),
+
+    /**
+     * Per-container reply to a partially successful /repair containers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_PARTIAL("repair.container.partial", "{container}: Successfully Repaired Most Items.", "container"),
+
+    /**
+     * Per-container reply for an empty container.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_AIR("repair.container.air", "{container}: Nothing to repair.", "container"),
+
+    /**
+     * Per-container reply for an item that is not a container.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_ILLEGAL("repair.container.illegal", "{container}: You cannot repair that container!", "container"),
+
+    /**
+     * Name of a container item and the slot it was found in.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_SLOT("repair.container.slot", "{item} ({location} Slot {slot})", "item", "location", "slot"),
+
+    /**
+     * Name of the Player Inventory in container replies.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_INVENTORY("repair.container.inventory", "Inventory"),
+
+    /**
+     * Name of the Ender Chest in container replies.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_ENDER_CHEST("repair.container.ender-chest", "Ender Chest"),
+
+    /**
+     * Summary reply of /repair containers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    REPAIR_CONTAINER_SUMMARY("repair.container.summary", "Checked {count} containers.", "count"),
+
+    /**
+     * Reply to a successful /suicide.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    SUICIDE_SUCCESS("suicide.success", "Successfully Killed {player}.", "player"),
+
+    /**
+     * Refusal of a command that is cooling down or rate limited.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    COMMAND_COOLDOWN("command.cooldown", "You must wait {seconds}s before using that again.", "seconds"),
+
+    /**
+     * Reply to a command that is disabled in config.yml.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    COMMAND_DISABLED("command.disabled", "That command is disabled.");
+
+    private final String path;
+
+    private final String defaultTemplate;
+
+    private final String[] placeholders;
+
+    MessageKey(String path, String defaultTemplate, String... placeholders) {
+        this.path = path;
+        this.defaultTemplate = defaultTemplate;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Standard Getter for the Locale File Path of the MessageKey.
+     *
+     * @return The Locale File Path, e.g. "repair.hand.success".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Standard Getter for the English Default Template of the MessageKey.
+     *
+     * @return The English Default Template.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getDefaultTemplate() {
+        return defaultTemplate;
+    }
+
+    /**
+     * Standard Getter for the Placeholder Names of the MessageKey.
+     *
+     * @return A copy of the Placeholder Names in argument order.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String[] getPlaceholders() {
+        return placeholders.clone();
+    }
+
+    /**
+     * Resolves a placeholder name to its argument index.
+     *
+     * @param placeholder The placeholder name.
+     * @return The argument index, or -1 if the MessageKey has no such placeholder.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    int indexOf(String placeholder) {
+        for(int index = 0; index < placeholders.length; index++)
+            if(placeholders[index].equals(placeholder)) return index;
+
+        return -1;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.message;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * MessageService serves localized InfrastructureCore messages.
+ * <p>
+ * Locale files are read from "lang/&lt;locale&gt;.yml" in the plugin data folder
+ * and parsed into MessageCatalogs at load. Players are answered in their client
+ * locale when a catalog for it exists, and in the default locale otherwise.
+ * Reloading a locale builds a complete new catalog before publishing it, so a
+ * reader sees either the old or the new catalog and never a mix of both.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class MessageService {
+    /**
+     * The Locale used for the console and for Players without a matching catalog.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String DEFAULT_LOCALE = "en_us";
+
+    /**
+     * The Bundled Resource of the Default Locale, copied to the data folder on first start.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String DEFAULT_LOCALE_RESOURCE = "lang/" + DEFAULT_LOCALE + ".yml";
+
+    private static final String LOCALE_FILE_EXTENSION = ".yml";
+
+    private static final Pattern LOCALE_PATTERN = Pattern.compile("[a-z]{2,3}_[a-z]{2,3}");
+
+    private final Path languageDirectory;
+
+    private final Map<String, MessageCatalog> catalogs = new ConcurrentHashMap<>();
+
+    private volatile MessageCatalog defaultCatalog = new MessageCatalog(DEFAULT_LOCALE, null);
+
+    /**
+     * Constructor for a MessageService.
+     *
+     * @param languageDirectory The directory holding the locale files, or null to serve only the English defaults.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public MessageService(Path languageDirectory) {
+        this.languageDirectory = languageDirectory;
+    }
+
+    /**
+     * Loads every locale file in the language directory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void load() {
+        // Missing Language Directory Guard Statement
+        if(languageDirectory == null || !Files.isDirectory(languageDirectory)) return;
+
+        try(DirectoryStream<Path> localeFiles = Files.newDirectoryStream(languageDirectory, "*" + LOCALE_FILE_EXTENSION)) {
+            for(Path localeFile : localeFiles) {
+                String fileName = localeFile.getFileName().toString();
+                reloadLocale(fileName.substring(0, fileName.length() - LOCALE_FILE_EXTENSION.length()));
+            }
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to list the locale files in " + languageDirectory + ".", exception);
+        }
+    }
+
+    /**
+     * Parses a locale file and atomically replaces the catalog of that locale.
+     *
+     * @param locale The locale to reload, e.g. "de_de".
+     * @return If the locale is well-formed and its file was found and parsed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean reloadLocale(String locale) {
+        // Missing Language Directory Guard Statement
+        if(languageDirectory == null) return false;
+
+        // Malformed Locale Guard Statement; the locale names a file, so anything but "xx_yy" could leave the language directory.
+        String normalizedLocale = locale.toLowerCase(Locale.ROOT);
+        if(!LOCALE_PATTERN.matcher(normalizedLocale).matches()) {
+            InfrastructureCorePluginHandle.LOGGER.warning("Refused to load malformed locale \"" + locale + "\", expected e.g. \"de_de\".");
+            return false;
+        }
+
+        // Escaping Locale File Guard Statement
+        Path localeFile = languageDirectory.resolve(normalizedLocale + LOCALE_FILE_EXTENSION).normalize();
+        if(!localeFile.startsWith(languageDirectory.normalize())) return false;
+
+        // Missing Locale File Guard Statement
+        if(!Files.isRegularFile(localeFile)) return false;
+
+        // Parse the whole locale before publishing it.
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.loadFromString(new String(Files.readAllBytes(localeFile), StandardCharsets.UTF_8));
+        } catch(IOException | InvalidConfigurationException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to load locale file " + localeFile + ".", exception);
+            return false;
+        }
+
+        MessageCatalog catalog = new MessageCatalog(normalizedLocale, configuration);
+        catalogs.put(normalizedLocale, catalog);
+        if(DEFAULT_LOCALE.equals(normalizedLocale)) defaultCatalog = catalog;
+
+        return true;
+    }
+
+    /**
+     * Gets the MessageCatalog a Command Sender is answered in.
+     *
+     * @param sender The Command Sender.
+     * @return The catalog of the Player's client locale, or the default catalog.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public MessageCatalog getCatalog(CommandSender sender) {
+        // Non-Player Command Sender Guard Statement
+        if(!(sender instanceof Player)) return defaultCatalog;
+
+        // Client locales are already lower case, e.g. "en_us".
+        String locale = ((Player) sender).getLocale();
+        MessageCatalog catalog = locale == null ? null : catalogs.get(locale);
+        return catalog == null ? defaultCatalog : catalog;
+    }
+
+    /**
+     * Formats a message in a Command Sender's locale.
+     *
+     * @param sender The Command Sender.
+     * @param messageKey The MessageKey.
+     * @param args The placeholder values in the order declared by the MessageKey.
+     * @return The formatted message.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String format(CommandSender sender, MessageKey messageKey, String... args) {
+        return getCatalog(sender).getTemplate(messageKey).format(args);
+    }
+
+    /**
+     * Formats and sends a message in a Command Sender's locale.
+     *
+     * @param sender The Command Sender.
+     * @param messageKey The MessageKey.
+     * @param args The placeholder values in the order declared by the MessageKey.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void send(CommandSender sender, MessageKey messageKey, String... args) {
+        sender.sendMessage(format(sender, messageKey, args));
+    }
+
+    /**
+     * Gets the display name of a Material in a Command Sender's locale.
+     *
+     * @param sender The Command Sender.
+     * @param material The Material.
+     * @return The cached display name, e.g. "Diamond Pickaxe".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getMaterialName(CommandSender sender, Material material) {
+        return getCatalog(sender).getMaterialName(material);
+    }
+}
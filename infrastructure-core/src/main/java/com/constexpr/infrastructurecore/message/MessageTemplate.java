@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.message;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MessageTemplate is a message parsed once into literal segments and placeholder slots.
+ * <p>
+ * Colour codes are translated and placeholders are resolved to argument indices
+ * at parse time, so formatting is a single pass of appends into a presized
+ * StringBuilder, and a template without placeholders is a constant.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class MessageTemplate {
+    private final String[] literals;
+
+    private final int[] slots;
+
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        int length = 0;
+        for(String literal : literals) length += literal.length();
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses a raw template of a MessageKey.
+     * <p>
+     * '&amp;' colour codes are translated, and "{name}" is a placeholder when the
+     * MessageKey declares the name; anything else in braces is kept literally.
+     *
+     * @param messageKey The MessageKey whose placeholders the template may use.
+     * @param rawTemplate The raw template text.
+     * @return The parsed MessageTemplate.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static MessageTemplate parse(MessageKey messageKey, String rawTemplate) {
+        String template = ChatColor.translateAlternateColorCodes('&', rawTemplate);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        // Split the template on its declared placeholders.
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while(position < template.length()) {
+            int open = template.indexOf('{', position);
+            int close = open < 0 ? -1 : template.indexOf('}', open);
+
+            // No Remaining Placeholders Guard Statement
+            if(close < 0) {
+                literal.append(template, position, template.length());
+                break;
+            }
+
+            int slot = messageKey.indexOf(template.substring(open + 1, close));
+            if(slot < 0) {
+                literal.append(template, position, open + 1);
+                position = open + 1;
+                continue;
+            }
+
+            literal.append(template, position, open);
+            literals.add(literal.toString());
+            slots.add(slot);
+            literal.setLength(0);
+            position = close + 1;
+        }
+        literals.add(literal.toString());
+
+        int[] slotArray = new int[slots.size()];
+        for(int index = 0; index < slotArray.length; index++) slotArray[index] = slots.get(index);
+
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray);
+    }
+
+    /**
+     * Formats the template with placeholder values.
+     *
+     * @param args The placeholder values in the order declared by the MessageKey.
+     * @return The formatted message.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String format(String... args) {
+        // Constant Template Guard Statement
+        if(slots.length == 0) return literals[0];
+
+        StringBuilder builder = new StringBuilder(literalLength + 16 * slots.length);
+        builder.append(literals[0]);
+        for(int index = 0; index < slots.length; index++) {
+            int slot = slots[index];
+            builder.append(slot < args.length ? args[slot] : "").append(literals[index + 1]);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.module;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * InfrastructureModule is a lazily activated InfrastructureCore subsystem.
+ * <p>
+ * A module is activated on its first get(), which activates its dependencies
+ * first. Activation happens exactly once, and records how long it took, on
+ * which thread, and what triggered it for the startup report. Modules that are
+ * marked async-safe may be activated off the server thread by the warm-up.
+ * Shutting a module down closes it for good: a closed module is never
+ * activated again, so a late get() fails instead of rebuilding the subsystem.
+ * A subsystem that finishes starting in the background fails its module the
+ * same way once it learns that it cannot start.
+ *
+ * @param <T> The type of the subsystem the module provides.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class InfrastructureModule<T> {
+    private final String name;
+
+    private final boolean asyncSafe;
+
+    private final Supplier<T> factory;
+
+    private final Consumer<T> destructor;
+
+    private final List<InfrastructureModule<?>> dependencies;
+
+    private volatile boolean active;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    private T instance;
+
+    private long activationNanos;
+
+    private String activationThread;
+
+    private String activationTrigger;
+
+    /**
+     * Constructor for an InfrastructureModule.
+     *
+     * @param name The name of the module in reports.
+     * @param asyncSafe If the module may be activated off the server thread.
+     * @param factory Creates and starts the subsystem.
+     * @param destructor Stops the subsystem on shutdown.
+     * @param dependencies The modules that must be active before this one.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    InfrastructureModule(String name, boolean asyncSafe, Supplier<T> factory, Consumer<T> destructor, InfrastructureModule<?>... dependencies) {
+        this.name = name;
+        this.asyncSafe = asyncSafe;
+        this.factory = factory;
+        this.destructor = destructor;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies));
+    }
+
+    /**
+     * Gets the subsystem, activating the module on first use.
+     *
+     * @return The subsystem.
+     * @throws IllegalStateException If the module has been shut down or has failed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public T get() {
+        // Active Module Fast Path reads the instance published by the volatile flag.
+        if(active) return instance;
+
+        return activate("first use");
+    }
+
+    /**
+     * Activates the module and its dependencies if it is not active yet.
+     *
+     * @param trigger What caused the activation, for the startup report.
+     * @return The subsystem.
+     * @throws IllegalStateException If the module has been shut down or has failed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized T activate(String trigger) {
+        // Concurrent Activation Guard Statement
+        if(active) return instance;
+
+        // Closed Module Guard Statement
+        if(closed) throw closedException();
+
+        for(InfrastructureModule<?> dependency : dependencies) dependency.activate(trigger + " of " + name);
+
+        long start = System.nanoTime();
+        T created = factory.get();
+
+        // Failed During Activation Guard Statement
+        if(closed) throw closedException();
+
+        instance = created;
+        activationNanos = System.nanoTime() - start;
+        activationThread = Thread.currentThread().getName();
+        activationTrigger = trigger;
+        active = true;
+
+        InfrastructureCorePluginHandle.LOGGER.fine("Activated module " + name + " in "
+                + TimeUnit.NANOSECONDS.toMicros(activationNanos) / 1000.0 + "ms (" + trigger + ").");
+        return instance;
+    }
+
+    /**
+     * Fails the module because its subsystem could not finish starting in the background.
+     * <p>
+     * The module is closed, so later get() calls throw with the failure as
+     * their cause. The destructor is not run; a subsystem that fails to start
+     * must not hold anything that needs stopping.
+     *
+     * @param cause Why the subsystem could not start.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void fail(Throwable cause) {
+        // Closed Module Guard Statement
+        if(closed) return;
+
+        InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Module " + name + " failed to start.", cause);
+        failure = cause;
+        closed = true;
+        active = false;
+        instance = null;
+    }
+
+    /**
+     * Stops the subsystem if the module was activated, and closes the module.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    synchronized void shutdown() {
+        closed = true;
+
+        // Inactive Module Guard Statement
+        if(!active) return;
+
+        try {
+            destructor.accept(instance);
+        } catch(RuntimeException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to shut down module " + name + ".", exception);
+        }
+
+        active = false;
+        instance = null;
+    }
+
+    /**
+     * Standard Getter for the Module Name.
+     *
+     * @return The Module Name.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Standard Getter for the async-safe flag of the module.
+     *
+     * @return If the module may be activated off the server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isAsyncSafe() {
+        return asyncSafe;
+    }
+
+    /**
+     * Standard Getter for the Module Dependencies.
+     *
+     * @return The modules that are activated before this one.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<InfrastructureModule<?>> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Standard Getter for the active flag of the module.
+     *
+     * @return If the module has been activated.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Formats the activation of the module as a single report line.
+     *
+     * @return The report line, e.g. "messages: 12.345ms on Craft Scheduler Thread - 1 (warm-up)".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized String describeActivation() {
+        // Inactive Module Guard Statement
+        if(!active) return name + (failure != null ? ": failed" : closed ? ": closed" : ": inactive");
+
+        return String.format("%s: %.3fms on %s (%s)", name, activationNanos / 1_000_000.0, activationThread, activationTrigger);
+    }
+
+    private IllegalStateException closedException() {
+        return failure == null ? new IllegalStateException("Module " + name + " has been shut down.")
+                : new IllegalStateException("Module " + name + " failed to start.", failure);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.module;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * ModuleRegistry holds the InfrastructureModules of the InfrastructureCoreAPI.
+ * <p>
+ * Modules are registered with their dependencies, which must already be
+ * registered, so registration order is a valid activation order. Nothing is
+ * activated by registering; modules activate on first use, and the optional
+ * warm-up activates async-safe modules in parallel in the background, each as
+ * soon as its dependencies are active.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class ModuleRegistry {
+    private final List<InfrastructureModule<?>> modules = new CopyOnWriteArrayList<>();
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public ModuleRegistry() { }
+
+    /**
+     * Registers a module without activating it.
+     *
+     * @param name The name of the module in reports.
+     * @param asyncSafe If the module may be activated off the server thread.
+     * @param factory Creates and starts the subsystem.
+     * @param destructor Stops the subsystem on shutdown.
+     * @param dependencies The registered modules that must be active before this one.
+     * @param <T> The type of the subsystem the module provides.
+     * @return The registered module.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public <T> InfrastructureModule<T> register(String name, boolean asyncSafe, Supplier<T> factory, Consumer<T> destructor, InfrastructureModule<?>... dependencies) {
+        for(InfrastructureModule<?> dependency : dependencies)
+            if(!modules.contains(dependency)) throw new IllegalArgumentException("Module " + name + " depends on unregistered module " + dependency.getName() + ".");
+
+        InfrastructureModule<T> module = new InfrastructureModule<>(name, asyncSafe, factory, destructor, dependencies);
+        modules.add(module);
+        return module;
+    }
+
+    /**
+     * Activates every async-safe module whose dependencies are async-safe, in parallel.
+     *
+     * @param executor The Executor to activate modules on.
+     * @return A future completed once every warmed module is active.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        Map<InfrastructureModule<?>, CompletableFuture<Void>> activations = new IdentityHashMap<>();
+
+        // Chain each module behind its dependencies; registration order guarantees they are already mapped.
+        for(InfrastructureModule<?> module : modules) {
+            if(!module.isAsyncSafe()) continue;
+
+            List<CompletableFuture<Void>> dependencyActivations = new ArrayList<>();
+            boolean warmable = true;
+            for(InfrastructureModule<?> dependency : module.getDependencies()) {
+                CompletableFuture<Void> dependencyActivation = activations.get(dependency);
+                if(dependencyActivation == null) warmable = false;
+                else dependencyActivations.add(dependencyActivation);
+            }
+
+            // Main-Thread Dependency Guard Statement
+            if(!warmable) continue;
+
+            activations.put(module, CompletableFuture.allOf(dependencyActivations.toArray(new CompletableFuture[0]))
+                    .thenRunAsync(() -> activateSafely(module), executor));
+        }
+
+        return CompletableFuture.allOf(activations.values().toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Shuts down the active modules in reverse registration order.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        List<InfrastructureModule<?>> reversed = new ArrayList<>(modules);
+        Collections.reverse(reversed);
+
+        for(InfrastructureModule<?> module : reversed) module.shutdown();
+    }
+
+    /**
+     * Logs the activation time of every module.
+     *
+     * @param enableNanos The time the plugin spent in onEnable, in nanoseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void logStartupReport(long enableNanos) {
+        InfrastructureCorePluginHandle.LOGGER.info(String.format("InfrastructureCore enabled in %.3fms. Module Report:", enableNanos / 1_000_000.0));
+
+        for(InfrastructureModule<?> module : modules)
+            InfrastructureCorePluginHandle.LOGGER.info("  " + module.describeActivation());
+    }
+
+    /**
+     * Standard Getter for the registered modules.
+     *
+     * @return A read-only view of the modules in registration order.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<InfrastructureModule<?>> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    private static void activateSafely(InfrastructureModule<?> module) {
+        try {
+            module.activate("warm-up");
+        } catch(RuntimeException exception) {
+            // Leave the module inactive so first use retries and surfaces the failure.
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to warm up module " + module.getName() + ".", exception);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BlockingExecutor runs background tasks that block on I/O, such as file exports.
+ * <p>
+ * On Java 21 and newer every task runs on its own virtual thread, so thousands
+ * of tasks waiting on the disk or the network cost no more than their stacks.
+ * On older runtimes tasks queue for a bounded pool of platform threads, which
+ * keeps a burst of blocked tasks from spawning a thread each; once its queue
+ * is full, further tasks are rejected rather than run on the submitting
+ * thread, which may be the server thread. Which one is used is decided by
+ * BlockingThreads, the only class the multi-release jar replaces on newer
+ * runtimes.
+ * <p>
+ * Writers that need their tasks ordered, such as the player data journal and
+ * the audit log, submit through a SerialExecutor, and repeating tasks are
+ * handed to the executor by a single shared timer thread.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class BlockingExecutor implements Executor {
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60L;
+
+    private static final int PLATFORM_QUEUE_CAPACITY = 1024;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private final String name;
+
+    private final ExecutorService executorService;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final boolean virtualThreads;
+
+    /**
+     * Constructor for a BlockingExecutor.
+     *
+     * @param name The name prefix of the threads.
+     * @param platformThreads The maximum number of platform threads when virtual threads are not used.
+     * @param preferVirtualThreads If virtual threads should be used when the runtime supports them.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public BlockingExecutor(String name, int platformThreads, boolean preferVirtualThreads) {
+        ExecutorService virtualThreadExecutor = preferVirtualThreads ? BlockingThreads.newVirtualThreadExecutor(name) : null;
+
+        this.name = name;
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executorService = virtualThreads ? virtualThreadExecutor : newPlatformThreadExecutor(name, Math.max(1, platformThreads));
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name + "-Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Runs a task in the background.
+     *
+     * @param runnable The task.
+     * @throws RejectedExecutionException If the executor was shut down or its queue is full.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void execute(Runnable runnable) {
+        executorService.execute(runnable);
+    }
+
+    /**
+     * Computes a value in the background.
+     *
+     * @param supplier The computation.
+     * @param <T> The type of the computed value.
+     * @return A future completed with the computed value, or exceptionally if the task was rejected.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executorService);
+        } catch(RejectedExecutionException exception) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(exception);
+            return rejected;
+        }
+    }
+
+    /**
+     * Creates an executor that runs its tasks one at a time, in submission order, on this executor.
+     *
+     * @return The SerialExecutor.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public SerialExecutor newSerialExecutor() {
+        return new SerialExecutor(this);
+    }
+
+    /**
+     * Runs a task repeatedly in the background.
+     * <p>
+     * The timer thread only hands each run to the given executor. A run is
+     * skipped while the previous one is still queued or running, so a slow
+     * executor is not flooded with runs.
+     *
+     * @param executor The executor to run the task on, e.g. a SerialExecutor of this executor.
+     * @param runnable The task.
+     * @param delayMillis The delay before the first run in milliseconds.
+     * @param periodMillis The period between runs in milliseconds.
+     * @return The handle to cancel the task with.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public TimerHandle runTimer(Executor executor, Runnable runnable, long delayMillis, long periodMillis) {
+        AtomicBoolean pending = new AtomicBoolean();
+
+        ScheduledFuture<?> scheduledFuture = timer.scheduleWithFixedDelay(() -> {
+            // Pending Run Guard Statement
+            if(!pending.compareAndSet(false, true)) return;
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        pending.set(false);
+                    }
+                });
+            } catch(RejectedExecutionException exception) {
+                pending.set(false);
+            }
+        }, delayMillis, periodMillis, TimeUnit.MILLISECONDS);
+
+        return () -> scheduledFuture.cancel(false);
+    }
+
+    /**
+     * Standard Getter for the Thread Kind.
+     *
+     * @return If tasks run on virtual threads rather than the platform thread pool.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting tasks and waits for the queued ones to finish.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        executorService.shutdown();
+
+        try {
+            if(!executorService.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                InfrastructureCorePluginHandle.LOGGER.warning("Timed out waiting for the " + name + " tasks to finish.");
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(String name, int platformThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // Idle threads time out, so the pool only holds threads while tasks are queued.
+        // A full queue rejects the task; running it on the submitter could block the server thread.
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(platformThreads, platformThreads,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(PLATFORM_QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> {
+            InfrastructureCorePluginHandle.LOGGER.warning("Rejected a " + name + " task, the queue is full.");
+            throw new RejectedExecutionException("The " + name + " queue is full.");
+        });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+        return threadPoolExecutor;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * BlockingThreads creates the virtual-thread executor of a BlockingExecutor.
+ * <p>
+ * This is the Java 8 variant, which reports virtual threads as unavailable.
+ * The multi-release jar replaces it on Java 21 and newer with the variant in
+ * src/main/java21, so it is the only class that differs between runtimes.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+final class BlockingThreads {
+    /**
+     * Private Constructor for Static Utility Class.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private BlockingThreads() { }
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread.
+     *
+     * @param name The name prefix of the threads.
+     * @return The executor, or null as virtual threads are not available before Java 21.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    static ExecutorService newVirtualThreadExecutor(String name) {
+        return null;
+    }
+}
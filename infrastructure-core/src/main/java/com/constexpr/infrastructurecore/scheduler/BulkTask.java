@@ -0,0 +1,285 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BulkTask is a named batch of small tasks executed across ticks by the BulkTaskScheduler.
+ * <p>
+ * A task either runs inline and returns null, or hands its work off to
+ * another thread and returns a future that completes once the work has run.
+ * Progress counters are atomic, as hand-offs complete on the threads they
+ * were handed to, and can be read from any thread when inspecting the queue.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class BulkTask {
+    private final int id;
+
+    private final String name;
+
+    private final CommandSender owner;
+
+    private final Iterator<Supplier<? extends CompletableFuture<?>>> tasks;
+
+    private final int total;
+
+    private final long submittedAt = System.nanoTime();
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    // The hand-offs in flight, plus one while tasks are still being submitted.
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private volatile int ticks;
+
+    /**
+     * Constructor for a BulkTask.
+     *
+     * @param id The identifier assigned by the BulkTaskScheduler.
+     * @param name The human-readable name of the batch.
+     * @param owner The Command Sender that progress is reported to.
+     * @param tasks The small tasks of the batch, each returning null or the future of its hand-off.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    BulkTask(int id, String name, CommandSender owner, Collection<? extends Supplier<? extends CompletableFuture<?>>> tasks) {
+        // Copy the tasks so the caller may keep mutating its own collection.
+        List<Supplier<? extends CompletableFuture<?>>> taskList = new ArrayList<>(tasks);
+
+        this.id = id;
+        this.name = name;
+        this.owner = owner;
+        this.tasks = taskList.iterator();
+        this.total = taskList.size();
+    }
+
+    /**
+     * Checks whether the batch has tasks left to run.
+     *
+     * @return If there are tasks left.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    boolean hasNext() {
+        return tasks.hasNext();
+    }
+
+    /**
+     * Takes the next task of the batch.
+     * @apiNote must only be called from the server thread.
+     *
+     * @return The next task.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    Supplier<? extends CompletableFuture<?>> next() {
+        return tasks.next();
+    }
+
+    /**
+     * Records the outcome of a task of the batch.
+     *
+     * @param success If the task completed without throwing.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void recordOutcome(boolean success) {
+        completed.incrementAndGet();
+        if(!success) failed.incrementAndGet();
+    }
+
+    /**
+     * Records a task that handed its work off and has not completed yet.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void recordHandOff() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Settles a completed hand-off, or the submission of the last task.
+     *
+     * @return If the batch is done, so the caller must report its completion.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    boolean settle() {
+        return pending.decrementAndGet() == 0;
+    }
+
+    /**
+     * Gets the number of hand-offs in flight while tasks are still being submitted.
+     *
+     * @return The number of hand-offs that have not completed yet.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    int getInFlight() {
+        return pending.get() - 1;
+    }
+
+    /**
+     * Records a tick in which the batch received execution time.
+     * @apiNote must only be called from the server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void recordTick() {
+        ticks++;
+    }
+
+    /**
+     * Sends a message to the owner of the batch, if they are still able to receive it.
+     *
+     * @param message The message to send.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void report(String message) {
+        // Offline Owner Guard Statement
+        if(owner instanceof Player && !((Player) owner).isOnline()) return;
+
+        owner.sendMessage(message);
+    }
+
+    /**
+     * Standard Getter for the BulkTask Identifier.
+     *
+     * @return The BulkTask Identifier.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Standard Getter for the BulkTask Name.
+     *
+     * @return The BulkTask Name.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Standard Getter for the Owner of the BulkTask.
+     *
+     * @return The Command Sender that submitted the BulkTask.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CommandSender getOwner() {
+        return owner;
+    }
+
+    /**
+     * Standard Getter for the total number of tasks in the batch.
+     *
+     * @return The total number of tasks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Standard Getter for the number of tasks that have run.
+     *
+     * @return The number of completed tasks, including failed tasks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Standard Getter for the number of tasks that threw an exception.
+     *
+     * @return The number of failed tasks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Standard Getter for the number of ticks the batch has received execution time in.
+     *
+     * @return The number of ticks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Standard Getter for the submission time of the batch.
+     *
+     * @return The System.nanoTime() at which the batch was submitted.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Formats the progress of the batch as a single report line.
+     *
+     * @return The progress line, e.g. "#3 Repair Online Inventories: 120/500 (24%)".
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String describeProgress() {
+        int done = completed.get();
+        int percent = total == 0 ? 100 : (int) (done * 100L / total);
+
+        return String.format("#%d %s: %d/%d (%d%%)", id, name, done, total, percent);
+    }
+}
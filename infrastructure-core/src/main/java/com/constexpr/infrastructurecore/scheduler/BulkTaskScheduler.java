@@ -0,0 +1,282 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * BulkTaskScheduler executes large batches of small tasks across ticks.
+ * <p>
+ * Every tick, queued BulkTasks are drained in submission order until the
+ * per-tick budget is spent, so an admin-scale operation is spread over as many
+ * ticks as it needs instead of spiking a single one. The budget is checked
+ * between tasks, which is why the individual tasks must be small.
+ * <p>
+ * Tasks that must run on another thread, such as the thread that owns an
+ * Entity on Folia, are submitted as hand-offs. A hand-off counts as completed
+ * when its future completes rather than when it is handed off, and since its
+ * work is not spent from this thread's budget, at most MAX_IN_FLIGHT_HAND_OFFS
+ * of a batch are in flight at once.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class BulkTaskScheduler implements Runnable {
+    /**
+     * The Default Per-Tick Budget in Milliseconds
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final long DEFAULT_TICK_BUDGET_MILLIS = 5L;
+
+    /**
+     * The Maximum Number of Hand-Offs of a BulkTask in Flight at once
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int MAX_IN_FLIGHT_HAND_OFFS = 64;
+
+    private static final long PROGRESS_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+    private final InfrastructureScheduler infrastructureScheduler;
+
+    private final Queue<BulkTask> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    private volatile long tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TICK_BUDGET_MILLIS);
+
+    private long lastProgressReport = System.nanoTime();
+
+    private TimerHandle timerTask;
+
+    /**
+     * Constructor for a BulkTaskScheduler.
+     *
+     * @param infrastructureScheduler The Scheduler that runs the per-tick timer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public BulkTaskScheduler(InfrastructureScheduler infrastructureScheduler) {
+        this.infrastructureScheduler = infrastructureScheduler;
+    }
+
+    /**
+     * Starts the per-tick timer on the server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void start() {
+        timerTask = infrastructureScheduler.runTimer(this, 1L, 1L);
+    }
+
+    /**
+     * Stops the per-tick timer and drops all queued work, notifying the owners.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        if(timerTask != null) timerTask.cancel();
+
+        BulkTask bulkTask;
+        while((bulkTask = queue.poll()) != null)
+            bulkTask.report("Task " + bulkTask.describeProgress() + " was cancelled by a shutdown.");
+    }
+
+    /**
+     * Queues a batch of small tasks for execution across ticks.
+     *
+     * @param name The human-readable name of the batch.
+     * @param owner The Command Sender that progress and completion are reported to.
+     * @param tasks The small tasks of the batch.
+     * @return The queued BulkTask.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public BulkTask submit(String name, CommandSender owner, Collection<? extends Runnable> tasks) {
+        List<Supplier<? extends CompletableFuture<?>>> inlineTasks = new ArrayList<>(tasks.size());
+        for(Runnable task : tasks) inlineTasks.add(() -> {
+            task.run();
+            return null;
+        });
+
+        return enqueue(name, owner, inlineTasks);
+    }
+
+    /**
+     * Queues a batch of tasks that each hand their work off to another thread, e.g. the thread that owns an Entity.
+     * <p>
+     * A hand-off completes when its future does; one that is cancelled, e.g.
+     * because its Entity was removed, counts as completed without failing.
+     *
+     * @param name The human-readable name of the batch.
+     * @param owner The Command Sender that progress and completion are reported to.
+     * @param handOffs The tasks of the batch, each returning the future of the work it handed off.
+     * @return The queued BulkTask.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public BulkTask submitHandOffs(String name, CommandSender owner, Collection<? extends Supplier<? extends CompletableFuture<?>>> handOffs) {
+        return enqueue(name, owner, handOffs);
+    }
+
+    /**
+     * Gets the queued BulkTasks in execution order.
+     *
+     * @return A snapshot of the queued BulkTasks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<BulkTask> getQueuedTasks() {
+        return new ArrayList<>(queue);
+    }
+
+    /**
+     * Standard Getter for the Per-Tick Budget.
+     *
+     * @return The Per-Tick Budget in Milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getTickBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickBudgetNanos);
+    }
+
+    /**
+     * Standard Setter for the Per-Tick Budget.
+     *
+     * @param tickBudgetMillis The Per-Tick Budget in Milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setTickBudgetMillis(long tickBudgetMillis) {
+        if(tickBudgetMillis <= 0) throw new IllegalArgumentException("The tick budget must be positive.");
+
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis);
+    }
+
+    /**
+     * Runs queued tasks until the per-tick budget is spent.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void run() {
+        // Empty Queue Guard Statement
+        if(queue.isEmpty()) return;
+
+        long start = System.nanoTime();
+        long deadline = start + tickBudgetNanos;
+
+        // Drain BulkTasks in submission order within the budget.
+        BulkTask bulkTask;
+        while((bulkTask = queue.peek()) != null) {
+            boolean executed = false;
+            while(bulkTask.hasNext() && bulkTask.getInFlight() < MAX_IN_FLIGHT_HAND_OFFS && System.nanoTime() < deadline) {
+                execute(bulkTask, bulkTask.next());
+                executed = true;
+            }
+
+            // Only count the ticks in which the BulkTask actually ran.
+            if(executed) bulkTask.recordTick();
+
+            // Budget Spent Guard Statement
+            if(bulkTask.hasNext()) break;
+
+            // Hand-offs still in flight complete the BulkTask once the last of them has.
+            queue.poll();
+            if(bulkTask.settle()) complete(bulkTask);
+        }
+
+        // Periodically report progress of the running BulkTask.
+        if(bulkTask != null && start - lastProgressReport >= PROGRESS_REPORT_INTERVAL_NANOS) {
+            lastProgressReport = start;
+            bulkTask.report("Task " + bulkTask.describeProgress() + ".");
+        }
+    }
+
+    private BulkTask enqueue(String name, CommandSender owner, Collection<? extends Supplier<? extends CompletableFuture<?>>> tasks) {
+        BulkTask bulkTask = new BulkTask(nextId.getAndIncrement(), name, owner, tasks);
+        queue.add(bulkTask);
+
+        bulkTask.report("Queued task " + bulkTask.describeProgress() + ".");
+        return bulkTask;
+    }
+
+    private void execute(BulkTask bulkTask, Supplier<? extends CompletableFuture<?>> task) {
+        CompletableFuture<?> handOff;
+        try {
+            handOff = task.get();
+        } catch(RuntimeException exception) {
+            recordFailure(bulkTask, exception);
+            return;
+        }
+
+        // Inline Task Guard Statement
+        if(handOff == null) {
+            bulkTask.recordOutcome(true);
+            return;
+        }
+
+        // Account for the hand-off once it has run, and report the BulkTask on the server thread if it was the last.
+        bulkTask.recordHandOff();
+        handOff.whenComplete((ignored, throwable) -> {
+            if(throwable == null || throwable instanceof CancellationException) bulkTask.recordOutcome(true);
+            else recordFailure(bulkTask, throwable);
+
+            if(bulkTask.settle()) infrastructureScheduler.getMainThreadExecutor().execute(() -> complete(bulkTask));
+        });
+    }
+
+    private static void recordFailure(BulkTask bulkTask, Throwable throwable) {
+        // Log the first failure of every BulkTask with its stack trace, and the rest quietly.
+        InfrastructureCorePluginHandle.LOGGER.log(bulkTask.getFailed() == 0 ? Level.WARNING : Level.FINE,
+                "Task of bulk task #" + bulkTask.getId() + " (" + bulkTask.getName() + ") failed.", throwable);
+        bulkTask.recordOutcome(false);
+    }
+
+    private static void complete(BulkTask bulkTask) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bulkTask.getSubmittedAt());
+
+        bulkTask.report(String.format("Completed task #%d %s: %d tasks over %d ticks in %dms%s.", bulkTask.getId(), bulkTask.getName(),
+                bulkTask.getTotal(), bulkTask.getTicks(), elapsedMillis,
+                bulkTask.getFailed() == 0 ? "" : " (" + bulkTask.getFailed() + " failed)"));
+    }
+}
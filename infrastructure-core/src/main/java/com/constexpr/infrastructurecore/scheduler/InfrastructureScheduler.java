@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * InfrastructureScheduler is a CompletableFuture-friendly facade over the Bukkit Scheduler.
+ * <p>
+ * It exposes the server thread and the Bukkit async pool as Executors, so work
+ * can be chained between them: computation, lookups and I/O off the server
+ * thread, then Bukkit mutations back on it.
+ * <p>
+ * On region-threaded (Folia) servers there is no single server thread. The
+ * main thread Executor then runs on the global region thread, and operations
+ * on an Entity or a chunk must run on the thread of the region that owns it,
+ * which runForEntity() and runAtChunk() take care of. On Paper and Spigot the
+ * owning thread is always the server thread, so both run inline there.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class InfrastructureScheduler {
+    private final Plugin plugin;
+
+    private final RegionSchedulers regionSchedulers = RegionSchedulers.detect();
+
+    private final Executor mainThreadExecutor = this::executeOnMainThread;
+
+    private final Executor asyncExecutor = this::executeAsync;
+
+    /**
+     * Constructor for an InfrastructureScheduler.
+     *
+     * @param plugin The Plugin that owns the scheduled tasks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructureScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Checks if the server is region-threaded, i.e. runs on Folia.
+     *
+     * @return If the server is region-threaded.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isRegionThreaded() {
+        return regionSchedulers != null;
+    }
+
+    /**
+     * Checks if the current thread owns an Entity and may mutate it.
+     *
+     * @param entity The Entity.
+     * @return If the current thread owns the Entity.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return regionSchedulers == null ? Bukkit.isPrimaryThread() : regionSchedulers.isOwnedByCurrentRegion(entity);
+    }
+
+    /**
+     * Checks if the current thread owns a chunk and may mutate it.
+     *
+     * @param world The World of the chunk.
+     * @param chunkX The X coordinate of the chunk.
+     * @param chunkZ The Z coordinate of the chunk.
+     * @return If the current thread owns the chunk.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return regionSchedulers == null ? Bukkit.isPrimaryThread() : regionSchedulers.isOwnedByCurrentRegion(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Standard Getter for the Executor that runs tasks on the server thread.
+     * <p>
+     * Tasks submitted from the server thread run immediately; tasks submitted
+     * from any other thread run at the start of the next tick. On Folia, the
+     * global region thread takes the place of the server thread.
+     *
+     * @return The Main Thread Executor.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Executor getMainThreadExecutor() {
+        return mainThreadExecutor;
+    }
+
+    /**
+     * Standard Getter for the Executor that runs tasks on the Bukkit async pool.
+     *
+     * @return The Async Executor.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Computes a value off the server thread.
+     *
+     * @param supplier The computation.
+     * @param <T> The type of the computed value.
+     * @return A future completed with the computed value.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, asyncExecutor);
+    }
+
+    /**
+     * Computes a value on the server thread.
+     *
+     * @param supplier The computation.
+     * @param <T> The type of the computed value.
+     * @return A future completed with the computed value.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public <T> CompletableFuture<T> supplySync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, mainThreadExecutor);
+    }
+
+    /**
+     * Runs a task on the server thread.
+     *
+     * @param runnable The task.
+     * @return A future completed once the task has run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Void> runSync(Runnable runnable) {
+        return CompletableFuture.runAsync(runnable, mainThreadExecutor);
+    }
+
+    /**
+     * Runs a task on the thread that owns an Entity.
+     * <p>
+     * The task runs immediately if the current thread owns the Entity. If the
+     * Entity is removed before the task runs, e.g. because the Player quit, the
+     * future completes with a CancellationException.
+     *
+     * @param entity The Entity the task operates on.
+     * @param runnable The task.
+     * @return A future completed once the task has run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Void> runForEntity(Entity entity, Runnable runnable) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable task = () -> complete(future, runnable);
+
+        // Owning Thread Fast Path
+        if(isOwnedByCurrentThread(entity)) {
+            task.run();
+            return future;
+        }
+
+        if(regionSchedulers == null) Bukkit.getScheduler().runTask(plugin, task);
+        else if(!regionSchedulers.executeEntity(plugin, entity, task, () -> cancel(future)))
+            cancel(future);
+
+        return future;
+    }
+
+    /**
+     * Runs a task on the thread that owns a chunk.
+     * <p>
+     * The task runs immediately if the current thread owns the chunk.
+     *
+     * @param world The World of the chunk.
+     * @param chunkX The X coordinate of the chunk.
+     * @param chunkZ The Z coordinate of the chunk.
+     * @param runnable The task.
+     * @return A future completed once the task has run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Void> runAtChunk(World world, int chunkX, int chunkZ, Runnable runnable) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable task = () -> complete(future, runnable);
+
+        // Owning Thread Fast Path
+        if(isOwnedByCurrentThread(world, chunkX, chunkZ)) {
+            task.run();
+            return future;
+        }
+
+        if(regionSchedulers == null) Bukkit.getScheduler().runTask(plugin, task);
+        else regionSchedulers.executeRegion(plugin, world, chunkX, chunkZ, task);
+
+        return future;
+    }
+
+    /**
+     * Runs a task on the server thread after a delay.
+     *
+     * @param runnable The task.
+     * @param delayTicks The delay in ticks.
+     * @return The handle to cancel the task with.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public TimerHandle runLater(Runnable runnable, long delayTicks) {
+        if(regionSchedulers != null) return regionSchedulers.runGlobalDelayed(plugin, runnable, delayTicks);
+
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTaskLater(plugin, runnable, delayTicks);
+        return bukkitTask::cancel;
+    }
+
+    /**
+     * Runs a task on the server thread repeatedly.
+     *
+     * @param runnable The task.
+     * @param delayTicks The delay before the first run in ticks.
+     * @param periodTicks The period between runs in ticks.
+     * @return The handle to cancel the task with.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public TimerHandle runTimer(Runnable runnable, long delayTicks, long periodTicks) {
+        if(regionSchedulers != null) return regionSchedulers.runGlobalTimer(plugin, runnable, delayTicks, periodTicks);
+
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, runnable, delayTicks, periodTicks);
+        return bukkitTask::cancel;
+    }
+
+    private void executeOnMainThread(Runnable runnable) {
+        if(regionSchedulers != null) {
+            if(regionSchedulers.isGlobalTickThread()) runnable.run();
+            else regionSchedulers.executeGlobal(plugin, runnable);
+        } else if(Bukkit.isPrimaryThread()) runnable.run();
+        else Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+
+    private void executeAsync(Runnable runnable) {
+        // Folia has no Bukkit async pool.
+        if(regionSchedulers != null) regionSchedulers.executeAsync(plugin, runnable);
+        else Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
+    }
+
+    private static void complete(CompletableFuture<Void> future, Runnable runnable) {
+        try {
+            runnable.run();
+            future.complete(null);
+        } catch(Throwable throwable) {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    private static void cancel(CompletableFuture<Void> future) {
+        future.completeExceptionally(new CancellationException("The entity was removed before its task could run."));
+    }
+}
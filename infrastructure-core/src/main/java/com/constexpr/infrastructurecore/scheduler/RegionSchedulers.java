@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * RegionSchedulers binds the region-threaded schedulers of Folia.
+ * <p>
+ * The plugin is compiled against the Paper API, which has no region
+ * schedulers, so the Folia API is looked up reflectively once and called
+ * through MethodHandles. On Paper and Spigot detect() returns null and the
+ * InfrastructureScheduler uses the Bukkit scheduler instead.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+final class RegionSchedulers {
+    private static final String REGIONIZED_SERVER_CLASS = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    private static final String SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+
+    private final MethodHandle isGlobalTickThread;
+
+    private final MethodHandle isOwnedByCurrentRegionEntity;
+
+    private final MethodHandle isOwnedByCurrentRegionChunk;
+
+    private final MethodHandle globalExecute;
+
+    private final MethodHandle globalRunDelayed;
+
+    private final MethodHandle globalRunAtFixedRate;
+
+    private final MethodHandle regionExecute;
+
+    private final MethodHandle entityGetScheduler;
+
+    private final MethodHandle entityExecute;
+
+    private final MethodHandle asyncRunNow;
+
+    private final MethodHandle taskCancel;
+
+    private RegionSchedulers(MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        Class<?> globalType = Class.forName(SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+        Class<?> regionType = Class.forName(SCHEDULER_PACKAGE + "RegionScheduler");
+        Class<?> entityType = Class.forName(SCHEDULER_PACKAGE + "EntityScheduler");
+        Class<?> asyncType = Class.forName(SCHEDULER_PACKAGE + "AsyncScheduler");
+        Class<?> taskType = Class.forName(SCHEDULER_PACKAGE + "ScheduledTask");
+
+        // Thread Ownership Checks
+        isGlobalTickThread = lookup.findStatic(Bukkit.class, "isGlobalTickThread", MethodType.methodType(boolean.class));
+        isOwnedByCurrentRegionEntity = lookup.findStatic(Bukkit.class, "isOwnedByCurrentRegion", MethodType.methodType(boolean.class, Entity.class));
+        isOwnedByCurrentRegionChunk = lookup.findStatic(Bukkit.class, "isOwnedByCurrentRegion", MethodType.methodType(boolean.class, World.class, int.class, int.class));
+
+        // The global, region and async schedulers are singletons, so they are bound once.
+        Object globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        Object regionScheduler = Bukkit.class.getMethod("getRegionScheduler").invoke(null);
+        Object asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler").invoke(null);
+
+        globalExecute = lookup.findVirtual(globalType, "execute", MethodType.methodType(void.class, Plugin.class, Runnable.class)).bindTo(globalScheduler);
+        globalRunDelayed = lookup.findVirtual(globalType, "runDelayed", MethodType.methodType(taskType, Plugin.class, Consumer.class, long.class)).bindTo(globalScheduler);
+        globalRunAtFixedRate = lookup.findVirtual(globalType, "runAtFixedRate",
+                MethodType.methodType(taskType, Plugin.class, Consumer.class, long.class, long.class)).bindTo(globalScheduler);
+        regionExecute = lookup.findVirtual(regionType, "execute",
+                MethodType.methodType(void.class, Plugin.class, World.class, int.class, int.class, Runnable.class)).bindTo(regionScheduler);
+        asyncRunNow = lookup.findVirtual(asyncType, "runNow", MethodType.methodType(taskType, Plugin.class, Consumer.class)).bindTo(asyncScheduler);
+
+        // Every Entity has its own scheduler, which follows it across regions.
+        entityGetScheduler = lookup.findVirtual(Entity.class, "getScheduler", MethodType.methodType(entityType));
+        entityExecute = lookup.findVirtual(entityType, "execute", MethodType.methodType(boolean.class, Plugin.class, Runnable.class, Runnable.class, long.class));
+        taskCancel = lookup.findVirtual(taskType, "cancel", MethodType.methodType(taskType.getMethod("cancel").getReturnType()));
+    }
+
+    /**
+     * Binds the Folia schedulers, if the server is region-threaded.
+     *
+     * @return The RegionSchedulers, or null on servers with a single server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    static RegionSchedulers detect() {
+        try {
+            Class.forName(REGIONIZED_SERVER_CLASS);
+        } catch(ClassNotFoundException exception) {
+            return null;
+        }
+
+        try {
+            return new RegionSchedulers(MethodHandles.publicLookup());
+        } catch(ReflectiveOperationException exception) {
+            throw new IllegalStateException("The server is region-threaded, but its schedulers could not be bound.", exception);
+        }
+    }
+
+    boolean isGlobalTickThread() {
+        try {
+            return (boolean) isGlobalTickThread.invoke();
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    boolean isOwnedByCurrentRegion(Entity entity) {
+        try {
+            return (boolean) isOwnedByCurrentRegionEntity.invoke(entity);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    boolean isOwnedByCurrentRegion(World world, int chunkX, int chunkZ) {
+        try {
+            return (boolean) isOwnedByCurrentRegionChunk.invoke(world, chunkX, chunkZ);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    void executeGlobal(Plugin plugin, Runnable runnable) {
+        try {
+            globalExecute.invoke(plugin, runnable);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    TimerHandle runGlobalDelayed(Plugin plugin, Runnable runnable, long delayTicks) {
+        try {
+            Consumer<Object> task = scheduledTask -> runnable.run();
+            Object scheduledTask = globalRunDelayed.invoke(plugin, task, Math.max(1L, delayTicks));
+            return () -> cancel(scheduledTask);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    TimerHandle runGlobalTimer(Plugin plugin, Runnable runnable, long delayTicks, long periodTicks) {
+        try {
+            // Folia rejects delays and periods below one tick.
+            Consumer<Object> task = scheduledTask -> runnable.run();
+            Object scheduledTask = globalRunAtFixedRate.invoke(plugin, task, Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+            return () -> cancel(scheduledTask);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    void executeRegion(Plugin plugin, World world, int chunkX, int chunkZ, Runnable runnable) {
+        try {
+            regionExecute.invoke(plugin, world, chunkX, chunkZ, runnable);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    boolean executeEntity(Plugin plugin, Entity entity, Runnable runnable, Runnable retired) {
+        try {
+            return (boolean) entityExecute.invoke(entityGetScheduler.invoke(entity), plugin, runnable, retired, 1L);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    void executeAsync(Plugin plugin, Runnable runnable) {
+        try {
+            Consumer<Object> task = scheduledTask -> runnable.run();
+            asyncRunNow.invoke(plugin, task);
+        } catch(Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    private void cancel(Object scheduledTask) {
+        try {
+            taskCancel.invoke(scheduledTask);
+        } catch(Throwable throwable) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to cancel a region-scheduled task.", throwable);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable throwable) {
+        if(throwable instanceof Error) throw (Error) throwable;
+        if(throwable instanceof RuntimeException) return (RuntimeException) throwable;
+        return new IllegalStateException(throwable);
+    }
+}
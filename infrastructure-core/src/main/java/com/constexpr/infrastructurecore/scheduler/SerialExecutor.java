@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.scheduler;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * A SerialExecutor runs its tasks one at a time, in submission order, on a BlockingExecutor.
+ * <p>
+ * Owners of a file, such as the player data journal or the audit log, confine
+ * all access to it to their SerialExecutor instead of a dedicated thread. Each
+ * task happens-before the next one, so the confined state needs no locks, and
+ * only one thread of the BlockingExecutor is held while tasks are queued.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class SerialExecutor implements Executor {
+    private final Executor executor;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile boolean shutdown;
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a task behind the previously submitted ones.
+     *
+     * @param runnable The task.
+     * @throws RejectedExecutionException If this executor was shut down.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void execute(Runnable runnable) {
+        // Shutdown Guard Statement
+        if(shutdown) throw new RejectedExecutionException("The serial executor was shut down.");
+
+        tasks.add(runnable);
+        schedule();
+    }
+
+    /**
+     * Stops accepting tasks. Tasks queued before still run.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    private void schedule() {
+        // Only one drain runs at a time; a running drain picks up the new task.
+        if(!draining.compareAndSet(false, true)) return;
+
+        try {
+            executor.execute(this::drain);
+        } catch(RejectedExecutionException exception) {
+            // The tasks stay queued, and the next accepted submission drains them.
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        Runnable runnable;
+        while((runnable = tasks.poll()) != null) {
+            try {
+                runnable.run();
+            } catch(RuntimeException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "A serial background task failed.", exception);
+            }
+        }
+        draining.set(false);
+
+        // Reschedule for a task queued after the last poll, but before the flag was cleared.
+        if(!tasks.isEmpty()) schedule();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-Only, Memory-Mapped Journal of PlayerRecords.
+ * <p>
+ * Every write appends an entry of the form [length][crc32][type][uuid][body]
+ * and the newest entry for a UUID wins. On open the journal is replayed from
+ * the start and stops at the first truncated or corrupt entry, which is how a
+ * crash in the middle of a write is recovered from. Once most of the journal is
+ * superseded entries it is compacted into a fresh file that atomically replaces
+ * the old one.
+ * <p>
+ * The journal is not thread-safe and must be confined to a single thread or SerialExecutor.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PlayerDataJournal implements Closeable {
+    private static final int MAGIC = 0x49434A31;
+
+    private static final int JOURNAL_VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private static final int PAYLOAD_PREFIX_SIZE = 17;
+
+    private static final byte ENTRY_PUT = 1;
+
+    private static final byte ENTRY_DELETE = 2;
+
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private static final int COMPACTION_THRESHOLD = 4 << 20;
+
+    private final Path journalPath;
+
+    private final Path compactionPath;
+
+    private final Map<UUID, Integer> entryOffsets = new HashMap<>();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int writePosition;
+
+    private long liveBytes;
+
+    /**
+     * Opens or creates a journal and recovers its index.
+     *
+     * @param journalPath The path of the journal file.
+     * @throws IOException If the journal cannot be opened or is not a journal.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerDataJournal(Path journalPath) throws IOException {
+        this.journalPath = journalPath;
+        this.compactionPath = journalPath.resolveSibling(journalPath.getFileName() + ".compact");
+
+        open();
+    }
+
+    /**
+     * Reads the newest record body stored for a UUID.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @return The encoded record body, or null if the journal holds no record.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public byte[] read(UUID uniqueId) {
+        Integer offset = entryOffsets.get(uniqueId);
+
+        // Unknown Record Guard Statement
+        if(offset == null) return null;
+
+        // Copy the body that follows the entry header and payload prefix.
+        int length = buffer.getInt(offset);
+        byte[] body = new byte[length - PAYLOAD_PREFIX_SIZE];
+
+        ByteBuffer entry = buffer.duplicate();
+        entry.position(offset + ENTRY_HEADER_SIZE + PAYLOAD_PREFIX_SIZE);
+        entry.get(body);
+
+        return body;
+    }
+
+    /**
+     * Appends a record body for a UUID, superseding any previous one.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @param body The encoded record body.
+     * @throws IOException If the journal cannot grow.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void append(UUID uniqueId, byte[] body) throws IOException {
+        appendEntry(ENTRY_PUT, uniqueId, body);
+    }
+
+    /**
+     * Appends a deletion marker for a UUID.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @throws IOException If the journal cannot grow.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void delete(UUID uniqueId) throws IOException {
+        if(entryOffsets.containsKey(uniqueId)) appendEntry(ENTRY_DELETE, uniqueId, new byte[0]);
+    }
+
+    /**
+     * Forces all appended entries to the storage device.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Checks whether superseded entries make up most of the journal.
+     *
+     * @return If the journal should be compacted.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean shouldCompact() {
+        return writePosition > COMPACTION_THRESHOLD && liveBytes * 2 < writePosition - HEADER_SIZE;
+    }
+
+    /**
+     * Rewrites the journal with only the newest entry of every UUID.
+     * <p>
+     * The live entries are written and forced to a sibling file first, which
+     * then atomically replaces the journal. A crash before the replacement leaves
+     * the original journal intact and the sibling is discarded on the next open,
+     * and a failed replacement keeps the original journal open and in use.
+     *
+     * @throws IOException If the compacted journal cannot be written.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void compact() throws IOException {
+        try(FileChannel output = FileChannel.open(compactionPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Write the journal header.
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(JOURNAL_VERSION).flip();
+            while(header.hasRemaining()) output.write(header);
+
+            // Copy every live entry byte-for-byte, checksums included.
+            for(int offset : entryOffsets.values()) {
+                ByteBuffer entry = buffer.duplicate();
+                entry.position(offset).limit(offset + ENTRY_HEADER_SIZE + buffer.getInt(offset));
+                while(entry.hasRemaining()) output.write(entry);
+            }
+
+            output.force(true);
+        }
+
+        // Replace the journal while the old channel is still open, so that a failed move leaves it usable.
+        try {
+            Files.move(compactionPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException exception) {
+            Files.deleteIfExists(compactionPath);
+            throw exception;
+        }
+
+        // Swap the channel over to the compacted journal and replay it.
+        FileChannel previousChannel = channel;
+        open();
+        previousChannel.close();
+    }
+
+    /**
+     * Forces and closes the journal.
+     *
+     * @throws IOException If the journal channel cannot be closed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        // A leftover compaction file is from a compaction that never completed.
+        Files.deleteIfExists(compactionPath);
+
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, size));
+
+        entryOffsets.clear();
+        liveBytes = 0L;
+
+        // Fresh Journal Guard Statement
+        if(size < HEADER_SIZE) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, JOURNAL_VERSION);
+            writePosition = HEADER_SIZE;
+            return;
+        }
+
+        if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != JOURNAL_VERSION)
+            throw new IOException(journalPath + " is not a version " + JOURNAL_VERSION + " player data journal.");
+
+        recover();
+    }
+
+    private void recover() {
+        int position = HEADER_SIZE;
+
+        // Replay entries until the first one that is truncated or fails its checksum.
+        while(position + ENTRY_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if(length < PAYLOAD_PREFIX_SIZE || position + ENTRY_HEADER_SIZE + length > buffer.capacity()) break;
+            if(buffer.getInt(position + 4) != checksum(position + ENTRY_HEADER_SIZE, length)) break;
+
+            byte type = buffer.get(position + ENTRY_HEADER_SIZE);
+            UUID uniqueId = new UUID(buffer.getLong(position + ENTRY_HEADER_SIZE + 1), buffer.getLong(position + ENTRY_HEADER_SIZE + 9));
+            index(type, uniqueId, position, ENTRY_HEADER_SIZE + length);
+
+            position += ENTRY_HEADER_SIZE + length;
+        }
+
+        writePosition = position;
+
+        // Clear the torn tail so that it can never be replayed after later appends.
+        for(int index = writePosition; index < buffer.capacity(); index++)
+            buffer.put(index, (byte) 0);
+    }
+
+    private void appendEntry(byte type, UUID uniqueId, byte[] body) throws IOException {
+        int length = PAYLOAD_PREFIX_SIZE + body.length;
+        int position = writePosition;
+        ensureCapacity(position + ENTRY_HEADER_SIZE + length);
+
+        // Write the payload, then its checksum and length.
+        ByteBuffer entry = buffer.duplicate();
+        entry.position(position + ENTRY_HEADER_SIZE);
+        entry.put(type).putLong(uniqueId.getMostSignificantBits()).putLong(uniqueId.getLeastSignificantBits()).put(body);
+
+        buffer.putInt(position + 4, checksum(position + ENTRY_HEADER_SIZE, length));
+        buffer.putInt(position, length);
+
+        index(type, uniqueId, position, ENTRY_HEADER_SIZE + length);
+        writePosition = position + ENTRY_HEADER_SIZE + length;
+    }
+
+    private void index(byte type, UUID uniqueId, int offset, int size) {
+        Integer previous = type == ENTRY_PUT ? entryOffsets.put(uniqueId, offset) : entryOffsets.remove(uniqueId);
+
+        // Track how many bytes of the journal are still live.
+        if(previous != null) liveBytes -= ENTRY_HEADER_SIZE + buffer.getInt(previous);
+        if(type == ENTRY_PUT) liveBytes += size;
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        // Capacity Guard Statement
+        if(required <= buffer.capacity()) return;
+
+        // Grow the mapping geometrically, which also extends the file.
+        long capacity = buffer.capacity();
+        while(capacity < required) capacity *= 2;
+        if(capacity > Integer.MAX_VALUE) throw new IOException(journalPath + " exceeded the maximum journal size.");
+
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private int checksum(int offset, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(offset).limit(offset + length);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
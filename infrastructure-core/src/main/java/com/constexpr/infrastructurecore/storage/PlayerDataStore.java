@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.storage;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.scheduler.BlockingExecutor;
+import com.constexpr.infrastructurecore.scheduler.SerialExecutor;
+import com.constexpr.infrastructurecore.scheduler.TimerHandle;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+
+/**
+ * The PlayerDataStore persists PlayerRecords to a local journal without blocking the server thread.
+ * <p>
+ * All journal access is confined to a SerialExecutor of the BlockingExecutor.
+ * Records are loaded asynchronously (or prefetched during AsyncPlayerPreLoginEvent)
+ * into a concurrent cache, mutated in memory, and written behind in batches:
+ * changed records are only marked dirty, and the storage executor appends all
+ * of them and forces the journal once per flush interval.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PlayerDataStore {
+    private static final long FLUSH_INTERVAL_MILLIS = 5000L;
+
+    private static final long PREFETCH_TIMEOUT_MILLIS = 5000L;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+
+    private final Path journalPath;
+
+    private final BlockingExecutor blockingExecutor;
+
+    private final SerialExecutor storageExecutor;
+
+    private final ConcurrentHashMap<UUID, PlayerRecord> cachedRecords = new ConcurrentHashMap<>();
+
+    private final Set<UUID> dirtyRecords = ConcurrentHashMap.newKeySet();
+
+    private final Set<UUID> releasedRecords = ConcurrentHashMap.newKeySet();
+
+    private final CompletableFuture<Void> opened = new CompletableFuture<>();
+
+    private PlayerDataJournal journal;
+
+    private volatile TimerHandle flushTask;
+
+    /**
+     * Constructor for a PlayerDataStore backed by a journal file.
+     *
+     * @param journalPath The path of the journal file.
+     * @param blockingExecutor The BlockingExecutor the journal is written on.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerDataStore(Path journalPath, BlockingExecutor blockingExecutor) {
+        this.journalPath = journalPath;
+        this.blockingExecutor = blockingExecutor;
+        this.storageExecutor = blockingExecutor.newSerialExecutor();
+    }
+
+    /**
+     * Opens the journal on the storage executor and starts the write-behind flush cycle.
+     * <p>
+     * Recovering the journal takes longer the larger it grows, so it runs in the
+     * background and loads queue behind it. Serving empty records without a
+     * journal would overwrite the stored ones on the next flush, so a journal
+     * that cannot be opened fails every load instead.
+     *
+     * @return A future completed once the journal is open, or exceptionally with an IllegalStateException if it cannot be opened.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Void> start() {
+        storageExecutor.execute(() -> {
+            try {
+                Files.createDirectories(journalPath.getParent());
+                journal = new PlayerDataJournal(journalPath);
+            } catch(IOException | RuntimeException exception) {
+                opened.completeExceptionally(new IllegalStateException("Failed to open player data journal " + journalPath + ".", exception));
+                return;
+            }
+
+            // Schedule the write-behind flush cycle once the journal is open.
+            flushTask = blockingExecutor.runTimer(storageExecutor, this::flushSafely, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS);
+            opened.complete(null);
+        });
+
+        return opened;
+    }
+
+    /**
+     * Loads the PlayerRecord of a Player asynchronously.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @return A future completed with the cached or loaded PlayerRecord, or exceptionally if the journal could not be opened.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<PlayerRecord> load(UUID uniqueId) {
+        PlayerRecord cachedRecord = cachedRecords.get(uniqueId);
+
+        // Cached Record Guard Statement
+        if(cachedRecord != null) return CompletableFuture.completedFuture(cachedRecord);
+
+        // Read the record on the storage executor once the journal is open, and publish it to the cache.
+        return opened.thenApplyAsync(ignored -> cachedRecords.computeIfAbsent(uniqueId, this::readRecord), storageExecutor);
+    }
+
+    /**
+     * Loads the PlayerRecord of a connecting Player so it is cached by the time they join.
+     * @apiNote blocks the calling thread, and must only be called from AsyncPlayerPreLoginEvent.
+     *
+     * @param uniqueId The UUID of the connecting Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void prefetch(UUID uniqueId) {
+        // A reconnecting Player keeps the record that is still cached.
+        retain(uniqueId);
+
+        try {
+            load(uniqueId).get(PREFETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException | TimeoutException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to prefetch player data for " + uniqueId + ".", exception);
+        }
+    }
+
+    /**
+     * Attaches the PlayerRecord of a Player to their InfrastructurePlayer.
+     * <p>
+     * Prefetched records are attached immediately; otherwise the record is
+     * attached once its asynchronous load completes.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer to attach the record to.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void attach(InfrastructurePlayer infrastructurePlayer) {
+        retain(infrastructurePlayer.getUniqueId());
+
+        load(infrastructurePlayer.getUniqueId()).thenAccept(infrastructurePlayer::setPlayerRecord);
+    }
+
+    /**
+     * Gets a cached PlayerRecord without loading it.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @return The cached PlayerRecord, or null if it is not loaded.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerRecord getCachedRecord(UUID uniqueId) {
+        return cachedRecords.get(uniqueId);
+    }
+
+    /**
+     * Marks a PlayerRecord as changed so that the next flush writes it.
+     *
+     * @param record The changed PlayerRecord.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void markDirty(PlayerRecord record) {
+        cachedRecords.putIfAbsent(record.getUniqueId(), record);
+        dirtyRecords.add(record.getUniqueId());
+    }
+
+    /**
+     * Releases the PlayerRecord of a Player who quit or whose login was denied.
+     * <p>
+     * The record is written by the next flush and evicted from the cache afterwards,
+     * unless the Player reconnects first. The release is queued behind any load
+     * of the record that is still pending, so a load that completes after the
+     * Player left is evicted as well.
+     *
+     * @param uniqueId The UUID of the Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void release(UUID uniqueId) {
+        try {
+            storageExecutor.execute(() -> {
+                // Unloaded Record Guard Statement
+                if(!cachedRecords.containsKey(uniqueId)) return;
+
+                releasedRecords.add(uniqueId);
+                dirtyRecords.add(uniqueId);
+            });
+        } catch(RejectedExecutionException exception) {
+            // The store is closed and its final flush has written every record.
+        }
+    }
+
+    /**
+     * Flushes all dirty records and closes the journal.
+     * @apiNote blocks until the final flush completes or times out, and should only be called on disable.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void close() {
+        if(flushTask != null) flushTask.cancel();
+
+        // The final task runs after every queued one, so waiting for it waits for them all.
+        CompletableFuture<Void> finalFlush = CompletableFuture.runAsync(() -> {
+            flushSafely();
+
+            try {
+                if(journal != null) journal.close();
+            } catch(IOException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to close player data journal " + journalPath + ".", exception);
+            }
+        }, storageExecutor);
+        storageExecutor.shutdown();
+
+        try {
+            finalFlush.get(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to flush player data.", exception.getCause());
+        } catch(TimeoutException exception) {
+            InfrastructureCorePluginHandle.LOGGER.warning("Timed out while flushing player data.");
+        }
+    }
+
+    private void retain(UUID uniqueId) {
+        // Queued like release(), so a reconnect always overrides the release of the previous session.
+        storageExecutor.execute(() -> releasedRecords.remove(uniqueId));
+    }
+
+    private PlayerRecord readRecord(UUID uniqueId) {
+        // Unavailable Journal Guard Statement
+        if(journal == null) throw new IllegalStateException("Player data journal " + journalPath + " is not open.");
+
+        byte[] body = journal.read(uniqueId);
+        if(body == null) return new PlayerRecord(uniqueId);
+
+        try {
+            return PlayerRecord.decode(uniqueId, body);
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Discarding unreadable player data for " + uniqueId + ".", exception);
+            return new PlayerRecord(uniqueId);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch(IOException | RuntimeException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to flush player data.", exception);
+        }
+    }
+
+    private void flush() throws IOException {
+        // Unavailable Journal Guard Statement
+        if(journal == null) return;
+
+        // Append every dirty record as one batch and force it once.
+        boolean appended = false;
+        for(Iterator<UUID> iterator = dirtyRecords.iterator(); iterator.hasNext();) {
+            UUID uniqueId = iterator.next();
+            iterator.remove();
+
+            PlayerRecord record = cachedRecords.get(uniqueId);
+            if(record == null) continue;
+
+            journal.append(uniqueId, record.encode());
+            appended = true;
+        }
+        if(appended) journal.force();
+
+        // Evict released records that were not changed again since they were written.
+        for(Iterator<UUID> iterator = releasedRecords.iterator(); iterator.hasNext();) {
+            UUID uniqueId = iterator.next();
+            if(dirtyRecords.contains(uniqueId)) continue;
+
+            iterator.remove();
+            cachedRecords.remove(uniqueId);
+        }
+
+        // Compact the journal once superseded entries dominate it.
+        if(journal.shouldCompact()) journal.compact();
+    }
+}
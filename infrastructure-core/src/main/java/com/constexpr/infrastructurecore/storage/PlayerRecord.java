@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.storage;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PlayerRecord is the persistent state of a Player that survives restarts.
+ * <p>
+ * Records hold lifetime usage counters, cooldown expiries and preferences, all
+ * keyed by name so that reordering enums in code never corrupts stored data.
+ * Every accessor is synchronized because records are mutated on the server
+ * thread and encoded on the storage executor.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PlayerRecord {
+    private static final int ENCODING_VERSION = 1;
+
+    private final UUID uniqueId;
+
+    private final Map<String, Long> counters = new HashMap<>();
+
+    private final Map<String, Long> cooldownExpiries = new HashMap<>();
+
+    private final Map<String, String> preferences = new HashMap<>();
+
+    /**
+     * Constructor for an empty PlayerRecord.
+     *
+     * @param uniqueId The UUID of the Player the record belongs to.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerRecord(UUID uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    /**
+     * Standard Getter for the Player's UUID.
+     *
+     * @return The UUID of the Player the record belongs to.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * Gets a lifetime usage counter.
+     *
+     * @param key The name of the counter.
+     * @return The value of the counter, or 0 if it was never incremented.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized long getCounter(String key) {
+        Long value = counters.get(key);
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * Increments a lifetime usage counter by one.
+     *
+     * @param key The name of the counter.
+     * @return The new value of the counter.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized long incrementCounter(String key) {
+        long value = getCounter(key) + 1L;
+        counters.put(key, value);
+        return value;
+    }
+
+    /**
+     * Gets the expiry of a cooldown.
+     *
+     * @param key The name of the cooldown.
+     * @return The expiry in epoch milliseconds, or 0 if no cooldown is set.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized long getCooldownExpiry(String key) {
+        Long value = cooldownExpiries.get(key);
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * Sets the expiry of a cooldown.
+     *
+     * @param key The name of the cooldown.
+     * @param epochMillis The expiry in epoch milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void setCooldownExpiry(String key, long epochMillis) {
+        cooldownExpiries.put(key, epochMillis);
+    }
+
+    /**
+     * Gets a preference value.
+     *
+     * @param key The name of the preference.
+     * @return The preference value, or null if it is not set.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized String getPreference(String key) {
+        return preferences.get(key);
+    }
+
+    /**
+     * Sets a preference value.
+     *
+     * @param key The name of the preference.
+     * @param value The preference value, or null to remove it.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void setPreference(String key, String value) {
+        if(value == null) preferences.remove(key);
+        else preferences.put(key, value);
+    }
+
+    /**
+     * Replaces the contents of this record with those of another, e.g. one synchronized from another server.
+     *
+     * @param source The record to copy.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void replaceWith(PlayerRecord source) {
+        Map<String, Long> sourceCounters;
+        Map<String, Long> sourceCooldownExpiries;
+        Map<String, String> sourcePreferences;
+
+        // Copy the source under its own lock, so the two records are never locked together.
+        synchronized(source) {
+            sourceCounters = new HashMap<>(source.counters);
+            sourceCooldownExpiries = new HashMap<>(source.cooldownExpiries);
+            sourcePreferences = new HashMap<>(source.preferences);
+        }
+
+        synchronized(this) {
+            counters.clear();
+            counters.putAll(sourceCounters);
+            cooldownExpiries.clear();
+            cooldownExpiries.putAll(sourceCooldownExpiries);
+            preferences.clear();
+            preferences.putAll(sourcePreferences);
+        }
+    }
+
+    /**
+     * Encodes the record into its journal representation.
+     * <p>
+     * Expired cooldowns are dropped while encoding so they do not accumulate.
+     *
+     * @return The encoded record.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized byte[] encode() {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(64);
+        long now = System.currentTimeMillis();
+
+        try(DataOutputStream output = new DataOutputStream(byteStream)) {
+            output.writeByte(ENCODING_VERSION);
+
+            // Lifetime Counters
+            output.writeInt(counters.size());
+            for(Map.Entry<String, Long> entry : counters.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+
+            // Unexpired Cooldowns
+            cooldownExpiries.values().removeIf(expiry -> expiry <= now);
+            output.writeInt(cooldownExpiries.size());
+            for(Map.Entry<String, Long> entry : cooldownExpiries.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+
+            // Preferences
+            output.writeInt(preferences.size());
+            for(Map.Entry<String, String> entry : preferences.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+        } catch(IOException exception) {
+            // ByteArrayOutputStream never throws, so this is unreachable.
+            throw new UncheckedIOException(exception);
+        }
+
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Decodes a record from its journal representation.
+     *
+     * @param uniqueId The UUID of the Player the record belongs to.
+     * @param encoded The encoded record.
+     * @return The decoded PlayerRecord.
+     * @throws IOException If the encoded record is malformed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static PlayerRecord decode(UUID uniqueId, byte[] encoded) throws IOException {
+        PlayerRecord record = new PlayerRecord(uniqueId);
+
+        try(DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int version = input.readUnsignedByte();
+            if(version != ENCODING_VERSION) throw new IOException("Unsupported PlayerRecord version " + version + ".");
+
+            // Lifetime Counters
+            for(int index = input.readInt(); index > 0; index--)
+                record.counters.put(input.readUTF(), input.readLong());
+
+            // Cooldowns
+            for(int index = input.readInt(); index > 0; index--)
+                record.cooldownExpiries.put(input.readUTF(), input.readLong());
+
+            // Preferences
+            for(int index = input.readInt(); index > 0; index--)
+                record.preferences.put(input.readUTF(), input.readUTF());
+        }
+
+        return record;
+    }
+}
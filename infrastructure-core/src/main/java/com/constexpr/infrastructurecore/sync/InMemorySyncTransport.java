@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-Memory SyncTransport connecting several SyncServices inside one JVM.
+ * <p>
+ * Frames are handed to the receivers of the other transports on the same
+ * Network directly on the sending thread, which makes the transport
+ * deterministic for tests and benchmarks.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class InMemorySyncTransport implements SyncTransport {
+    /**
+     * A group of InMemorySyncTransports that deliver to each other.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    public static class Network {
+        private final List<InMemorySyncTransport> members = new CopyOnWriteArrayList<>();
+
+        /**
+         * Default Constructor for Initialization
+         *
+         * @since 1.0.0-ALPHA
+         */
+        public Network() { }
+    }
+
+    private final Network network;
+
+    private volatile Consumer<byte[]> receiver;
+
+    /**
+     * Constructor for an InMemorySyncTransport.
+     *
+     * @param network The Network to join.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InMemorySyncTransport(Network network) {
+        this.network = network;
+    }
+
+    /**
+     * Joins the Network.
+     *
+     * @param receiver The consumer of frames sent by the other members.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        network.members.add(this);
+    }
+
+    /**
+     * Delivers a frame to every other member on the calling thread.
+     *
+     * @param frame The encoded frame.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void send(byte[] frame) {
+        for(InMemorySyncTransport member : network.members)
+            if(member != this) member.receiver.accept(frame);
+    }
+
+    /**
+     * Leaves the Network.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void close() {
+        network.members.remove(this);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import com.constexpr.infrastructurecore.storage.PlayerRecord;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PlayerSyncState is an immutable copy of the state that follows a Player between servers.
+ * <p>
+ * It holds the session counters and timestamps of the InfrastructurePlayer,
+ * the rate limit buckets that are still cooling down and the encoded
+ * PlayerRecord. Buckets are stored as the nanoseconds remaining until they
+ * are full again, since System.nanoTime() values mean nothing on another JVM.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class PlayerSyncState {
+    private static final InfrastructurePlayer.SessionCounter[] SESSION_COUNTERS = InfrastructurePlayer.SessionCounter.values();
+
+    private static final InfrastructurePlayer.SessionTimestamp[] SESSION_TIMESTAMPS = InfrastructurePlayer.SessionTimestamp.values();
+
+    private final UUID uniqueId;
+
+    private final long[] sessionCounters;
+
+    private final long[] sessionTimestamps;
+
+    private final String[] bucketKeys;
+
+    private final long[] bucketRemainingNanos;
+
+    private final byte[] record;
+
+    /**
+     * Constructor for a PlayerSyncState.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @param sessionCounters The session counters by SessionCounter ordinal.
+     * @param sessionTimestamps The session timestamps by SessionTimestamp ordinal.
+     * @param bucketKeys The command keys of the cooling rate limit buckets.
+     * @param bucketRemainingNanos The nanoseconds remaining on each bucket.
+     * @param record The encoded PlayerRecord, or an empty array if it was not loaded.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerSyncState(UUID uniqueId, long[] sessionCounters, long[] sessionTimestamps, String[] bucketKeys, long[] bucketRemainingNanos, byte[] record) {
+        this.uniqueId = uniqueId;
+        this.sessionCounters = sessionCounters;
+        this.sessionTimestamps = sessionTimestamps;
+        this.bucketKeys = bucketKeys;
+        this.bucketRemainingNanos = bucketRemainingNanos;
+        this.record = record;
+    }
+
+    /**
+     * Captures the synchronized state of an InfrastructurePlayer.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer.
+     * @return The captured state.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static PlayerSyncState capture(InfrastructurePlayer infrastructurePlayer) {
+        long[] sessionCounters = new long[SESSION_COUNTERS.length];
+        for(InfrastructurePlayer.SessionCounter counter : SESSION_COUNTERS)
+            sessionCounters[counter.ordinal()] = infrastructurePlayer.getCounter(counter);
+
+        long[] sessionTimestamps = new long[SESSION_TIMESTAMPS.length];
+        for(InfrastructurePlayer.SessionTimestamp timestamp : SESSION_TIMESTAMPS)
+            sessionTimestamps[timestamp.ordinal()] = infrastructurePlayer.getTimestamp(timestamp);
+
+        // Keep only the buckets that are still cooling down.
+        long now = System.nanoTime();
+        List<String> bucketKeys = new ArrayList<>();
+        List<Long> bucketRemainingNanos = new ArrayList<>();
+        for(Map.Entry<String, AtomicLong> entry : infrastructurePlayer.getRateLimitBuckets().entrySet()) {
+            long state = entry.getValue().get();
+            if(state == CommandRateLimiter.UNUSED_BUCKET || state - now <= 0) continue;
+
+            bucketKeys.add(entry.getKey());
+            bucketRemainingNanos.add(state - now);
+        }
+
+        long[] remaining = new long[bucketRemainingNanos.size()];
+        for(int index = 0; index < remaining.length; index++) remaining[index] = bucketRemainingNanos.get(index);
+
+        PlayerRecord playerRecord = infrastructurePlayer.getPlayerRecord();
+        return new PlayerSyncState(infrastructurePlayer.getUniqueId(), sessionCounters, sessionTimestamps,
+                bucketKeys.toArray(new String[0]), remaining, playerRecord == null ? new byte[0] : playerRecord.encode());
+    }
+
+    /**
+     * Applies the session counters, timestamps and rate limit buckets to an InfrastructurePlayer.
+     * @apiNote the PlayerRecord is applied separately, since it may still be loading.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer of the same Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void applyTo(InfrastructurePlayer infrastructurePlayer) {
+        // Counters and timestamps added by a newer version on the other server are ignored.
+        for(int ordinal = 0; ordinal < Math.min(sessionCounters.length, SESSION_COUNTERS.length); ordinal++)
+            infrastructurePlayer.setCounter(SESSION_COUNTERS[ordinal], sessionCounters[ordinal]);
+        for(int ordinal = 0; ordinal < Math.min(sessionTimestamps.length, SESSION_TIMESTAMPS.length); ordinal++)
+            infrastructurePlayer.setTimestamp(SESSION_TIMESTAMPS[ordinal], sessionTimestamps[ordinal]);
+
+        // Rebase the buckets onto this JVM's clock.
+        long now = System.nanoTime();
+        for(int index = 0; index < bucketKeys.length; index++)
+            infrastructurePlayer.getRateLimitBucket(bucketKeys[index]).set(now + bucketRemainingNanos[index]);
+    }
+
+    /**
+     * Decodes the PlayerRecord carried by this state.
+     *
+     * @return The PlayerRecord, or null if the other server had not loaded it.
+     * @throws IOException If the encoded record is malformed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerRecord decodeRecord() throws IOException {
+        return record.length == 0 ? null : PlayerRecord.decode(uniqueId, record);
+    }
+
+    /**
+     * Standard Getter for the Player's UUID.
+     *
+     * @return The UUID of the Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    long[] getSessionCounters() {
+        return sessionCounters;
+    }
+
+    long[] getSessionTimestamps() {
+        return sessionTimestamps;
+    }
+
+    String[] getBucketKeys() {
+        return bucketKeys;
+    }
+
+    long[] getBucketRemainingNanos() {
+        return bucketRemainingNanos;
+    }
+
+    byte[] getRecord() {
+        return record;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary Wire Encoding of SyncFrames.
+ * <p>
+ * Frames are encoded as [version][type][origin][destination][request id]
+ * [state count] followed by the states. Counts, counters, timestamps and
+ * remaining nanoseconds are written as unsigned LEB128 varints, so the typical
+ * small values take one or two bytes, and strings use modified UTF-8. Each
+ * state ends with its PlayerRecord in the journal encoding.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class SyncCodec {
+    private static final int WIRE_VERSION = 1;
+
+    private static final SyncFrame.Type[] TYPES = SyncFrame.Type.values();
+
+    private SyncCodec() { }
+
+    /**
+     * Encodes a SyncFrame.
+     *
+     * @param frame The frame to encode.
+     * @return The encoded frame.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static byte[] encode(SyncFrame frame) {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(64 + frame.getStates().size() * 64);
+
+        try(DataOutputStream output = new DataOutputStream(byteStream)) {
+            output.writeByte(WIRE_VERSION);
+            output.writeByte(frame.getType().ordinal());
+            output.writeUTF(frame.getOrigin());
+            output.writeUTF(frame.getDestination());
+            writeVarLong(output, frame.getRequestId());
+
+            writeVarLong(output, frame.getStates().size());
+            for(PlayerSyncState state : frame.getStates()) writeState(output, state);
+        } catch(IOException exception) {
+            // ByteArrayOutputStream never throws, so this is unreachable.
+            throw new UncheckedIOException(exception);
+        }
+
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Decodes a SyncFrame.
+     *
+     * @param encoded The encoded frame.
+     * @return The decoded frame.
+     * @throws IOException If the frame is malformed or of an unknown version.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static SyncFrame decode(byte[] encoded) throws IOException {
+        try(DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int version = input.readUnsignedByte();
+            if(version != WIRE_VERSION) throw new IOException("Unsupported sync wire version " + version + ".");
+
+            int type = input.readUnsignedByte();
+            if(type >= TYPES.length) throw new IOException("Unknown sync frame type " + type + ".");
+
+            String origin = input.readUTF();
+            String destination = input.readUTF();
+            long requestId = readVarLong(input);
+
+            int stateCount = readLength(input);
+            List<PlayerSyncState> states = new ArrayList<>(stateCount);
+            for(int index = 0; index < stateCount; index++) states.add(readState(input));
+
+            return new SyncFrame(TYPES[type], origin, destination, requestId, states);
+        }
+    }
+
+    private static void writeState(DataOutputStream output, PlayerSyncState state) throws IOException {
+        output.writeLong(state.getUniqueId().getMostSignificantBits());
+        output.writeLong(state.getUniqueId().getLeastSignificantBits());
+
+        // Session Counters and Timestamps
+        writeVarLongs(output, state.getSessionCounters());
+        writeVarLongs(output, state.getSessionTimestamps());
+
+        // Cooling Rate Limit Buckets
+        writeVarLong(output, state.getBucketKeys().length);
+        for(int index = 0; index < state.getBucketKeys().length; index++) {
+            output.writeUTF(state.getBucketKeys()[index]);
+            writeVarLong(output, state.getBucketRemainingNanos()[index]);
+        }
+
+        // Encoded PlayerRecord
+        writeVarLong(output, state.getRecord().length);
+        output.write(state.getRecord());
+    }
+
+    private static PlayerSyncState readState(DataInputStream input) throws IOException {
+        UUID uniqueId = new UUID(input.readLong(), input.readLong());
+        long[] sessionCounters = readVarLongs(input);
+        long[] sessionTimestamps = readVarLongs(input);
+
+        int bucketCount = readLength(input);
+        String[] bucketKeys = new String[bucketCount];
+        long[] bucketRemainingNanos = new long[bucketCount];
+        for(int index = 0; index < bucketCount; index++) {
+            bucketKeys[index] = input.readUTF();
+            bucketRemainingNanos[index] = readVarLong(input);
+        }
+
+        byte[] record = new byte[readLength(input)];
+        input.readFully(record);
+
+        return new PlayerSyncState(uniqueId, sessionCounters, sessionTimestamps, bucketKeys, bucketRemainingNanos, record);
+    }
+
+    private static void writeVarLongs(DataOutputStream output, long[] values) throws IOException {
+        writeVarLong(output, values.length);
+        for(long value : values) writeVarLong(output, value);
+    }
+
+    private static long[] readVarLongs(DataInputStream input) throws IOException {
+        long[] values = new long[readLength(input)];
+        for(int index = 0; index < values.length; index++) values[index] = readVarLong(input);
+        return values;
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+
+        for(int shift = 0; shift < Long.SIZE; shift += 7) {
+            int part = input.readUnsignedByte();
+            value |= (long) (part & 0x7F) << shift;
+            if((part & 0x80) == 0) return value;
+        }
+
+        throw new IOException("Malformed varint in sync frame.");
+    }
+
+    private static int readLength(DataInputStream input) throws IOException {
+        long length = readVarLong(input);
+
+        // Lengths can never exceed the bytes that are left in the frame.
+        if(length < 0 || length > input.available()) throw new IOException("Invalid length " + length + " in sync frame.");
+        return (int) length;
+    }
+}
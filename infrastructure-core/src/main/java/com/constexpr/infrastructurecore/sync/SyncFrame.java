@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SyncFrame is one message of the sync bus.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class SyncFrame {
+    /**
+     * The kinds of SyncFrames.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    public enum Type {
+        /**
+         * A batch of coalesced state updates, broadcast once per tick.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        STATE,
+
+        /**
+         * The state of a Player about to be sent to the destination server.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        HANDOFF,
+
+        /**
+         * The destination server's acknowledgement of a HANDOFF.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        HANDOFF_ACK
+    }
+
+    /**
+     * Destination of frames addressed to every server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String BROADCAST = "";
+
+    private final Type type;
+
+    private final String origin;
+
+    private final String destination;
+
+    private final long requestId;
+
+    private final List<PlayerSyncState> states;
+
+    /**
+     * Constructor for a SyncFrame.
+     *
+     * @param type The kind of frame.
+     * @param origin The name of the sending server.
+     * @param destination The name of the receiving server, or BROADCAST.
+     * @param requestId The handoff request the frame belongs to, or 0.
+     * @param states The carried Player states.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public SyncFrame(Type type, String origin, String destination, long requestId, List<PlayerSyncState> states) {
+        this.type = type;
+        this.origin = origin;
+        this.destination = destination;
+        this.requestId = requestId;
+        this.states = Collections.unmodifiableList(states);
+    }
+
+    /**
+     * Standard Getter for the Type.
+     *
+     * @return The kind of frame.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Standard Getter for the Origin.
+     *
+     * @return The name of the sending server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Standard Getter for the Destination.
+     *
+     * @return The name of the receiving server, or BROADCAST.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Standard Getter for the Request ID.
+     *
+     * @return The handoff request the frame belongs to, or 0.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Standard Getter for the States.
+     *
+     * @return The carried Player states.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<PlayerSyncState> getStates() {
+        return states;
+    }
+
+    /**
+     * Checks whether a server should handle this frame.
+     *
+     * @param serverName The name of the server.
+     * @return If the frame was sent by another server to this server or to every server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isAddressedTo(String serverName) {
+        return !origin.equals(serverName) && (destination.equals(BROADCAST) || destination.equals(serverName));
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import com.constexpr.infrastructurecore.api.InfrastructureCoreAPI;
+import com.constexpr.infrastructurecore.scheduler.TimerHandle;
+import com.constexpr.infrastructurecore.storage.PlayerDataStore;
+import com.constexpr.infrastructurecore.storage.PlayerRecord;
+import com.constexpr.infrastructurecore.utilities.player.InfrastructurePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * The SyncService lets per-player state follow Players between the servers of a BungeeCord network.
+ * <p>
+ * Changed InfrastructurePlayers are only marked dirty; once per tick the
+ * service captures every dirty Player once and broadcasts them as a single
+ * STATE frame, and a quitting Player is broadcast immediately. Other servers
+ * keep the received states until the Player joins them, so a server switch
+ * needs no database round-trip. For switches initiated by a plugin, handoff()
+ * pushes the state directly to the destination server and only sends the
+ * Player there once the destination has acknowledged it.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class SyncService implements Runnable {
+    /**
+     * The resource and data folder path of the sync configuration.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String CONFIG_RESOURCE = "sync.yml";
+
+    /**
+     * The plugin messaging channel used to send Players to another server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final String BUNGEE_CHANNEL = "BungeeCord";
+
+    private static final long HANDOFF_TIMEOUT_TICKS = 40L;
+
+    private static final int MIN_SECRET_LENGTH = 16;
+
+    private static final long PENDING_STATE_TTL_NANOS = TimeUnit.SECONDS.toNanos(60L);
+
+    private final Plugin plugin;
+
+    private final String serverName;
+
+    private final SyncTransport transport;
+
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentHashMap<UUID, PendingState> pendingStates = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Boolean>> pendingHandoffs = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextRequestId = new AtomicLong(1L);
+
+    private volatile boolean enabled;
+
+    private TimerHandle timerTask;
+
+    /**
+     * Constructor for a SyncService.
+     *
+     * @param plugin The Plugin that owns the flush task and plugin channel.
+     * @param serverName The name of this server, as configured on the proxy.
+     * @param transport The transport to the other servers, or null to disable synchronization.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public SyncService(Plugin plugin, String serverName, SyncTransport transport) {
+        this.plugin = plugin;
+        this.serverName = serverName;
+        this.transport = transport;
+    }
+
+    /**
+     * Creates a SyncService from the sync configuration.
+     *
+     * @param plugin The Plugin that owns the flush task and plugin channel.
+     * @param configuration The sync configuration.
+     * @return The SyncService, disabled unless the configuration enables it.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static SyncService fromConfiguration(Plugin plugin, ConfigurationSection configuration) {
+        String serverName = configuration.getString("server-name", "");
+
+        // Disabled Synchronization Guard Statement
+        if(!configuration.getBoolean("enabled", false)) return new SyncService(plugin, serverName, null);
+
+        // Frames overwrite player data, so they are never accepted without authentication.
+        String secret = configuration.getString("secret", "");
+        if(secret.length() < MIN_SECRET_LENGTH) {
+            InfrastructureCorePluginHandle.LOGGER.severe("sync.yml needs a secret of at least " + MIN_SECRET_LENGTH + " characters, synchronization is disabled.");
+            return new SyncService(plugin, serverName, null);
+        }
+
+        List<InetSocketAddress> peerAddresses = new ArrayList<>();
+        for(String peer : configuration.getStringList("peers")) peerAddresses.add(parseAddress(peer));
+
+        InetSocketAddress bindAddress = parseAddress(configuration.getString("bind", "127.0.0.1:25580"));
+        return new SyncService(plugin, serverName, new TcpSyncTransport(bindAddress, peerAddresses, secret));
+    }
+
+    /**
+     * Opens the transport and starts the per-tick flush.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void start() {
+        // Disabled Synchronization Guard Statement
+        if(transport == null) return;
+
+        try {
+            transport.start(this::receive);
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.SEVERE, "Failed to start the sync transport, synchronization is disabled.", exception);
+            return;
+        }
+        enabled = true;
+
+        if(plugin != null) {
+            plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, BUNGEE_CHANNEL);
+            timerTask = InfrastructureCoreAPI.getInfrastructureScheduler().runTimer(this, 1L, 1L);
+        }
+    }
+
+    /**
+     * Flushes the dirty Players and closes the transport.
+     * <p>
+     * Paper disables plugins before it kicks the Players, so the states
+     * published here and at quit are only sent because closing the transport
+     * waits for its send queue to drain.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void shutdown() {
+        // Disabled Synchronization Guard Statement
+        if(!enabled) return;
+
+        if(timerTask != null) timerTask.cancel();
+        run();
+
+        enabled = false;
+        transport.close();
+        for(CompletableFuture<Boolean> handoff : pendingHandoffs.values()) handoff.complete(false);
+        pendingHandoffs.clear();
+    }
+
+    /**
+     * Marks the state of a Player as changed, to be broadcast with the next tick's batch.
+     *
+     * @param infrastructurePlayer The changed InfrastructurePlayer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void markDirty(InfrastructurePlayer infrastructurePlayer) {
+        if(enabled) dirtyPlayers.add(infrastructurePlayer.getUniqueId());
+    }
+
+    /**
+     * Broadcasts the coalesced states of every dirty Player as one batch.
+     * @apiNote runs once per tick on the server thread.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void run() {
+        // Capture each dirty Player once, however often they changed this tick.
+        List<PlayerSyncState> states = new ArrayList<>();
+        for(Iterator<UUID> iterator = dirtyPlayers.iterator(); iterator.hasNext();) {
+            InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(iterator.next());
+            iterator.remove();
+
+            if(infrastructurePlayer != null) states.add(PlayerSyncState.capture(infrastructurePlayer));
+        }
+        if(!states.isEmpty()) transport.send(SyncCodec.encode(new SyncFrame(SyncFrame.Type.STATE, serverName, SyncFrame.BROADCAST, 0L, states)));
+
+        // Expire the states of Players that never joined this server.
+        long now = System.nanoTime();
+        pendingStates.values().removeIf(pendingState -> now - pendingState.receivedNanos > PENDING_STATE_TTL_NANOS);
+    }
+
+    /**
+     * Broadcasts the state of a Player immediately, e.g. when they quit.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void publish(InfrastructurePlayer infrastructurePlayer) {
+        // Disabled Synchronization Guard Statement
+        if(!enabled) return;
+
+        dirtyPlayers.remove(infrastructurePlayer.getUniqueId());
+        transport.send(SyncCodec.encode(new SyncFrame(SyncFrame.Type.STATE, serverName, SyncFrame.BROADCAST, 0L,
+                Collections.singletonList(PlayerSyncState.capture(infrastructurePlayer)))));
+    }
+
+    /**
+     * Pushes the state of a Player to another server, then sends the Player there.
+     * <p>
+     * The Player is sent once the destination acknowledges the state, or after
+     * two seconds without an acknowledgement, in which case the destination
+     * relies on the broadcast the quit triggers.
+     *
+     * @param player The Player to send.
+     * @param destination The name of the destination server, as configured on the proxy.
+     * @return A future completed on the server thread with whether the destination acknowledged the state.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public CompletableFuture<Boolean> handoff(Player player, String destination) {
+        CompletableFuture<Boolean> acknowledged = new CompletableFuture<>();
+
+        if(enabled) {
+            long requestId = nextRequestId.getAndIncrement();
+            pendingHandoffs.put(requestId, acknowledged);
+
+            PlayerSyncState state = PlayerSyncState.capture(InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(player));
+            transport.send(SyncCodec.encode(new SyncFrame(SyncFrame.Type.HANDOFF, serverName, destination, requestId, Collections.singletonList(state))));
+
+            // Give up waiting for the acknowledgement after the timeout.
+            if(plugin != null) InfrastructureCoreAPI.getInfrastructureScheduler().runLater(() -> {
+                CompletableFuture<Boolean> handoff = pendingHandoffs.remove(requestId);
+                if(handoff != null) handoff.complete(false);
+            }, HANDOFF_TIMEOUT_TICKS);
+        } else acknowledged.complete(false);
+
+        return acknowledged.thenApplyAsync(acked -> {
+            connect(player, destination);
+            return acked;
+        }, InfrastructureCoreAPI.getInfrastructureScheduler().getMainThreadExecutor());
+    }
+
+    /**
+     * Applies the state received for a joining Player.
+     *
+     * @param infrastructurePlayer The InfrastructurePlayer of the joining Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void attach(InfrastructurePlayer infrastructurePlayer) {
+        PendingState pendingState = pendingStates.remove(infrastructurePlayer.getUniqueId());
+
+        // No State Guard Statement
+        if(pendingState == null) return;
+
+        apply(infrastructurePlayer, pendingState.state);
+    }
+
+    /**
+     * Standard Getter for the Server Name.
+     *
+     * @return The name of this server.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * Checks whether synchronization is running.
+     *
+     * @return If the transport is open.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void receive(byte[] encoded) {
+        SyncFrame frame;
+        try {
+            frame = SyncCodec.decode(encoded);
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Discarding malformed sync frame.", exception);
+            return;
+        }
+
+        // Foreign Frame Guard Statement
+        if(!frame.isAddressedTo(serverName)) return;
+
+        switch(frame.getType()) {
+            case STATE:
+                for(PlayerSyncState state : frame.getStates()) accept(state);
+                break;
+            case HANDOFF:
+                for(PlayerSyncState state : frame.getStates()) accept(state);
+                transport.send(SyncCodec.encode(new SyncFrame(SyncFrame.Type.HANDOFF_ACK, serverName, frame.getOrigin(),
+                        frame.getRequestId(), Collections.emptyList())));
+                break;
+            case HANDOFF_ACK:
+                CompletableFuture<Boolean> handoff = pendingHandoffs.remove(frame.getRequestId());
+                if(handoff != null) handoff.complete(true);
+                break;
+        }
+    }
+
+    private void accept(PlayerSyncState state) {
+        // A Player who already joined receives the state they left the other server with.
+        if(InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(state.getUniqueId()) != null) {
+            applyOnMainThread(state);
+            return;
+        }
+
+        PendingState pendingState = new PendingState(state, System.nanoTime());
+        pendingStates.put(state.getUniqueId(), pendingState);
+
+        // The Player may have joined and attached between the lookup and the put; then attach() never sees the state.
+        if(InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(state.getUniqueId()) != null
+                && pendingStates.remove(state.getUniqueId(), pendingState))
+            applyOnMainThread(state);
+    }
+
+    private void applyOnMainThread(PlayerSyncState state) {
+        InfrastructureCoreAPI.getInfrastructureScheduler().runSync(() -> {
+            InfrastructurePlayer infrastructurePlayer = InfrastructureCoreAPI.getInfrastructurePlayerRegistry().get(state.getUniqueId());
+            if(infrastructurePlayer != null) apply(infrastructurePlayer, state);
+        });
+    }
+
+    private void apply(InfrastructurePlayer infrastructurePlayer, PlayerSyncState state) {
+        state.applyTo(infrastructurePlayer);
+
+        // Replace the local PlayerRecord once it is loaded, and write it behind.
+        try {
+            PlayerRecord syncedRecord = state.decodeRecord();
+            if(syncedRecord == null) return;
+
+            PlayerDataStore playerDataStore = InfrastructureCoreAPI.getPlayerDataStore();
+            playerDataStore.load(infrastructurePlayer.getUniqueId()).thenAccept(playerRecord -> {
+                playerRecord.replaceWith(syncedRecord);
+                playerDataStore.markDirty(playerRecord);
+            });
+        } catch(IOException exception) {
+            InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Discarding unreadable synced player data for " + infrastructurePlayer.getUniqueId() + ".", exception);
+        }
+    }
+
+    private void connect(Player player, String destination) {
+        // Player Quit Guard Statement
+        if(!player.isOnline() || plugin == null) return;
+
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try(DataOutputStream output = new DataOutputStream(byteStream)) {
+            output.writeUTF("Connect");
+            output.writeUTF(destination);
+        } catch(IOException exception) {
+            // ByteArrayOutputStream never throws, so this is unreachable.
+            throw new UncheckedIOException(exception);
+        }
+
+        player.sendPluginMessage(plugin, BUNGEE_CHANNEL, byteStream.toByteArray());
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if(separator < 0) throw new IllegalArgumentException("Sync address " + address + " has no port.");
+
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+
+    /**
+     * A received state waiting for its Player to join.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static class PendingState {
+        private final PlayerSyncState state;
+
+        private final long receivedNanos;
+
+        private PendingState(PlayerSyncState state, long receivedNanos) {
+            this.state = state;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * SyncTransport moves encoded SyncFrames between the servers of a network.
+ * <p>
+ * Every frame is delivered to every other server on the transport; frames
+ * carry their own destination, so addressing is left to the SyncService.
+ * Implementations must not block the caller of send().
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public interface SyncTransport {
+    /**
+     * Starts delivering received frames.
+     *
+     * @param receiver The consumer of received frames, called from transport threads.
+     * @throws IOException If the transport could not be opened.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    /**
+     * Sends a frame to every other server without blocking.
+     *
+     * @param frame The encoded frame.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void send(byte[] frame);
+
+    /**
+     * Stops the transport and releases its resources.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    void close();
+}
@@ -0,0 +1,409 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.sync;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * TCP SyncTransport with length-prefixed frames.
+ * <p>
+ * Each server listens on its bind address and keeps one outbound connection
+ * per peer. send() only queues the frame; a single sender thread writes it to
+ * every peer, reconnecting lazily after a failure, and a reader thread per
+ * inbound connection hands received frames to the receiver. Frames that do
+ * not fit in the queue are dropped and counted, and the periodic broadcasts
+ * of the SyncService recover from the loss.
+ * <p>
+ * Every frame is sealed with its send time and an HMAC-SHA256 over both,
+ * keyed with the secret shared by the network. A connection that delivers a
+ * frame with a wrong MAC, or one older than thirty seconds, is closed, so
+ * only servers that know the secret can write player state, and recorded
+ * frames cannot be replayed later.
+ * <p>
+ * A watchdog closes the connection to a peer whose write has stalled, so one
+ * unresponsive server cannot hold up the others, and close() gives the
+ * sender a bounded time to drain the queue before the connections go down.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class TcpSyncTransport implements SyncTransport {
+    private static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final int MAC_BYTES = 32;
+
+    private static final long MAX_FRAME_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30L);
+
+    private static final int SEND_QUEUE_CAPACITY = 1024;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 1000L;
+
+    private static final long WRITE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2L);
+
+    private static final long WATCHDOG_PERIOD_MILLIS = 250L;
+
+    private static final long SEND_POLL_MILLIS = 100L;
+
+    private static final long CLOSE_DRAIN_MILLIS = 3000L;
+
+    private final InetSocketAddress bindAddress;
+
+    private final SecretKeySpec secretKey;
+
+    private final List<Peer> peers = new ArrayList<>();
+
+    private final BlockingQueue<byte[]> sendQueue = new ArrayBlockingQueue<>(SEND_QUEUE_CAPACITY);
+
+    private final LongAdder droppedFrames = new LongAdder();
+
+    private final List<Socket> inboundSockets = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private ServerSocket serverSocket;
+
+    private Thread senderThread;
+
+    /**
+     * Constructor for a TcpSyncTransport.
+     *
+     * @param bindAddress The address to accept peer connections on.
+     * @param peerAddresses The addresses of the other servers.
+     * @param secret The secret shared by every server of the network.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public TcpSyncTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peerAddresses, String secret) {
+        if(secret == null || secret.isEmpty()) throw new IllegalArgumentException("The sync secret must not be empty.");
+
+        this.bindAddress = bindAddress;
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        for(InetSocketAddress peerAddress : peerAddresses) peers.add(new Peer(peerAddress));
+    }
+
+    /**
+     * Binds the listening socket and starts the acceptor and sender threads.
+     *
+     * @param receiver The consumer of received frames, called from the reader threads.
+     * @throws IOException If the listening socket could not be bound.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(bindAddress);
+        running = true;
+
+        startThread("InfrastructureCore-Sync-Acceptor", () -> accept(receiver));
+        senderThread = startThread("InfrastructureCore-Sync-Sender", this::sendQueued);
+        startThread("InfrastructureCore-Sync-Watchdog", this::watchWrites);
+    }
+
+    /**
+     * Queues a frame for every peer, dropping it if the queue is full.
+     *
+     * @param frame The encoded frame.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void send(byte[] frame) {
+        if(!sendQueue.offer(frame)) droppedFrames.increment();
+    }
+
+    /**
+     * Sends the queued frames, then closes the listening socket and every connection.
+     * <p>
+     * Waits at most three seconds for the queue to drain; frames still queued
+     * after that are dropped.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @Override
+    public void close() {
+        running = false;
+        closeQuietly(serverSocket);
+
+        // Let the sender drain the queue, then abort whatever write is still in flight.
+        if(senderThread != null) {
+            try {
+                senderThread.join(CLOSE_DRAIN_MILLIS);
+            } catch(InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            if(senderThread.isAlive()) {
+                InfrastructureCorePluginHandle.LOGGER.warning("Dropping " + sendQueue.size() + " sync frames that could not be sent before shutdown.");
+                senderThread.interrupt();
+                for(Peer peer : peers) peer.abort();
+            }
+        }
+
+        synchronized(inboundSockets) {
+            for(Socket socket : inboundSockets) closeQuietly(socket);
+            inboundSockets.clear();
+        }
+    }
+
+    /**
+     * Standard Getter for the number of dropped frames.
+     *
+     * @return The number of frames dropped because the send queue was full.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.sum();
+    }
+
+    private void accept(Consumer<byte[]> receiver) {
+        while(running) {
+            try {
+                Socket socket = serverSocket.accept();
+                synchronized(inboundSockets) {
+                    inboundSockets.add(socket);
+                }
+
+                startThread("InfrastructureCore-Sync-Reader", () -> read(socket, receiver));
+            } catch(IOException exception) {
+                if(running) InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to accept a sync connection.", exception);
+            }
+        }
+    }
+
+    private void read(Socket socket, Consumer<byte[]> receiver) {
+        Mac mac = createMac();
+
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while(running) {
+                int length = input.readInt();
+                if(length < 0 || length > MAX_FRAME_BYTES) throw new IOException("Invalid sync frame length " + length + ".");
+
+                byte[] sealed = new byte[length];
+                input.readFully(sealed);
+                receiver.accept(unseal(mac, sealed));
+            }
+        } catch(EOFException exception) {
+            // The peer closed the connection.
+        } catch(IOException | RuntimeException exception) {
+            if(running) InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Closing sync connection from " + socket.getRemoteSocketAddress() + ".", exception);
+        } finally {
+            closeQuietly(socket);
+            synchronized(inboundSockets) {
+                inboundSockets.remove(socket);
+            }
+        }
+    }
+
+    private void sendQueued() {
+        Mac mac = createMac();
+
+        // Keep sending after close() until the queue is drained.
+        while(running || !sendQueue.isEmpty()) {
+            byte[] frame;
+            try {
+                frame = sendQueue.poll(SEND_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException exception) {
+                break;
+            }
+
+            if(frame == null) continue;
+
+            byte[] sealed = seal(mac, frame);
+            for(Peer peer : peers) peer.write(sealed);
+        }
+
+        for(Peer peer : peers) peer.disconnect();
+    }
+
+    private void watchWrites() {
+        while(running) {
+            try {
+                Thread.sleep(WATCHDOG_PERIOD_MILLIS);
+            } catch(InterruptedException exception) {
+                break;
+            }
+
+            long now = System.nanoTime();
+            for(Peer peer : peers)
+                if(peer.isWriteStalled(now)) peer.abort();
+        }
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch(GeneralSecurityException exception) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available.", exception);
+        }
+    }
+
+    private static byte[] seal(Mac mac, byte[] frame) {
+        // Send Time, Frame, MAC over Both
+        byte[] sealed = ByteBuffer.allocate(Long.BYTES + frame.length + MAC_BYTES)
+                .putLong(System.currentTimeMillis()).put(frame).array();
+
+        try {
+            mac.update(sealed, 0, sealed.length - MAC_BYTES);
+            mac.doFinal(sealed, sealed.length - MAC_BYTES);
+        } catch(ShortBufferException exception) {
+            // The buffer always has room for the MAC, so this is unreachable.
+            throw new IllegalStateException(exception);
+        }
+
+        return sealed;
+    }
+
+    private static byte[] unseal(Mac mac, byte[] sealed) throws IOException {
+        if(sealed.length < Long.BYTES + MAC_BYTES) throw new IOException("Truncated sync frame.");
+
+        // Compare the MAC in constant time before anything else is read.
+        int macOffset = sealed.length - MAC_BYTES;
+        mac.update(sealed, 0, macOffset);
+        if(!MessageDigest.isEqual(mac.doFinal(), Arrays.copyOfRange(sealed, macOffset, sealed.length)))
+            throw new IOException("Sync frame failed authentication, check that every server uses the same secret.");
+
+        long sentAt = ByteBuffer.wrap(sealed).getLong();
+        if(Math.abs(System.currentTimeMillis() - sentAt) > MAX_FRAME_AGE_MILLIS)
+            throw new IOException("Sync frame is older than " + MAX_FRAME_AGE_MILLIS + "ms, check the server clocks.");
+
+        return Arrays.copyOfRange(sealed, Long.BYTES, macOffset);
+    }
+
+    private static Thread startThread(String name, Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if(closeable != null) closeable.close();
+        } catch(IOException exception) {
+            // Nothing left to release.
+        }
+    }
+
+    /**
+     * Outbound connection to one peer, written by the sender thread only.
+     * <p>
+     * The watchdog thread may abort a stalled write by closing the socket.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static class Peer {
+        private final InetSocketAddress address;
+
+        private volatile Socket socket;
+
+        private DataOutputStream output;
+
+        // The start of the write in progress, or 0 while the peer is idle.
+        private volatile long writeStartedNanos;
+
+        private long nextConnectMillis;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        private void write(byte[] frame) {
+            // Reconnect Back-Off Guard Statement
+            if(output == null && System.currentTimeMillis() < nextConnectMillis) return;
+
+            try {
+                if(output == null) connect();
+
+                writeStartedNanos = System.nanoTime();
+                output.writeInt(frame.length);
+                output.write(frame);
+                output.flush();
+            } catch(IOException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.FINE, "Failed to send a sync frame to " + address + ".", exception);
+                disconnect();
+                nextConnectMillis = System.currentTimeMillis() + RECONNECT_DELAY_MILLIS;
+            } finally {
+                writeStartedNanos = 0L;
+            }
+        }
+
+        private boolean isWriteStalled(long now) {
+            long started = writeStartedNanos;
+            return started != 0L && now - started > WRITE_TIMEOUT_NANOS;
+        }
+
+        private void abort() {
+            // Closing the socket makes the blocked write fail on the sender thread.
+            closeQuietly(socket);
+        }
+
+        private void connect() throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+            output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        private void disconnect() {
+            closeQuietly(socket);
+            socket = null;
+            output = null;
+        }
+    }
+}
@@ -24,17 +24,96 @@
 
 package com.constexpr.infrastructurecore.utilities.player;
 
+import com.constexpr.infrastructurecore.command.permission.PermissionDecisions;
+import com.constexpr.infrastructurecore.command.ratelimit.CommandRateLimiter;
+import com.constexpr.infrastructurecore.storage.PlayerRecord;
 import org.bukkit.entity.Player;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 /**
  * InfrastructurePlayer is a container for the Bukkit API Player Objects.
+ * <p>
+ * Per-session state is kept in primitive arrays indexed by the SessionCounter
+ * and SessionTimestamp enums, so reading or updating it never allocates.
+ * State that survives restarts lives in the attached PlayerRecord.
  *
  * @author constexpr
  * @version 1.0.0-ALPHA
  * @since 1.0.0-ALPHA
  */
 public class InfrastructurePlayer {
-    private Player player;
+    /**
+     * Session Counters tracked for every InfrastructurePlayer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public enum SessionCounter {
+        /**
+         * Number of InfrastructureCore commands executed this session.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        COMMANDS_EXECUTED(),
+
+        /**
+         * Number of repair commands executed this session.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        REPAIRS(),
+
+        /**
+         * Number of suicide commands executed this session.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        SUICIDES()
+    }
+
+    /**
+     * Session Timestamps tracked for every InfrastructurePlayer, in epoch milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public enum SessionTimestamp {
+        /**
+         * The time the Player joined the server.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        JOINED(),
+
+        /**
+         * The time the Player last executed an InfrastructureCore command.
+         *
+         * @since 1.0.0-ALPHA
+         */
+        LAST_COMMAND()
+    }
+
+    private static final int SESSION_COUNTER_COUNT = SessionCounter.values().length;
+
+    private static final int SESSION_TIMESTAMP_COUNT = SessionTimestamp.values().length;
+
+    private final UUID uniqueId;
+
+    private final AtomicLongArray sessionCounters = new AtomicLongArray(SESSION_COUNTER_COUNT);
+
+    private final AtomicLongArray sessionTimestamps = new AtomicLongArray(SESSION_TIMESTAMP_COUNT);
+
+    private final ConcurrentHashMap<String, AtomicLong> rateLimitBuckets = new ConcurrentHashMap<>();
+
+    private volatile Player player;
+
+    private volatile PlayerRecord playerRecord;
+
+    private volatile PermissionDecisions permissionDecisions;
 
     /**
      * Recommended Constructor for Instantiating an InfrastructurePlayer.
@@ -44,6 +123,7 @@ public class InfrastructurePlayer {
      * @since 1.0.0-ALPHA
      */
     public InfrastructurePlayer(Player player) {
+        this.uniqueId = player.getUniqueId();
         this.player = player;
     }
 
@@ -60,6 +140,8 @@ public class InfrastructurePlayer {
 
     /**
      * Standard Setter for the Bukkit API Player Interface
+     * <p>
+     * The cached permission decisions belong to the previous handle and are dropped.
      *
      * @param player The Bukkit API Player Interface.
      *
@@ -67,5 +149,151 @@ public class InfrastructurePlayer {
      */
     public void setPlayerHandle(Player player) {
         this.player = player;
+        this.permissionDecisions = null;
+    }
+
+    /**
+     * Standard Getter for the Player's UUID.
+     *
+     * @return The UUID of the Player this container belongs to.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * Gets the current value of a session counter.
+     *
+     * @param counter The Session Counter to read.
+     * @return The value of the counter.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getCounter(SessionCounter counter) {
+        return sessionCounters.get(counter.ordinal());
+    }
+
+    /**
+     * Increments a session counter by one.
+     *
+     * @param counter The Session Counter to increment.
+     * @return The new value of the counter.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long incrementCounter(SessionCounter counter) {
+        return sessionCounters.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Sets a session counter, e.g. to the value synchronized from another server.
+     *
+     * @param counter The Session Counter to set.
+     * @param value The new value of the counter.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setCounter(SessionCounter counter, long value) {
+        sessionCounters.set(counter.ordinal(), value);
+    }
+
+    /**
+     * Gets a session timestamp.
+     *
+     * @param timestamp The Session Timestamp to read.
+     * @return The timestamp in epoch milliseconds, or 0 if it was never set.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getTimestamp(SessionTimestamp timestamp) {
+        return sessionTimestamps.get(timestamp.ordinal());
+    }
+
+    /**
+     * Sets a session timestamp.
+     *
+     * @param timestamp The Session Timestamp to set.
+     * @param epochMillis The timestamp in epoch milliseconds.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setTimestamp(SessionTimestamp timestamp, long epochMillis) {
+        sessionTimestamps.set(timestamp.ordinal(), epochMillis);
+    }
+
+    /**
+     * Gets the rate limit bucket of a command for this Player.
+     * @apiNote the bucket state is owned by the CommandRateLimiter.
+     *
+     * @param commandKey The key of the command, e.g. "repair all".
+     * @return The bucket of the command.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public AtomicLong getRateLimitBucket(String commandKey) {
+        AtomicLong bucket = rateLimitBuckets.get(commandKey);
+
+        // Create the bucket on first use only, so later lookups never lock.
+        if(bucket == null) bucket = rateLimitBuckets.computeIfAbsent(commandKey, key -> new AtomicLong(CommandRateLimiter.UNUSED_BUCKET));
+
+        return bucket;
+    }
+
+    /**
+     * Gets a read-only view of the rate limit buckets this Player has used.
+     * @apiNote the bucket state is owned by the CommandRateLimiter.
+     *
+     * @return The buckets by command key.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Map<String, AtomicLong> getRateLimitBuckets() {
+        return Collections.unmodifiableMap(rateLimitBuckets);
+    }
+
+    /**
+     * Standard Getter for the persistent PlayerRecord.
+     *
+     * @return The PlayerRecord, or null while it is still being loaded.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerRecord getPlayerRecord() {
+        return playerRecord;
+    }
+
+    /**
+     * Standard Setter for the persistent PlayerRecord.
+     *
+     * @param playerRecord The PlayerRecord of the Player.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setPlayerRecord(PlayerRecord playerRecord) {
+        this.playerRecord = playerRecord;
+    }
+
+    /**
+     * Standard Getter for the cached PermissionDecisions.
+     *
+     * @return The PermissionDecisions, or null if none are cached.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PermissionDecisions getPermissionDecisions() {
+        return permissionDecisions;
+    }
+
+    /**
+     * Standard Setter for the cached PermissionDecisions.
+     *
+     * @param permissionDecisions The PermissionDecisions, or null to drop them.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void setPermissionDecisions(PermissionDecisions permissionDecisions) {
+        this.permissionDecisions = permissionDecisions;
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.utilities.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The InfrastructurePlayerRegistry owns the InfrastructurePlayer of every online Player.
+ * <p>
+ * Containers are created when a Player joins and evicted when they quit, so
+ * lookups from commands are a single concurrent map read by UUID. A container
+ * never outlives the session it was created for, which keeps the Player handle
+ * of a previous connection from leaking into the next one.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class InfrastructurePlayerRegistry {
+    /**
+     * The Number of Completions kept per Player Name Prefix
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int PLAYER_NAME_COMPLETIONS = 32;
+
+    private final ConcurrentHashMap<UUID, InfrastructurePlayer> infrastructurePlayers = new ConcurrentHashMap<>();
+
+    private final PlayerNameTrie playerNameTrie = new PlayerNameTrie(PLAYER_NAME_COMPLETIONS);
+
+    /**
+     * Default Constructor for Initialization
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayerRegistry() { }
+
+    /**
+     * Creates and registers a fresh InfrastructurePlayer for a joining Player.
+     * <p>
+     * Any container left over from a previous connection is replaced.
+     *
+     * @param player The joining Player.
+     * @return The newly registered InfrastructurePlayer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayer register(Player player) {
+        // Replace any stale container and drop its Player handle.
+        InfrastructurePlayer infrastructurePlayer = createInfrastructurePlayer(player);
+        InfrastructurePlayer previous = infrastructurePlayers.put(player.getUniqueId(), infrastructurePlayer);
+        if(previous != null) previous.setPlayerHandle(null);
+
+        return infrastructurePlayer;
+    }
+
+    /**
+     * Evicts the InfrastructurePlayer of a quitting Player.
+     *
+     * @param player The quitting Player.
+     * @return The evicted InfrastructurePlayer, or null if none was registered.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayer unregister(Player player) {
+        InfrastructurePlayer infrastructurePlayer = infrastructurePlayers.remove(player.getUniqueId());
+
+        // Drop the Player handle so references held elsewhere do not keep it alive.
+        if(infrastructurePlayer != null) infrastructurePlayer.setPlayerHandle(null);
+
+        playerNameTrie.remove(player.getName());
+
+        return infrastructurePlayer;
+    }
+
+    /**
+     * Gets the InfrastructurePlayer of an online Player.
+     * <p>
+     * Online Players that joined before the registry existed (e.g. after a
+     * reload) are registered atomically on first lookup, and a container holding
+     * a different Player handle than the one given is rebound to it. Players that
+     * have already quit are never registered again, since nothing would evict
+     * their container or their name.
+     *
+     * @param player The online Player.
+     * @return The InfrastructurePlayer of the Player.
+     * @throws IllegalArgumentException If the Player is not registered and no longer online.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayer get(Player player) {
+        InfrastructurePlayer infrastructurePlayer = infrastructurePlayers.get(player.getUniqueId());
+
+        // Unregistered Player Guard Statement
+        if(infrastructurePlayer == null) {
+            if(!player.isOnline()) throw new IllegalArgumentException(player.getName() + " is not online.");
+
+            infrastructurePlayer = infrastructurePlayers.computeIfAbsent(player.getUniqueId(), uniqueId -> createInfrastructurePlayer(player));
+        }
+
+        // Stale Player Handle Guard Statement
+        if(infrastructurePlayer.getPlayerHandle() != player) infrastructurePlayer.setPlayerHandle(player);
+
+        return infrastructurePlayer;
+    }
+
+    /**
+     * Gets the InfrastructurePlayer registered for a UUID.
+     *
+     * @param uniqueId The UUID of the Player.
+     * @return The InfrastructurePlayer, or null if the Player is not online.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InfrastructurePlayer get(UUID uniqueId) {
+        return infrastructurePlayers.get(uniqueId);
+    }
+
+    /**
+     * Gets a read-only view of all registered InfrastructurePlayers.
+     *
+     * @return The registered InfrastructurePlayers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Collection<InfrastructurePlayer> getInfrastructurePlayers() {
+        return Collections.unmodifiableCollection(infrastructurePlayers.values());
+    }
+
+    /**
+     * Registers every Player that is already online.
+     * @apiNote used on enable so that a reload does not leave online Players unregistered.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void registerOnlinePlayers() {
+        for(Player player : Bukkit.getOnlinePlayers())
+            register(player);
+    }
+
+    /**
+     * Evicts every registered InfrastructurePlayer.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public void clear() {
+        for(InfrastructurePlayer infrastructurePlayer : infrastructurePlayers.values())
+            infrastructurePlayer.setPlayerHandle(null);
+
+        infrastructurePlayers.clear();
+        playerNameTrie.clear();
+    }
+
+    /**
+     * Standard Getter for the Player Name Trie.
+     *
+     * @return The prefix trie of online Player names.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerNameTrie getPlayerNameTrie() {
+        return playerNameTrie;
+    }
+
+    private InfrastructurePlayer createInfrastructurePlayer(Player player) {
+        InfrastructurePlayer infrastructurePlayer = new InfrastructurePlayer(player);
+        infrastructurePlayer.setTimestamp(InfrastructurePlayer.SessionTimestamp.JOINED, System.currentTimeMillis());
+
+        // Make the name available to tab completion.
+        playerNameTrie.add(player.getName());
+
+        return infrastructurePlayer;
+    }
+}
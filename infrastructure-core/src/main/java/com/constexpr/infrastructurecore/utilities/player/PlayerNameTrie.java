@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.utilities.player;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlayerNameTrie is a case-insensitive prefix trie of online Player names.
+ * <p>
+ * Every node keeps the alphabetically first names of its subtree in an
+ * immutable array, so completing a prefix walks one node per character and
+ * returns that array without looking at any other name. Names are added and
+ * removed incrementally as Players join and quit; only the nodes on the path
+ * of the changed name are updated. Mutations are serialized, and completions
+ * read without locking, seeing each node's array either before or after an
+ * update.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public class PlayerNameTrie {
+    private static final String[] NO_NAMES = new String[0];
+
+    private final int capacity;
+
+    private final Node root = new Node();
+
+    /**
+     * Constructor for a PlayerNameTrie.
+     *
+     * @param capacity The maximum number of completions kept per prefix.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public PlayerNameTrie(int capacity) {
+        if(capacity <= 0) throw new IllegalArgumentException("The completion capacity must be positive.");
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the name of an online Player.
+     *
+     * @param name The Player name.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void add(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+
+        // Walk down the path of the name, creating missing nodes.
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for(int index = 0; index < key.length(); index++)
+            path[index + 1] = path[index].children.computeIfAbsent(key.charAt(index), character -> new Node());
+
+        // Duplicate Name Guard Statement
+        Node terminal = path[key.length()];
+        if(terminal.name != null) return;
+        terminal.name = name;
+
+        // Offer the name to the completions of every prefix.
+        for(Node node : path) node.completions = insert(node.completions, name);
+    }
+
+    /**
+     * Removes the name of a Player that went offline.
+     *
+     * @param name The Player name.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void remove(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+
+        // Walk down the path of the name.
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for(int index = 0; index < key.length(); index++) {
+            path[index + 1] = path[index].children.get(key.charAt(index));
+
+            // Unknown Name Guard Statement
+            if(path[index + 1] == null) return;
+        }
+
+        // Unknown Name Guard Statement
+        Node terminal = path[key.length()];
+        if(terminal.name == null) return;
+        terminal.name = null;
+
+        // Rebuild the completions bottom-up, pruning nodes that no longer lead to a name.
+        for(int depth = key.length(); depth >= 0; depth--) {
+            Node node = path[depth];
+            if(indexOf(node.completions, key) >= 0) node.completions = merge(node);
+
+            if(depth > 0 && node.name == null && node.children.isEmpty())
+                path[depth - 1].children.remove(key.charAt(depth - 1));
+        }
+    }
+
+    /**
+     * Removes every name.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        root.name = null;
+        root.completions = NO_NAMES;
+    }
+
+    /**
+     * Completes a prefix to online Player names.
+     *
+     * @param prefix The typed prefix, in any case.
+     * @param limit The maximum number of names to return.
+     * @return Up to limit names in case-insensitive alphabetical order, as a read-only view.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+
+        // Follow one node per character of the prefix.
+        for(int index = 0; index < prefix.length() && node != null; index++)
+            node = node.children.get(Character.toLowerCase(prefix.charAt(index)));
+
+        // Unknown Prefix Guard Statement
+        if(node == null) return Collections.emptyList();
+
+        List<String> completions = Collections.unmodifiableList(Arrays.asList(node.completions));
+        return completions.size() > limit ? completions.subList(0, limit) : completions;
+    }
+
+    private String[] insert(String[] completions, String name) {
+        int index = indexOf(completions, name.toLowerCase(Locale.ROOT));
+        int position = -(index + 1);
+
+        // Present Name and Full Completions Guard Statement
+        if(index >= 0 || position >= capacity) return completions;
+
+        String[] updated = new String[Math.min(completions.length + 1, capacity)];
+        System.arraycopy(completions, 0, updated, 0, position);
+        updated[position] = name;
+        System.arraycopy(completions, position, updated, position + 1, updated.length - position - 1);
+        return updated;
+    }
+
+    private String[] merge(Node node) {
+        // Collect the node's own name and the completions of its children, which are already up to date.
+        String[] merged = node.name == null ? NO_NAMES : new String[] {node.name};
+        for(Node child : node.children.values())
+            for(String name : child.completions) merged = insert(merged, name);
+
+        return merged;
+    }
+
+    private static int indexOf(String[] completions, String key) {
+        // Binary search by lower-case name; returns -(insertion point + 1) when absent.
+        int low = 0;
+        int high = completions.length - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = completions[middle].toLowerCase(Locale.ROOT).compareTo(key);
+
+            if(comparison < 0) low = middle + 1;
+            else if(comparison > 0) high = middle - 1;
+            else return middle;
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Node holds the children and completions of one prefix.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private static final class Node {
+        private final ConcurrentHashMap<Character, Node> children = new ConcurrentHashMap<>();
+
+        private volatile String[] completions = NO_NAMES;
+
+        private String name;
+    }
+}
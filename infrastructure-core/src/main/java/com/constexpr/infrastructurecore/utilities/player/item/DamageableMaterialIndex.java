@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.utilities.player.item;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.Damageable;
+
+import java.util.BitSet;
+
+/**
+ * Precomputed Material Damageability Lookup Table
+ * <p>
+ * Calling ItemStack.getItemMeta() clones the meta of the ItemStack, which is
+ * wasteful when the Material can never carry a Damageable meta. This index is
+ * built once at startup by asking the server's ItemFactory for the meta type of
+ * every item Material, so that collection operations can skip whole classes of
+ * slots with a single bit lookup.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class DamageableMaterialIndex {
+    private static final BitSet INDEXED_MATERIALS;
+
+    private static final BitSet DAMAGEABLE_META_MATERIALS;
+
+    private static final BitSet DURABLE_MATERIALS;
+
+    static {
+        Material[] materials = Material.values();
+
+        INDEXED_MATERIALS = new BitSet(materials.length);
+        DAMAGEABLE_META_MATERIALS = new BitSet(materials.length);
+        DURABLE_MATERIALS = new BitSet(materials.length);
+
+        ItemFactory itemFactory = Bukkit.getItemFactory();
+
+        for(Material material : materials) {
+            // Legacy and non-item Materials are left unindexed and take the ItemMeta path.
+            if(material.isLegacy() || !material.isItem() || material == Material.AIR) continue;
+
+            int ordinal = material.ordinal();
+
+            // Record whether the ItemMeta for the Material would pass the Damageable check.
+            INDEXED_MATERIALS.set(ordinal);
+            if(itemFactory.getItemMeta(material) instanceof Damageable) DAMAGEABLE_META_MATERIALS.set(ordinal);
+
+            // Record whether the Material can lose durability at all.
+            if(material.getMaxDurability() > 0) DURABLE_MATERIALS.set(ordinal);
+        }
+    }
+
+    /**
+     * Private Constructor for Static Utility Class.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    private DamageableMaterialIndex() { }
+
+    /**
+     * Forces the index to be built.
+     * @apiNote should be called during plugin startup so the first repair does not pay for the build.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void initialize() { }
+
+    /**
+     * Checks whether a Material has a precomputed entry in the index.
+     *
+     * @param material The Material to look up.
+     * @return If the other lookups of this index are valid for the Material.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static boolean isIndexed(Material material) {
+        return INDEXED_MATERIALS.get(material.ordinal());
+    }
+
+    /**
+     * Checks whether the ItemMeta of a Material implements Damageable.
+     *
+     * @param material The indexed Material to look up.
+     * @return If the ItemMeta of the Material is Damageable.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static boolean hasDamageableMeta(Material material) {
+        return DAMAGEABLE_META_MATERIALS.get(material.ordinal());
+    }
+
+    /**
+     * Checks whether a Material has a maximum durability and can therefore be damaged.
+     *
+     * @param material The indexed Material to look up.
+     * @return If the Material can lose durability.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static boolean isDurable(Material material) {
+        return DURABLE_MATERIALS.get(material.ordinal());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.utilities.player.item;
+
+/**
+ * InventoryDiff lists the slots that differ between two InventorySnapshots.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class InventoryDiff {
+    private final InventorySnapshot before;
+
+    private final InventorySnapshot after;
+
+    private final int[] changedSlots;
+
+    /**
+     * Constructor for an InventoryDiff.
+     *
+     * @param before The earlier snapshot.
+     * @param after The later snapshot.
+     * @param changedSlots The ascending indices of the changed slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    InventoryDiff(InventorySnapshot before, InventorySnapshot after, int[] changedSlots) {
+        this.before = before;
+        this.after = after;
+        this.changedSlots = changedSlots;
+    }
+
+    /**
+     * Standard Getter for the earlier snapshot.
+     *
+     * @return The earlier snapshot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InventorySnapshot getBefore() {
+        return before;
+    }
+
+    /**
+     * Standard Getter for the later snapshot.
+     *
+     * @return The later snapshot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InventorySnapshot getAfter() {
+        return after;
+    }
+
+    /**
+     * Standard Getter for the changed slots.
+     *
+     * @return A copy of the ascending indices of the changed slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int[] getChangedSlots() {
+        return changedSlots.clone();
+    }
+
+    /**
+     * Checks whether the snapshots are identical.
+     *
+     * @return If no slot changed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public boolean isEmpty() {
+        return changedSlots.length == 0;
+    }
+
+    /**
+     * Standard Getter for the number of changed slots.
+     *
+     * @return The number of changed slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int size() {
+        return changedSlots.length;
+    }
+
+    /**
+     * Gets the slot index of a change.
+     *
+     * @param change The index of the change, from 0 to size() - 1.
+     * @return The slot index.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getSlot(int change) {
+        return changedSlots[change];
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.utilities.player.item;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * InventorySnapshot is a compact, immutable capture of an inventory's slots.
+ * <p>
+ * Every slot is stored as four ints in parallel arrays: material ordinal (-1
+ * for empty), amount, damage and meta hash. Damage is read from the ItemStack
+ * itself rather than from a cloned ItemMeta, and the meta hash is a hash of
+ * the item's NBT tag, computed in place by ItemTagHashes only when requested
+ * and only for stacks that carry item data, so a
+ * snapshot of a plain survival inventory costs a handful of array writes per
+ * slot.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class InventorySnapshot {
+    /**
+     * Material Ordinal of an empty slot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int EMPTY = -1;
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final long capturedAt;
+
+    private final int[] materials;
+
+    private final int[] amounts;
+
+    private final int[] damages;
+
+    private final int[] metaHashes;
+
+    private InventorySnapshot(long capturedAt, int[] materials, int[] amounts, int[] damages, int[] metaHashes) {
+        this.capturedAt = capturedAt;
+        this.materials = materials;
+        this.amounts = amounts;
+        this.damages = damages;
+        this.metaHashes = metaHashes;
+    }
+
+    /**
+     * Captures the slots of an inventory.
+     *
+     * @param inventory The inventory to capture.
+     * @param includeMeta If meta hashes should be computed for stacks that carry item data.
+     * @return The snapshot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @SuppressWarnings("deprecation")
+    public static InventorySnapshot capture(Inventory inventory, boolean includeMeta) {
+        ItemStack[] contents = inventory.getContents();
+        int[] materials = new int[contents.length];
+        int[] amounts = new int[contents.length];
+        int[] damages = new int[contents.length];
+        int[] metaHashes = new int[contents.length];
+
+        for(int slot = 0; slot < contents.length; slot++) {
+            ItemStack itemStack = contents[slot];
+
+            // Empty Slot Guard Statement
+            if(itemStack == null || itemStack.getType() == Material.AIR) {
+                materials[slot] = EMPTY;
+                continue;
+            }
+
+            materials[slot] = itemStack.getType().ordinal();
+            amounts[slot] = itemStack.getAmount();
+            damages[slot] = itemStack.getDurability();
+            if(includeMeta && itemStack.hasItemMeta()) metaHashes[slot] = ItemTagHashes.hash(itemStack);
+        }
+
+        return new InventorySnapshot(System.currentTimeMillis(), materials, amounts, damages, metaHashes);
+    }
+
+    /**
+     * Predicts the snapshot ItemUtilities.repairItemCollection() would leave behind.
+     * <p>
+     * Slots of damageable Materials have their damage set to 0 and their meta
+     * hash cleared, since the repaired stack's data is not known until it is written.
+     *
+     * @return The predicted snapshot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InventorySnapshot withRepairs() {
+        int[] repairedDamages = damages.clone();
+        int[] repairedMetaHashes = metaHashes.clone();
+
+        for(int slot = 0; slot < materials.length; slot++) {
+            if(materials[slot] == EMPTY || damages[slot] == 0 || !isRepairable(MATERIALS[materials[slot]])) continue;
+
+            repairedDamages[slot] = 0;
+            repairedMetaHashes[slot] = 0;
+        }
+
+        return new InventorySnapshot(capturedAt, materials, amounts, repairedDamages, repairedMetaHashes);
+    }
+
+    /**
+     * Computes the slots that differ between this snapshot and a later one.
+     *
+     * @param after The later snapshot of the same inventory.
+     * @return The slot-level diff.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public InventoryDiff diff(InventorySnapshot after) {
+        int slots = Math.max(size(), after.size());
+        int[] changed = new int[slots];
+        int count = 0;
+
+        for(int slot = 0; slot < slots; slot++)
+            if(getMaterialOrdinal(slot) != after.getMaterialOrdinal(slot) || getAmount(slot) != after.getAmount(slot)
+                    || getDamage(slot) != after.getDamage(slot) || getMetaHash(slot) != after.getMetaHash(slot))
+                changed[count++] = slot;
+
+        return new InventoryDiff(this, after, Arrays.copyOf(changed, count));
+    }
+
+    /**
+     * Standard Getter for the Capture Time.
+     *
+     * @return The System.currentTimeMillis() at which the snapshot was captured.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * Standard Getter for the number of captured slots.
+     *
+     * @return The number of slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int size() {
+        return materials.length;
+    }
+
+    /**
+     * Gets the Material ordinal of a slot.
+     *
+     * @param slot The slot index.
+     * @return The Material ordinal, or EMPTY for empty and out-of-range slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getMaterialOrdinal(int slot) {
+        return slot < materials.length ? materials[slot] : EMPTY;
+    }
+
+    /**
+     * Gets the Material of a slot.
+     *
+     * @param slot The slot index.
+     * @return The Material, or AIR for empty slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public Material getMaterial(int slot) {
+        int ordinal = getMaterialOrdinal(slot);
+        return ordinal == EMPTY ? Material.AIR : MATERIALS[ordinal];
+    }
+
+    /**
+     * Gets the amount of a slot.
+     *
+     * @param slot The slot index.
+     * @return The stack amount, 0 for empty slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getAmount(int slot) {
+        return slot < amounts.length ? amounts[slot] : 0;
+    }
+
+    /**
+     * Gets the damage of a slot.
+     *
+     * @param slot The slot index.
+     * @return The damage, 0 for empty slots.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getDamage(int slot) {
+        return slot < damages.length ? damages[slot] : 0;
+    }
+
+    /**
+     * Gets the meta hash of a slot.
+     *
+     * @param slot The slot index.
+     * @return The meta hash, 0 when none was computed.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public int getMetaHash(int slot) {
+        return slot < metaHashes.length ? metaHashes[slot] : 0;
+    }
+
+    private static boolean isRepairable(Material material) {
+        // Indexed Materials are repairable exactly when their ItemMeta is Damageable.
+        if(DamageableMaterialIndex.isIndexed(material)) return DamageableMaterialIndex.hasDamageableMeta(material);
+
+        return material.getMaxDurability() > 0;
+    }
+}
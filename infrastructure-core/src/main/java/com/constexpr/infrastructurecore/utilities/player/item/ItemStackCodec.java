@@ -0,0 +1,594 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.constexpr.infrastructurecore.utilities.player.item;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned Binary Codec for ItemStacks and inventory contents.
+ * <p>
+ * Contents are encoded as [magic][version][flags][body length] followed by
+ * the body, which is optionally deflated. The body lists every slot as empty,
+ * plain (material and amount) or with item data; item data is the ItemMeta's
+ * serialized form, written as a tagged binary tree instead of YAML. Material
+ * names and strings are dictionary-encoded: the first occurrence is written
+ * in full and later ones as an index, so the keys repeated by every tool of an
+ * inventory cost one or two bytes each. Materials are stored by name rather
+ * than ordinal so encoded contents survive server upgrades.
+ * <p>
+ * The codec reads and writes heap and direct ByteBuffers alike, which makes
+ * the same format usable for snapshots, persistence and network transfer.
+ * No subsystem stores or transfers inventories yet, so for now the codec is
+ * only exercised by ItemStackCodecBenchmark.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+public final class ItemStackCodec {
+    /**
+     * The version of the encoding written by this codec.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x49434953;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int INITIAL_BODY_CAPACITY = 1024;
+
+    private static final int MAX_BODY_BYTES = 16 << 20;
+
+    private static final String ITEM_META_ALIAS = "ItemMeta";
+
+    private static final byte SLOT_EMPTY = 0;
+
+    private static final byte SLOT_PLAIN = 1;
+
+    private static final byte SLOT_META = 2;
+
+    private static final byte TAG_NULL = 0;
+
+    private static final byte TAG_STRING = 1;
+
+    private static final byte TAG_INT = 2;
+
+    private static final byte TAG_LONG = 3;
+
+    private static final byte TAG_DOUBLE = 4;
+
+    private static final byte TAG_FLOAT = 5;
+
+    private static final byte TAG_TRUE = 6;
+
+    private static final byte TAG_FALSE = 7;
+
+    private static final byte TAG_SHORT = 8;
+
+    private static final byte TAG_BYTE = 9;
+
+    private static final byte TAG_LIST = 10;
+
+    private static final byte TAG_MAP = 11;
+
+    private static final byte TAG_SERIALIZABLE = 12;
+
+    private ItemStackCodec() { }
+
+    /**
+     * Encodes inventory contents into a new heap ByteBuffer.
+     *
+     * @param contents The slots to encode; null and AIR slots are encoded as empty.
+     * @param compress If the body should be deflated.
+     * @return The encoded contents, positioned at 0 and limited to their length.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ByteBuffer encode(ItemStack[] contents, boolean compress) {
+        ByteBuffer body = encodeBody(contents);
+        ByteBuffer target = ByteBuffer.allocate(headerSize(body.remaining()) + (compress ? deflateBound(body.remaining()) : body.remaining()));
+
+        writeFrame(body, target, compress);
+        target.flip();
+        return target;
+    }
+
+    /**
+     * Encodes inventory contents into an existing heap or direct ByteBuffer.
+     *
+     * @param contents The slots to encode; null and AIR slots are encoded as empty.
+     * @param target The buffer to write to, from its position onwards.
+     * @param compress If the body should be deflated.
+     * @throws java.nio.BufferOverflowException If the target has too little space left.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void encode(ItemStack[] contents, ByteBuffer target, boolean compress) {
+        writeFrame(encodeBody(contents), target, compress);
+    }
+
+    /**
+     * Decodes inventory contents from a heap or direct ByteBuffer.
+     *
+     * @param source The buffer to read from, from its position onwards; it is advanced past the contents.
+     * @return The decoded slots, with null for empty slots and for Materials unknown to this server.
+     * @throws IOException If the contents are malformed or of an unsupported version.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ItemStack[] decode(ByteBuffer source) throws IOException {
+        try {
+            // Header
+            if(source.getInt() != MAGIC) throw new IOException("Not an encoded inventory.");
+            int version = source.get() & 0xFF;
+            if(version != FORMAT_VERSION) throw new IOException("Unsupported inventory encoding version " + version + ".");
+            int flags = source.get() & 0xFF;
+            int bodyLength = readLength(source, MAX_BODY_BYTES);
+
+            // Body, inflated if it was compressed.
+            ByteBuffer body;
+            if((flags & FLAG_COMPRESSED) != 0) {
+                byte[] compressed = new byte[readLength(source, source.remaining())];
+                source.get(compressed);
+                body = ByteBuffer.wrap(inflate(compressed, bodyLength));
+            } else {
+                body = source.slice();
+                body.limit(bodyLength);
+                source.position(source.position() + bodyLength);
+            }
+
+            return new Decoder(body).readContents();
+        } catch(BufferUnderflowException | IndexOutOfBoundsException | ClassCastException | IllegalArgumentException exception) {
+            throw new IOException("Malformed encoded inventory.", exception);
+        }
+    }
+
+    /**
+     * Encodes a single ItemStack into a new heap ByteBuffer.
+     *
+     * @param itemStack The ItemStack to encode.
+     * @return The encoded ItemStack, positioned at 0 and limited to its length.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ByteBuffer encodeItem(ItemStack itemStack) {
+        return encode(new ItemStack[] { itemStack }, false);
+    }
+
+    /**
+     * Decodes a single ItemStack.
+     *
+     * @param source The buffer to read from, from its position onwards.
+     * @return The decoded ItemStack, or null if it was empty.
+     * @throws IOException If the ItemStack is malformed or the buffer holds more than one slot.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ItemStack decodeItem(ByteBuffer source) throws IOException {
+        ItemStack[] contents = decode(source);
+        if(contents.length != 1) throw new IOException("Expected a single encoded ItemStack, found " + contents.length + ".");
+
+        return contents[0];
+    }
+
+    /**
+     * Encodes the contents of a PlayerInventory, including armor and off-hand.
+     *
+     * @param playerInventory The PlayerInventory.
+     * @param compress If the body should be deflated.
+     * @return The encoded contents.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ByteBuffer encodeInventory(PlayerInventory playerInventory, boolean compress) {
+        return encode(playerInventory.getContents(), compress);
+    }
+
+    /**
+     * Replaces the contents of a PlayerInventory with decoded contents.
+     *
+     * @param playerInventory The PlayerInventory.
+     * @param source The buffer holding contents encoded by encodeInventory().
+     * @throws IOException If the contents are malformed or do not fit the inventory.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static void decodeInventory(PlayerInventory playerInventory, ByteBuffer source) throws IOException {
+        ItemStack[] contents = decode(source);
+        if(contents.length > playerInventory.getSize()) throw new IOException("Encoded contents have " + contents.length + " slots, the inventory has " + playerInventory.getSize() + ".");
+
+        playerInventory.setContents(contents);
+    }
+
+    private static ByteBuffer encodeBody(ItemStack[] contents) {
+        Encoder encoder = new Encoder();
+        encoder.writeContents(contents);
+
+        ByteBuffer body = encoder.buffer;
+        body.flip();
+        return body;
+    }
+
+    private static void writeFrame(ByteBuffer body, ByteBuffer target, boolean compress) {
+        target.putInt(MAGIC);
+        target.put((byte) FORMAT_VERSION);
+        target.put((byte) (compress ? FLAG_COMPRESSED : 0));
+        writeVarInt(target, body.remaining());
+
+        // Uncompressed Body Guard Statement
+        if(!compress) {
+            target.put(body);
+            return;
+        }
+
+        byte[] compressed = deflate(body);
+        writeVarInt(target, compressed.length);
+        target.put(compressed);
+    }
+
+    private static int headerSize(int bodyLength) {
+        return Integer.BYTES + 2 + 2 * varIntSize(bodyLength + deflateBound(bodyLength));
+    }
+
+    private static int deflateBound(int length) {
+        // zlib's worst-case expansion of stored blocks, plus the stream header and checksum.
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13;
+    }
+
+    private static byte[] deflate(ByteBuffer body) {
+        byte[] input = new byte[body.remaining()];
+        body.get(input);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            byte[] output = new byte[deflateBound(input.length)];
+            int length = 0;
+            while(!deflater.finished()) length += deflater.deflate(output, length, output.length - length);
+
+            return Arrays.copyOf(output, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int bodyLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            byte[] body = new byte[bodyLength];
+            int length = 0;
+            while(length < bodyLength && !inflater.finished()) {
+                int inflated = inflater.inflate(body, length, bodyLength - length);
+                if(inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += inflated;
+            }
+
+            if(length != bodyLength) throw new IOException("Truncated compressed inventory.");
+            return body;
+        } catch(DataFormatException exception) {
+            throw new IOException("Corrupt compressed inventory.", exception);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+
+        for(int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int part = buffer.get() & 0xFF;
+            value |= (part & 0x7F) << shift;
+            if((part & 0x80) == 0) return value;
+        }
+
+        throw new IOException("Malformed varint in encoded inventory.");
+    }
+
+    private static int readLength(ByteBuffer buffer, int maximum) throws IOException {
+        int length = readVarInt(buffer);
+        if(length < 0 || length > maximum) throw new IOException("Invalid length " + length + " in encoded inventory.");
+        return length;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Body Writer holding the dictionaries of one encoding.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private int[] materials = new int[16];
+
+        private int materialCount;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BODY_CAPACITY);
+
+        private void writeContents(ItemStack[] contents) {
+            writeVarInt(ensure(5), contents.length);
+
+            for(ItemStack itemStack : contents) {
+                // Empty Slot Guard Statement
+                if(itemStack == null || itemStack.getType() == Material.AIR) {
+                    ensure(1).put(SLOT_EMPTY);
+                    continue;
+                }
+
+                boolean hasItemMeta = itemStack.hasItemMeta();
+                ensure(1).put(hasItemMeta ? SLOT_META : SLOT_PLAIN);
+                writeMaterial(itemStack.getType());
+                writeVarInt(ensure(5), itemStack.getAmount());
+                if(hasItemMeta) writeSerializable(ITEM_META_ALIAS, itemStack.getItemMeta().serialize());
+            }
+        }
+
+        private void writeMaterial(Material material) {
+            // Known materials are written as their index, new ones as 0 followed by their name.
+            int ordinal = material.ordinal();
+            for(int index = 0; index < materialCount; index++) {
+                if(materials[index] == ordinal) {
+                    writeVarInt(ensure(5), index + 1);
+                    return;
+                }
+            }
+
+            if(materialCount == materials.length) materials = Arrays.copyOf(materials, materialCount * 2);
+            materials[materialCount++] = ordinal;
+            writeVarInt(ensure(5), 0);
+            writeUtf(material.name());
+        }
+
+        private void writeString(String value) {
+            // Known strings are written as their index, new ones as 0 followed by their bytes.
+            Integer index = strings.get(value);
+            if(index != null) {
+                writeVarInt(ensure(5), index + 1);
+                return;
+            }
+
+            strings.put(value, strings.size());
+            writeVarInt(ensure(5), 0);
+            writeUtf(value);
+        }
+
+        private void writeUtf(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(ensure(5 + bytes.length), bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void writeSerializable(String alias, Map<String, Object> serialized) {
+            writeString(alias);
+            writeVarInt(ensure(5), serialized.size());
+            for(Map.Entry<String, Object> entry : serialized.entrySet()) {
+                writeString(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeValue(Object value) {
+            if(value == null) ensure(1).put(TAG_NULL);
+            else if(value instanceof String) {
+                ensure(1).put(TAG_STRING);
+                writeString((String) value);
+            } else if(value instanceof Integer) {
+                int number = (Integer) value;
+                writeVarInt(ensure(6).put(TAG_INT), (number << 1) ^ (number >> 31));
+            } else if(value instanceof Long) ensure(9).put(TAG_LONG).putLong((Long) value);
+            else if(value instanceof Double) ensure(9).put(TAG_DOUBLE).putDouble((Double) value);
+            else if(value instanceof Float) ensure(5).put(TAG_FLOAT).putFloat((Float) value);
+            else if(value instanceof Boolean) ensure(1).put((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            else if(value instanceof Short) ensure(3).put(TAG_SHORT).putShort((Short) value);
+            else if(value instanceof Byte) ensure(2).put(TAG_BYTE).put((Byte) value);
+            else if(value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                writeVarInt(ensure(6).put(TAG_LIST), collection.size());
+                for(Object element : collection) writeValue(element);
+            } else if(value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                writeVarInt(ensure(6).put(TAG_MAP), map.size());
+                for(Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString(String.valueOf(entry.getKey()));
+                    writeValue(entry.getValue());
+                }
+            } else if(value instanceof ConfigurationSerializable) {
+                ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+                ensure(1).put(TAG_SERIALIZABLE);
+                writeSerializable(value instanceof ItemMeta ? ITEM_META_ALIAS : ConfigurationSerialization.getAlias(serializable.getClass()), serializable.serialize());
+            } else throw new IllegalArgumentException("Cannot encode item data of type " + value.getClass().getName() + ".");
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if(buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+
+            return buffer;
+        }
+    }
+
+    /**
+     * Body Reader holding the dictionaries of one decoding.
+     *
+     * @author constexpr
+     * @version 1.0.0-ALPHA
+     * @since 1.0.0-ALPHA
+     */
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+
+        private final List<String> strings = new ArrayList<>();
+
+        private final List<Material> materials = new ArrayList<>();
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private ItemStack[] readContents() throws IOException {
+            ItemStack[] contents = new ItemStack[readLength(buffer, buffer.remaining())];
+
+            for(int slot = 0; slot < contents.length; slot++) {
+                byte kind = buffer.get();
+                if(kind == SLOT_EMPTY) continue;
+                if(kind != SLOT_PLAIN && kind != SLOT_META) throw new IOException("Unknown slot kind " + kind + " in encoded inventory.");
+
+                Material material = readMaterial();
+                int amount = readVarInt(buffer);
+                Object itemMeta = kind == SLOT_META ? readSerializable() : null;
+
+                // Materials removed from this server version decode as empty slots.
+                if(material == null) continue;
+
+                contents[slot] = new ItemStack(material, amount);
+                if(itemMeta instanceof ItemMeta) contents[slot].setItemMeta((ItemMeta) itemMeta);
+            }
+
+            return contents;
+        }
+
+        private Material readMaterial() throws IOException {
+            int index = readVarInt(buffer);
+            if(index > 0) return materials.get(index - 1);
+
+            Material material = Material.getMaterial(readUtf());
+            materials.add(material);
+            return material;
+        }
+
+        private String readString() throws IOException {
+            int index = readVarInt(buffer);
+            if(index > 0) return strings.get(index - 1);
+
+            String value = readUtf();
+            strings.add(value);
+            return value;
+        }
+
+        private String readUtf() throws IOException {
+            byte[] bytes = new byte[readLength(buffer, buffer.remaining())];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private Object readSerializable() throws IOException {
+            String alias = readString();
+            Map<String, Object> serialized = readMap();
+            serialized.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+
+            return ConfigurationSerialization.deserializeObject(serialized);
+        }
+
+        private Map<String, Object> readMap() throws IOException {
+            int size = readLength(buffer, buffer.remaining());
+            Map<String, Object> map = new LinkedHashMap<>(size * 2);
+            for(int index = 0; index < size; index++) map.put(readString(), readValue());
+
+            return map;
+        }
+
+        private Object readValue() throws IOException {
+            byte tag = buffer.get();
+
+            switch(tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_STRING:
+                    return readString();
+                case TAG_INT:
+                    int zigZag = readVarInt(buffer);
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                case TAG_LONG:
+                    return buffer.getLong();
+                case TAG_DOUBLE:
+                    return buffer.getDouble();
+                case TAG_FLOAT:
+                    return buffer.getFloat();
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_SHORT:
+                    return buffer.getShort();
+                case TAG_BYTE:
+                    return buffer.get();
+                case TAG_LIST:
+                    int size = readLength(buffer, buffer.remaining());
+                    List<Object> list = new ArrayList<>(size);
+                    for(int index = 0; index < size; index++) list.add(readValue());
+                    return list;
+                case TAG_MAP:
+                    return readMap();
+                case TAG_SERIALIZABLE:
+                    return readSerializable();
+                default:
+                    throw new IOException("Unknown value tag " + tag + " in encoded inventory.");
+            }
+        }
+    }
+}
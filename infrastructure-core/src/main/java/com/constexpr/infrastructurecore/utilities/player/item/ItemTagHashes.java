@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Collin Johnson
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.constexpr.infrastructurecore.utilities.player.item;
+
+import com.constexpr.infrastructurecore.InfrastructureCorePluginHandle;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.logging.Level;
+
+/**
+ * ItemTagHashes hashes the item data of an ItemStack without building an ItemMeta.
+ * <p>
+ * ItemStack.hashCode() clones the ItemMeta of a stack, which is far more
+ * expensive than the rest of a snapshot. A CraftItemStack instead wraps the
+ * server's own item, whose NBT tag is hashed in place. The CraftBukkit types
+ * are versioned, so they are looked up reflectively once and read through
+ * MethodHandles; without them (e.g. in benchmarks) item data is not hashed.
+ *
+ * @author constexpr
+ * @version 1.0.0-ALPHA
+ * @since 1.0.0-ALPHA
+ */
+final class ItemTagHashes {
+    private static final Class<?> CRAFT_ITEM_STACK;
+
+    private static final MethodHandle GET_HANDLE;
+
+    private static final MethodHandle GET_TAG;
+
+    static {
+        Class<?> craftItemStack = null;
+        MethodHandle getHandle = null;
+        MethodHandle getTag = null;
+
+        Server server = Bukkit.getServer();
+        if(server != null) {
+            try {
+                // e.g. org.bukkit.craftbukkit.v1_15_R1.inventory.CraftItemStack
+                craftItemStack = Class.forName(server.getClass().getPackage().getName() + ".inventory.CraftItemStack");
+
+                Field handle = craftItemStack.getDeclaredField("handle");
+                handle.setAccessible(true);
+                getHandle = MethodHandles.lookup().unreflectGetter(handle);
+                getTag = MethodHandles.lookup().unreflect(handle.getType().getMethod("getTag"));
+            } catch(ReflectiveOperationException | RuntimeException exception) {
+                InfrastructureCorePluginHandle.LOGGER.log(Level.WARNING, "Failed to bind item tags, inventory snapshots will not hash item data.", exception);
+                craftItemStack = null;
+            }
+        }
+
+        CRAFT_ITEM_STACK = craftItemStack;
+        GET_HANDLE = getHandle;
+        GET_TAG = getTag;
+    }
+
+    private ItemTagHashes() { }
+
+    /**
+     * Hashes the item data of a stack.
+     *
+     * @param itemStack The ItemStack.
+     * @return The hash of its NBT tag, or 0 if it has none or it cannot be read.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    static int hash(ItemStack itemStack) {
+        // Unbound or Plain ItemStack Guard Statement
+        if(CRAFT_ITEM_STACK == null || !CRAFT_ITEM_STACK.isInstance(itemStack)) return 0;
+
+        try {
+            Object handle = GET_HANDLE.invoke(itemStack);
+            Object tag = handle == null ? null : GET_TAG.invoke(handle);
+            return tag == null ? 0 : tag.hashCode();
+        } catch(Throwable throwable) {
+            return 0;
+        }
+    }
+}
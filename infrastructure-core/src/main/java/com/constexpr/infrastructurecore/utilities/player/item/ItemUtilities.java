@@ -25,10 +25,18 @@
 package com.constexpr.infrastructurecore.utilities.player.item;
 
 import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.BlockStateMeta;
 import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Utilities Class with Static Item Factory Methods
  * <p>
@@ -118,6 +126,13 @@ public class ItemUtilities {
         if(itemStack == null) return ItemRepairExitValue.ILLEGAL_ITEM;
         if(itemStack.getType() == Material.AIR) return ItemRepairExitValue.AIR_ITEM;
 
+        // Precomputed Damageability Guard Statements that avoid cloning the ItemMeta
+        Material material = itemStack.getType();
+        if(DamageableMaterialIndex.isIndexed(material)) {
+            if(!DamageableMaterialIndex.hasDamageableMeta(material)) return ItemRepairExitValue.ILLEGAL_ITEM;
+            if(damage == 0 && isUndamaged(itemStack, material)) return ItemRepairExitValue.SUCCESS;
+        }
+
         // Get ItemStack ItemMeta in order to perform durability operation
         ItemMeta itemMeta = itemStack.getItemMeta();
 
@@ -154,6 +169,94 @@ public class ItemUtilities {
         return exitValue;
     }
 
+    /**
+     * Checks whether an ItemStack is a container item, e.g. a Shulker Box, whose
+     * contents are stored in its BlockStateMeta.
+     *
+     * @param itemStack ItemStack to inspect.
+     * @return If the ItemStack is a container item.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static boolean isContainerItem(ItemStack itemStack) {
+        return itemStack != null && Tag.SHULKER_BOXES.isTagged(itemStack.getType());
+    }
+
+    /**
+     * Repairs every item stored inside a container item in a single pass.
+     * <p>
+     * The BlockStateMeta of the container is unpacked once, every contained item
+     * is repaired in bulk, and the meta is written back to the container once.
+     *
+     * @param containerItem The container ItemStack whose contents to repair.
+     * @return The Operation Exit Code, AIR_ITEM for empty containers and ILLEGAL_ITEM for non-containers.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static ItemRepairExitValue repairContainerItem(ItemStack containerItem) {
+        // Container Type Guard Statement
+        if(!isContainerItem(containerItem)) return ItemRepairExitValue.ILLEGAL_ITEM;
+
+        // Unpack the container state once.
+        ItemMeta itemMeta = containerItem.getItemMeta();
+        if(!(itemMeta instanceof BlockStateMeta)) return ItemRepairExitValue.ILLEGAL_ITEM;
+
+        BlockStateMeta blockStateMeta = (BlockStateMeta) itemMeta;
+        BlockState blockState = blockStateMeta.getBlockState();
+        if(!(blockState instanceof Container)) return ItemRepairExitValue.ILLEGAL_ITEM;
+
+        // Repair the contents of the snapshot inventory in bulk.
+        Inventory inventory = ((Container) blockState).getSnapshotInventory();
+        ItemStack[] contents = inventory.getContents();
+        List<ItemStack> storedItems = getStoredItems(contents);
+
+        // Empty Container Guard Statement
+        if(storedItems.isEmpty()) return ItemRepairExitValue.AIR_ITEM;
+
+        ItemRepairExitValue exitValue = setItemCollectionDurability(storedItems, 0);
+
+        // Write the contents, state and meta back a single time.
+        inventory.setContents(contents);
+        blockStateMeta.setBlockState(blockState);
+        containerItem.setItemMeta(blockStateMeta);
+
+        return exitValue;
+    }
+
+    /**
+     * Collects the non-empty ItemStacks of an inventory's contents.
+     *
+     * @param contents The inventory contents, which may contain null slots.
+     * @return The stored ItemStacks.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    public static List<ItemStack> getStoredItems(ItemStack[] contents) {
+        List<ItemStack> storedItems = new ArrayList<>();
+
+        for(ItemStack itemStack : contents)
+            if(itemStack != null && itemStack.getType() != Material.AIR) storedItems.add(itemStack);
+
+        return storedItems;
+    }
+
+    /**
+     * Checks whether an ItemStack of an indexed Material already has no damage.
+     * <p>
+     * Materials without a maximum durability cannot be damaged, and for the rest
+     * the damage value is read from the ItemStack handle instead of a cloned ItemMeta.
+     *
+     * @param itemStack ItemStack to inspect.
+     * @param material The Material of the ItemStack.
+     * @return If setting the damage to 0 would not change the ItemStack.
+     *
+     * @since 1.0.0-ALPHA
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean isUndamaged(ItemStack itemStack, Material material) {
+        return !DamageableMaterialIndex.isDurable(material) || itemStack.getDurability() == 0;
+    }
+
     /**
      * Repairs a member of an ItemStack collection (collection method specific)
      *